@@ -21,7 +21,7 @@ import type {
   UpdateProfileRequest,
   UpdateProfileResponse,
   ChangePasswordRequest,
-  StandardResponse,
+  ChangePasswordResponse,
   QuizData,
   QuizContentData,
   QuizAnswerRequest,
@@ -130,7 +130,7 @@ export const userApi = {
 
   changePassword: async (
     request: ChangePasswordRequest
-  ): Promise<ApiResponse<StandardResponse>> => {
+  ): Promise<ApiResponse<ChangePasswordResponse>> => {
     try {
       const data = await userService.changePassword(request);
       return { status: 'success' as const, data };
@@ -1,10 +1,5 @@
 import { httpClient } from './httpClient.api';
 
-export interface UpdateScoreRequest {
-  userId: number;
-  totalScore: number;
-}
-
 export interface UserRankingDto {
   userId: number;
   username: string;
@@ -21,12 +16,6 @@ export interface BaseResponse {
 }
 
 export const rankingApi = {
-  updateUserScore: async (
-    request: UpdateScoreRequest
-  ): Promise<UserRankingDto> => {
-    return await httpClient.put<UserRankingDto>('/rankings/score', request);
-  },
-
   getUserRanking: async (userId: number): Promise<UserRankingDto | null> => {
     try {
       return await httpClient.get<UserRankingDto>(`/rankings/user/${userId}`);
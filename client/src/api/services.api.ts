@@ -1,5 +1,5 @@
 import { httpClient } from './httpClient.api';
-import { removeAuthToken } from './base.api';
+import { removeAuthToken, setAuthToken } from './base.api';
 import type {
   ApiResponse,
   AuthResponse,
@@ -12,6 +12,7 @@ import type {
   UpdateProfileRequest,
   UpdateProfileResponse,
   ChangePasswordRequest,
+  ChangePasswordResponse,
   StandardResponse,
   QuizData,
   QuizContentData,
@@ -80,8 +81,16 @@ export const userService = {
 
   changePassword: async (
     request: ChangePasswordRequest
-  ): Promise<StandardResponse> => {
-    return httpClient.put<StandardResponse>('/user/password', request);
+  ): Promise<ChangePasswordResponse> => {
+    const response = await httpClient.put<ChangePasswordResponse>(
+      '/user/password',
+      request
+    );
+    // Zmiana hasła unieważnia poprzednie tokeny, więc sesja przechodzi na nowy
+    if (response.data) {
+      setAuthToken(response.data);
+    }
+    return response;
   },
 
   deleteAccount: async (): Promise<StandardResponse> => {
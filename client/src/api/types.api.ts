@@ -85,6 +85,10 @@ export interface StandardResponse {
   message: string;
 }
 
+export interface ChangePasswordResponse extends StandardResponse {
+  data?: string;
+}
+
 export interface QuizData {
   id: number;
   title: string;
@@ -93,6 +97,7 @@ export interface QuizData {
   difficulty: 'EASY' | 'MEDIUM' | 'HARD';
   timeLimit: number;
   createdAt: string;
+  questionCount?: number;
   user: UserData;
 }
 
@@ -114,6 +119,7 @@ export interface QuizResultData {
   totalQuestions: number;
   correctAnswers: number;
   timeSpent: number;
+  pointsAwarded?: number;
   completedAt: string;
 }
 
@@ -75,6 +75,7 @@ export const QuizDetailPage = memo(() => {
           totalQuestions={results.totalQuestions}
           correctAnswers={results.correctAnswers}
           timeSpent={results.timeSpent}
+          pointsAwarded={results.pointsAwarded}
           onRestart={handleRestartQuiz}
         />
       </ErrorBoundaryWrapper>
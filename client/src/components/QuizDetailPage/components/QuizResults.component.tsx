@@ -22,24 +22,30 @@ interface QuizResultsProps {
   totalQuestions: number;
   correctAnswers: number;
   timeSpent: number;
+  pointsAwarded?: number;
   onRestart: () => void;
 }
 
 export const QuizResults = memo<QuizResultsProps>(
-  ({ quiz, score, totalQuestions, correctAnswers, timeSpent, onRestart }) => {
+  ({
+    quiz,
+    score,
+    totalQuestions,
+    correctAnswers,
+    timeSpent,
+    pointsAwarded,
+    onRestart,
+  }) => {
     const { isAuthenticated } = useAuth();
     const navigate = useNavigate();
-    const { userRanking, showRankingUpdate } = useQuizRanking({
-      score,
-      correctAnswers,
-    });
+    const { showRankingUpdate } = useQuizRanking({ pointsAwarded });
 
     return (
       <div className="min-h-screen bg-gradient-to-br from-blue-50 to-indigo-100 py-12">
         <div className="max-w-4xl mx-auto px-4 sm:px-6 lg:px-8">
-          {isAuthenticated && userRanking && (
+          {isAuthenticated && pointsAwarded !== undefined && (
             <RankingUpdateNotification
-              userRanking={userRanking}
+              pointsAwarded={pointsAwarded}
               show={showRankingUpdate}
             />
           )}
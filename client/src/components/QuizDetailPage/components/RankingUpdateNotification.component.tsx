@@ -1,14 +1,13 @@
 import { memo } from 'react';
 import { TrophyIcon } from '@heroicons/react/24/outline';
-import type { UserRankingDto } from '../../../api/ranking.api';
 
 interface RankingUpdateNotificationProps {
-  userRanking: UserRankingDto;
+  pointsAwarded: number;
   show: boolean;
 }
 
 export const RankingUpdateNotification = memo<RankingUpdateNotificationProps>(
-  ({ userRanking, show }) => {
+  ({ pointsAwarded, show }) => {
     if (!show) return null;
 
     return (
@@ -23,11 +22,8 @@ export const RankingUpdateNotification = memo<RankingUpdateNotificationProps>(
                 🎉 Ranking zaktualizowany!
               </h3>
               <p className="text-green-700">
-                Twoja pozycja:{' '}
-                <span className="font-bold">#{userRanking.ranking}</span>
-                {' • '}
-                Łącznie punktów:{' '}
-                <span className="font-bold">{userRanking.totalScore}</span>
+                Zdobyte punkty:{' '}
+                <span className="font-bold">+{pointsAwarded}</span>
               </p>
             </div>
           </div>
@@ -0,0 +1,50 @@
+import { renderHook, act } from '@testing-library/react';
+import { describe, it, expect, vi, beforeEach, afterEach } from 'vitest';
+import { useQuizRanking } from '../useQuizRanking.hook';
+
+const mockUseAuth = vi.fn();
+vi.mock('../../../../hooks/auth/useAuth.hook', () => ({
+  useAuth: () => mockUseAuth(),
+}));
+
+describe('useQuizRanking', () => {
+  beforeEach(() => {
+    vi.useFakeTimers();
+    vi.clearAllMocks();
+  });
+
+  afterEach(() => {
+    vi.useRealTimers();
+  });
+
+  it('should show points awarded by the server and hide them after 5 seconds', () => {
+    mockUseAuth.mockReturnValue({ isAuthenticated: true });
+
+    const { result } = renderHook(() => useQuizRanking({ pointsAwarded: 16 }));
+
+    expect(result.current.showRankingUpdate).toBe(true);
+    expect(result.current.pointsAwarded).toBe(16);
+
+    act(() => {
+      vi.advanceTimersByTime(5000);
+    });
+
+    expect(result.current.showRankingUpdate).toBe(false);
+  });
+
+  it('should not show update for anonymous user', () => {
+    mockUseAuth.mockReturnValue({ isAuthenticated: false });
+
+    const { result } = renderHook(() => useQuizRanking({ pointsAwarded: 16 }));
+
+    expect(result.current.showRankingUpdate).toBe(false);
+  });
+
+  it('should not show update when the result carries no points', () => {
+    mockUseAuth.mockReturnValue({ isAuthenticated: true });
+
+    const { result } = renderHook(() => useQuizRanking({}));
+
+    expect(result.current.showRankingUpdate).toBe(false);
+  });
+});
@@ -1,47 +1,31 @@
 import { useEffect, useState } from 'react';
-import { useRanking } from '../../RankingSection/hooks/useRanking.hook';
 import { useAuth } from '../../../hooks/auth/useAuth.hook';
 
 interface UseQuizRankingProps {
-  score: number;
-  correctAnswers: number;
+  pointsAwarded?: number;
 }
 
-export const useQuizRanking = ({
-  score,
-  correctAnswers,
-}: UseQuizRankingProps) => {
+// Punkty nalicza serwer przy sprawdzaniu odpowiedzi i zwraca je w wyniku quizu,
+// a ranking zapisuje dopiero przy kolejnym zrzucie podejść - dlatego pokazujemy punkty z odpowiedzi
+export const useQuizRanking = ({ pointsAwarded }: UseQuizRankingProps) => {
   const { isAuthenticated } = useAuth();
-  const { updateUserScore, userRanking } = useRanking();
-  const [rankingUpdated, setRankingUpdated] = useState(false);
   const [showRankingUpdate, setShowRankingUpdate] = useState(false);
 
   useEffect(() => {
-    const updateRanking = async () => {
-      if (isAuthenticated && !rankingUpdated) {
-        try {
-          const earnedPoints = Math.floor((score / 100) * correctAnswers * 5); // 5 points per correct answer, scaled by score
-          const updatedRanking = await updateUserScore(earnedPoints);
+    if (!isAuthenticated || pointsAwarded === undefined) {
+      return;
+    }
 
-          if (updatedRanking) {
-            setRankingUpdated(true);
-            setShowRankingUpdate(true);
+    setShowRankingUpdate(true);
+    const timer = setTimeout(() => {
+      setShowRankingUpdate(false);
+    }, 5000);
 
-            setTimeout(() => {
-              setShowRankingUpdate(false);
-            }, 5000);
-          }
-        } catch (error) {
-          console.error('Błąd aktualizacji rankingu:', error);
-        }
-      }
-    };
-
-    updateRanking();
-  }, [isAuthenticated, score, correctAnswers, rankingUpdated, updateUserScore]);
+    return () => clearTimeout(timer);
+  }, [isAuthenticated, pointsAwarded]);
 
   return {
-    userRanking,
+    pointsAwarded,
     showRankingUpdate,
   };
 };
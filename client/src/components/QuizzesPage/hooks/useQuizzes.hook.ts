@@ -16,7 +16,7 @@ const mapQuizData = (apiQuiz: QuizData): Quiz => ({
   description: apiQuiz.description,
   category: apiQuiz.category,
   difficulty: apiQuiz.difficulty.toLowerCase() as 'easy' | 'medium' | 'hard',
-  questionsCount: apiQuiz.questions?.length || 0,
+  questionsCount: apiQuiz.questionCount ?? apiQuiz.questions?.length ?? 0,
   timeLimit: apiQuiz.timeLimit,
   createdAt: new Date(apiQuiz.createdAt).toLocaleDateString('pl-PL'),
   imageUrl: `https://images.unsplash.com/photo-${Math.floor(Math.random() * 1000000000)}?w=400&h=300&fit=crop`,
@@ -6,7 +6,6 @@ import type { UserRankingDto } from '../../../../api/ranking.api';
 vi.mock('../../../../api/ranking.api', () => ({
   rankingApi: {
     getUserRanking: vi.fn(),
-    updateUserScore: vi.fn(),
     getTopRankings: vi.fn(),
   },
 }));
@@ -57,7 +56,6 @@ describe('useRanking', () => {
     vi.clearAllMocks();
     mockUseAuth.mockReturnValue({ user: mockUser });
     (rankingApi.getUserRanking as any).mockReset();
-    (rankingApi.updateUserScore as any).mockReset();
     (rankingApi.getTopRankings as any).mockReset();
   });
 
@@ -224,96 +222,13 @@ describe('useRanking', () => {
     );
   });
 
-  it('should update user score successfully', async () => {
-    const currentRanking = { ...mockUserRanking, totalScore: 100 };
-    const updatedRanking = { ...mockUserRanking, totalScore: 150 };
-
-    (rankingApi.getUserRanking as any).mockResolvedValue(currentRanking);
-    (rankingApi.updateUserScore as any).mockResolvedValue(updatedRanking);
-
-    const { result } = renderHook(() => useRanking());
-
-    const response = await result.current.updateUserScore(50);
-
-    await waitFor(
-      () => {
-        expect(result.current.loading).toBe(false);
-      },
-      { timeout: 3000 }
-    );
-
-    await waitFor(
-      () => {
-        expect(result.current.userRanking).toEqual(updatedRanking);
-      },
-      { timeout: 3000 }
-    );
-
-    expect(response).toEqual(updatedRanking);
-    expect(result.current.error).toBeNull();
-
-    expect(rankingApi.updateUserScore).toHaveBeenCalledWith({
-      userId: 1,
-      totalScore: 150,
-    });
-  });
-
-  it('should handle updateUserScore when user is not logged in', async () => {
-    mockUseAuth.mockReturnValue({ user: null });
-
-    const { result } = renderHook(() => useRanking());
-
-    const response = await result.current.updateUserScore(50);
-
-    await waitFor(
-      () => {
-        expect(result.current.error).toBe(
-          'Musisz być zalogowany aby aktualizować ranking'
-        );
-      },
-      { timeout: 3000 }
-    );
-
-    expect(response).toBeNull();
-    expect(result.current.loading).toBe(false);
-  });
-
-  it('should handle updateUserScore error', async () => {
-    (rankingApi.getUserRanking as any).mockRejectedValue({
-      message: 'HTTP 400: Invalid request',
-    });
-
-    const { result } = renderHook(() => useRanking());
-
-    const response = await result.current.updateUserScore(50);
-
-    await waitFor(
-      () => {
-        expect(result.current.loading).toBe(false);
-      },
-      { timeout: 3000 }
-    );
-
-    await waitFor(
-      () => {
-        expect(result.current.error).not.toBeNull();
-        expect(result.current.error).toContain('HTTP 400');
-      },
-      { timeout: 3000 }
-    );
-
-    expect(response).toBeNull();
-  });
-
   it('should handle string user ID', async () => {
     mockUseAuth.mockReturnValue({ user: { ...mockUser, id: '1' } });
     (rankingApi.getUserRanking as any).mockResolvedValue(mockUserRanking);
-    (rankingApi.updateUserScore as any).mockResolvedValue(mockUserRanking);
 
     const { result } = renderHook(() => useRanking());
 
-    result.current.getUserRanking();
-    await result.current.updateUserScore(50);
+    await result.current.getUserRanking();
 
     await waitFor(
       () => {
@@ -323,10 +238,6 @@ describe('useRanking', () => {
     );
 
     expect(rankingApi.getUserRanking).toHaveBeenCalledWith(1);
-    expect(rankingApi.updateUserScore).toHaveBeenCalledWith({
-      userId: 1,
-      totalScore: 150,
-    });
   });
 
   it('should clear error', async () => {
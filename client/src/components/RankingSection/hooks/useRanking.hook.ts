@@ -1,9 +1,6 @@
 import { useState, useCallback } from 'react';
 import { rankingApi } from '../../../api/ranking.api';
-import type {
-  UserRankingDto,
-  UpdateScoreRequest,
-} from '../../../api/ranking.api';
+import type { UserRankingDto } from '../../../api/ranking.api';
 import { useAuth } from '../../../hooks/auth/useAuth.hook';
 
 interface UseRankingReturn {
@@ -11,7 +8,6 @@ interface UseRankingReturn {
   topRankings: UserRankingDto[];
   loading: boolean;
   error: string | null;
-  updateUserScore: (totalScore: number) => Promise<UserRankingDto | null>;
   getUserRanking: (userId?: number) => Promise<void>;
   getTopRankings: (limit?: number) => Promise<void>;
   clearError: () => void;
@@ -29,53 +25,6 @@ export const useRanking = (): UseRankingReturn => {
     setError(null);
   }, []);
 
-  const updateUserScore = useCallback(
-    async (pointsToAdd: number): Promise<UserRankingDto | null> => {
-      if (!user?.id) {
-        setError('Musisz być zalogowany aby aktualizować ranking');
-        setUserRanking(null);
-        return null;
-      }
-
-      setLoading(true);
-      setError(null);
-
-      try {
-        const currentRanking = await rankingApi.getUserRanking(
-          typeof user.id === 'string' ? parseInt(user.id, 10) : user.id
-        );
-
-        const currentScore = currentRanking?.totalScore || 0;
-        const newTotalScore = currentScore + pointsToAdd;
-
-        const request: UpdateScoreRequest = {
-          userId: typeof user.id === 'string' ? parseInt(user.id, 10) : user.id,
-          totalScore: newTotalScore,
-        };
-
-        const updatedRanking = await rankingApi.updateUserScore(request);
-        setUserRanking(updatedRanking);
-
-        console.log(
-          `Dodano ${pointsToAdd} punktów. Nowy wynik: ${newTotalScore}`
-        );
-        return updatedRanking;
-      } catch (err: any) {
-        const errorMessage =
-          err && typeof err === 'object' && 'message' in err
-            ? err.message
-            : String(err) || 'Nie udało się zaktualizować rankingu';
-        setError(errorMessage);
-        setUserRanking(null);
-        console.error('Błąd aktualizacji rankingu:', err);
-        return null;
-      } finally {
-        setLoading(false);
-      }
-    },
-    [user?.id]
-  );
-
   const getUserRanking = useCallback(
     async (userId?: number): Promise<void> => {
       const targetUserId = userId || user?.id;
@@ -140,7 +89,6 @@ export const useRanking = (): UseRankingReturn => {
     topRankings,
     loading,
     error,
-    updateUserScore,
     getUserRanking,
     getTopRankings,
     clearError,
@@ -8,15 +8,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import pl.justdrinkjava.JustDrinkJava.dto.AuthenticatedUser;
 import pl.justdrinkjava.JustDrinkJava.service.JwtService;
+import pl.justdrinkjava.JustDrinkJava.service.TokenRevocationRegistry;
 
 import java.io.IOException;
+import java.util.Collection;
 
 @Component
 @RequiredArgsConstructor
@@ -25,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
     
     @Override
     protected void doFilterInternal(
@@ -35,7 +40,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -45,24 +49,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
-            userEmail = jwtService.extractUsername(jwt);
-            
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                AuthenticatedUser principal = jwtService.extractAuthenticatedUser(jwt);
                 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    log.debug("User {} authenticated successfully", userEmail);
+                if (principal == null) {
+                    authenticateLegacyToken(jwt, request);
+                } else if (tokenRevocationRegistry.isRevoked(principal.id(), principal.issuedAt())) {
+                    log.debug("Revoked JWT token for user {}", principal.id());
                 } else {
-                    log.debug("Invalid JWT token for user {}", userEmail);
+                    setAuthentication(principal, principal.authorities(), request);
+                    log.debug("User {} authenticated successfully", principal.id());
                 }
             }
         } catch (Exception e) {
@@ -71,4 +67,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    private void authenticateLegacyToken(String jwt, HttpServletRequest request) {
+        String userEmail = jwtService.extractUsername(jwt);
+        if (userEmail == null) {
+            return;
+        }
+        
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (jwtService.isTokenValid(jwt, userDetails)) {
+            setAuthentication(userDetails, userDetails.getAuthorities(), request);
+            log.debug("User {} authenticated successfully", userEmail);
+        } else {
+            log.debug("Invalid JWT token for user {}", userEmail);
+        }
+    }
+    
+    private void setAuthentication(Object principal, Collection<? extends GrantedAuthority> authorities,
+                                   HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                authorities
+        );
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request)
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 } 
\ No newline at end of file
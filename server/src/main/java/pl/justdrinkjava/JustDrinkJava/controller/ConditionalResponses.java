@@ -0,0 +1,48 @@
+package pl.justdrinkjava.JustDrinkJava.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Odpowiedzi warunkowe GET: ETag liczony z wersji zasobu, a przy pasującym If-None-Match
+ * zwracane jest 304 bez budowania ciała odpowiedzi.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> ok(WebRequest webRequest, String version, CacheControl cacheControl,
+                                    Supplier<T> body, String... varyBy) {
+        if (version == null) {
+            return ResponseEntity.ok(body.get());
+        }
+
+        String etag = eTagOf(version);
+        if (webRequest.checkNotModified(etag)) {
+            // checkNotModified ustawia już status 304 i nagłówek ETag na odpowiedzi
+            return withCacheHeaders(ResponseEntity.status(HttpStatus.NOT_MODIFIED), cacheControl, varyBy).build();
+        }
+
+        return withCacheHeaders(ResponseEntity.ok().eTag(etag), cacheControl, varyBy).body(body.get());
+    }
+
+    private static ResponseEntity.BodyBuilder withCacheHeaders(ResponseEntity.BodyBuilder builder,
+                                                               CacheControl cacheControl, String... varyBy) {
+        builder.cacheControl(cacheControl);
+        if (varyBy.length > 0) {
+            builder.varyBy(varyBy);
+        }
+        return builder;
+    }
+
+    static String eTagOf(String version) {
+        return "\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
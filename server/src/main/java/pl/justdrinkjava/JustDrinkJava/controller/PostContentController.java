@@ -3,6 +3,7 @@ package pl.justdrinkjava.JustDrinkJava.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import pl.justdrinkjava.JustDrinkJava.dto.PostContentDTO;
 import pl.justdrinkjava.JustDrinkJava.service.PostContentService;
@@ -19,6 +21,8 @@ import pl.justdrinkjava.JustDrinkJava.service.PostContentService;
 @CrossOrigin(origins = "http://localhost:3000")
 public class PostContentController {
     
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    
     private final PostContentService postContentService;
     
     @Autowired
@@ -27,15 +31,17 @@ public class PostContentController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<PostContentDTO> getPostContentById(@PathVariable Integer id) {
-        PostContentDTO postContent = postContentService.getPostContentById(id);
-        return ResponseEntity.ok(postContent);
+    public ResponseEntity<PostContentDTO> getPostContentById(@PathVariable Integer id, WebRequest webRequest) {
+        String version = postContentService.getPostContentVersion(id);
+        return ConditionalResponses.ok(webRequest, version, REVALIDATE,
+                () -> postContentService.getPostContentById(id));
     }
     
     @GetMapping("/post/{postId}")
-    public ResponseEntity<PostContentDTO> getPostContentByPostId(@PathVariable Integer postId) {
-        PostContentDTO postContent = postContentService.getPostContentByPostId(postId);
-        return ResponseEntity.ok(postContent);
+    public ResponseEntity<PostContentDTO> getPostContentByPostId(@PathVariable Integer postId, WebRequest webRequest) {
+        String version = postContentService.getPostContentVersionByPostId(postId);
+        return ConditionalResponses.ok(webRequest, version, REVALIDATE,
+                () -> postContentService.getPostContentByPostId(postId));
     }
     
     @GetMapping
@@ -3,6 +3,8 @@ package pl.justdrinkjava.JustDrinkJava.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,10 +14,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.dto.PostCursor;
 import pl.justdrinkjava.JustDrinkJava.dto.PostDTO;
 import pl.justdrinkjava.JustDrinkJava.dto.SearchPostsRequest;
 import pl.justdrinkjava.JustDrinkJava.dto.SearchPostsResponse;
@@ -28,6 +32,9 @@ import pl.justdrinkjava.JustDrinkJava.service.PostService;
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
 public class PostController {
     
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final CacheControl PRIVATE_REVALIDATE = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private PostService postService;
     
@@ -44,15 +51,24 @@ public class PostController {
     
     @GetMapping
     public ResponseEntity<List<PostDTO>> getLatestPosts(
-            @RequestParam(defaultValue = "9") int limit) {
+            @RequestParam(defaultValue = "9") int limit,
+            @RequestParam(required = false) String cursor) {
         try {
             log.info("Żądanie pobrania {} ostatnich postów", limit);
             
-            List<PostDTO> posts = postService.getLatestPosts(limit);
+            List<PostDTO> posts = cursor != null 
+                    ? postService.getLatestPostsAfter(cursor, limit) 
+                    : postService.getLatestPosts(limit);
             
             log.info("Zwracanie {} postów", posts.size());
             
-            return ResponseEntity.ok(posts);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (!posts.isEmpty() && posts.size() >= limit) {
+                PostDTO last = posts.get(posts.size() - 1);
+                response.header(NEXT_CURSOR_HEADER, PostCursor.of(last.getCreatedAt(), last.getId()).encode());
+            }
+            
+            return response.body(posts);
             
         } catch (Exception e) {
             log.error("Błąd podczas pobierania postów: {}", e.getMessage(), e);
@@ -80,10 +96,11 @@ public class PostController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<PostDTO> getPostById(@PathVariable Integer id) {
+    public ResponseEntity<PostDTO> getPostById(@PathVariable Integer id, WebRequest webRequest) {
         try {
-            PostDTO post = postService.getPostById(id);
-            return ResponseEntity.ok(post);
+            String version = postService.getPostVersion(id);
+            return ConditionalResponses.ok(webRequest, version, PRIVATE_REVALIDATE,
+                    () -> postService.getPostById(id), HttpHeaders.AUTHORIZATION);
         } catch (Exception e) {
             log.error("Błąd podczas pobierania postu o ID {}: {}", id, e.getMessage(), e);
             throw e;
@@ -1,15 +1,18 @@
 package pl.justdrinkjava.JustDrinkJava.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import pl.justdrinkjava.JustDrinkJava.dto.*;
-import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.exception.BaseApplicationException;
+import pl.justdrinkjava.JustDrinkJava.service.CurrentUserProvider;
 import pl.justdrinkjava.JustDrinkJava.service.QuizService;
 
 import java.util.List;
@@ -21,20 +24,28 @@ import java.util.List;
 @Slf4j
 public class QuizController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
     private final QuizService quizService;
+    private final CurrentUserProvider currentUserProvider;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<QuizDTO>>> getAllQuizzes(
+    public ResponseEntity<ApiResponse<Page<QuizSummary>>> getAllQuizzes(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String difficulty) {
         
-        log.info("Pobieranie quizów - strona: {}, rozmiar: {}", page, size);
+        QuizFacet facet = QuizFacet.fromParams(category, difficulty);
+        log.info("Pobieranie quizów - strona: {}, rozmiar: {}, filtr: {}", page, size, facet);
         
         try {
             Pageable pageable = PageRequest.of(page, size);
-            Page<QuizDTO> quizzes = quizService.getAllQuizzes(pageable);
+            Page<QuizSummary> quizzes = facet != null
+                    ? quizService.getQuizzesByFacet(facet, pageable)
+                    : quizService.getAllQuizzes(pageable);
             
-            return ResponseEntity.ok(ApiResponse.<Page<QuizDTO>>builder()
+            return ResponseEntity.ok(ApiResponse.<Page<QuizSummary>>builder()
                     .status("success")
                     .data(quizzes)
                     .message("Quizy pobrane pomyślnie")
@@ -42,25 +53,46 @@ public class QuizController {
         } catch (Exception e) {
             log.error("Błąd podczas pobierania quizów", e);
             return ResponseEntity.internalServerError()
-                    .body(ApiResponse.<Page<QuizDTO>>builder()
+                    .body(ApiResponse.<Page<QuizSummary>>builder()
                             .status("error")
                             .message("Błąd podczas pobierania quizów: " + e.getMessage())
                             .build());
         }
     }
 
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<QuizFacetsDTO>> getQuizFacets() {
+        log.info("Pobieranie liczników quizów");
+        
+        try {
+            return ResponseEntity.ok(ApiResponse.<QuizFacetsDTO>builder()
+                    .status("success")
+                    .data(quizService.getFacets())
+                    .message("Liczniki quizów pobrane pomyślnie")
+                    .build());
+        } catch (Exception e) {
+            log.error("Błąd podczas pobierania liczników quizów", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.<QuizFacetsDTO>builder()
+                            .status("error")
+                            .message("Błąd podczas pobierania liczników quizów: " + e.getMessage())
+                            .build());
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<QuizDTO>> getQuizById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<QuizDTO>> getQuizById(@PathVariable Long id, WebRequest webRequest) {
         log.info("Pobieranie quizu o ID: {}", id);
         
         try {
-            QuizDTO quiz = quizService.getQuizById(id);
+            String version = quizService.getQuizVersion(id);
             
-            return ResponseEntity.ok(ApiResponse.<QuizDTO>builder()
-                    .status("success")
-                    .data(quiz)
-                    .message("Quiz pobrany pomyślnie")
-                    .build());
+            return ConditionalResponses.ok(webRequest, version != null ? "quiz:" + version : null, REVALIDATE,
+                    () -> ApiResponse.<QuizDTO>builder()
+                            .status("success")
+                            .data(quizService.getQuizById(id))
+                            .message("Quiz pobrany pomyślnie")
+                            .build());
         } catch (RuntimeException e) {
             log.error("Quiz nie został znaleziony: {}", id, e);
             return ResponseEntity.notFound().build();
@@ -75,17 +107,18 @@ public class QuizController {
     }
 
     @GetMapping("/{id}/questions")
-    public ResponseEntity<ApiResponse<List<QuizContentDTO>>> getQuizQuestions(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<List<QuizContentDTO>>> getQuizQuestions(@PathVariable Long id, WebRequest webRequest) {
         log.info("Pobieranie pytań quizu o ID: {}", id);
         
         try {
-            List<QuizContentDTO> questions = quizService.getQuizQuestionsForSolving(id);
+            String version = quizService.getQuizVersion(id);
             
-            return ResponseEntity.ok(ApiResponse.<List<QuizContentDTO>>builder()
-                    .status("success")
-                    .data(questions)
-                    .message("Pytania quizu pobrane pomyślnie")
-                    .build());
+            return ConditionalResponses.ok(webRequest, version != null ? "questions:" + version : null, REVALIDATE,
+                    () -> ApiResponse.<List<QuizContentDTO>>builder()
+                            .status("success")
+                            .data(quizService.getQuizQuestionsForSolving(id))
+                            .message("Pytania quizu pobrane pomyślnie")
+                            .build());
         } catch (RuntimeException e) {
             log.error("Quiz nie został znaleziony: {}", id, e);
             return ResponseEntity.notFound().build();
@@ -101,20 +134,28 @@ public class QuizController {
 
     @PostMapping("/check-answers")
     public ResponseEntity<ApiResponse<QuizResultDTO>> checkAnswers(
-            @RequestBody QuizAnswerRequest request,
-            @AuthenticationPrincipal User currentUser) {
+            @RequestBody QuizAnswerRequest request) {
         
+        Long userId = currentUserProvider.getCurrentUserIdOrNull();
         log.info("Sprawdzanie odpowiedzi dla quizu: {} przez użytkownika: {}", 
-                request.getQuizId(), currentUser != null ? currentUser.getId() : "anonimowy");
+                request.getQuizId(), userId != null ? userId : "anonimowy");
         
         try {
-            QuizResultDTO result = quizService.checkAnswers(request, currentUser);
+            QuizResultDTO result = quizService.checkAnswers(request, userId);
             
             return ResponseEntity.ok(ApiResponse.<QuizResultDTO>builder()
                     .status("success")
                     .data(result)
                     .message("Odpowiedzi sprawdzone pomyślnie")
                     .build());
+        } catch (BaseApplicationException e) {
+            log.warn("Odrzucono sprawdzenie odpowiedzi: {}", e.getMessage());
+            return ResponseEntity.status(e.getHttpStatus())
+                    .body(ApiResponse.<QuizResultDTO>builder()
+                            .status("error")
+                            .message(e.getMessage())
+                            .errors(e.getErrorCode())
+                            .build());
         } catch (RuntimeException e) {
             log.error("Błąd podczas sprawdzania odpowiedzi: {}", e.getMessage(), e);
             return ResponseEntity.badRequest()
@@ -131,15 +172,39 @@ public class QuizController {
                             .build());
         }
     }
+    
+    @PostMapping("/check-answers/batch")
+    public ResponseEntity<ApiResponse<List<QuizBatchResultDTO>>> checkAnswersBatch(
+            @Valid @RequestBody QuizBatchAnswerRequest request) {
+        
+        log.info("Sprawdzanie {} zgłoszeń", request.getSubmissions().size());
+        
+        try {
+            List<QuizBatchResultDTO> results = quizService.checkAnswersBatch(request.getSubmissions());
+            
+            return ResponseEntity.ok(ApiResponse.<List<QuizBatchResultDTO>>builder()
+                    .status("success")
+                    .data(results)
+                    .message("Odpowiedzi sprawdzone pomyślnie")
+                    .build());
+        } catch (Exception e) {
+            log.error("Nieoczekiwany błąd podczas sprawdzania zgłoszeń", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.<List<QuizBatchResultDTO>>builder()
+                            .status("error")
+                            .message("Błąd serwera podczas sprawdzania odpowiedzi")
+                            .build());
+        }
+    }
         
     @GetMapping("/category/{category}")
-    public ResponseEntity<ApiResponse<List<QuizDTO>>> getQuizzesByCategory(@PathVariable String category) {
+    public ResponseEntity<ApiResponse<List<QuizSummary>>> getQuizzesByCategory(@PathVariable String category) {
         log.info("Pobieranie quizów dla kategorii: {}", category);
         
         try {
-            List<QuizDTO> quizzes = quizService.getQuizzesByCategory(category);
+            List<QuizSummary> quizzes = quizService.getQuizzesByCategory(category);
             
-            return ResponseEntity.ok(ApiResponse.<List<QuizDTO>>builder()
+            return ResponseEntity.ok(ApiResponse.<List<QuizSummary>>builder()
                     .status("success")
                     .data(quizzes)
                     .message("Quizy dla kategorii pobrane pomyślnie")
@@ -147,7 +212,7 @@ public class QuizController {
         } catch (Exception e) {
             log.error("Błąd podczas pobierania quizów dla kategorii: {}", category, e);
             return ResponseEntity.internalServerError()
-                    .body(ApiResponse.<List<QuizDTO>>builder()
+                    .body(ApiResponse.<List<QuizSummary>>builder()
                             .status("error")
                             .message("Błąd podczas pobierania quizów: " + e.getMessage())
                             .build());
@@ -55,13 +55,14 @@ public class UserController {
     }
 
     @PutMapping("/password")
-    public ResponseEntity<ApiResponse<Void>> changePassword(@Valid @RequestBody ChangePasswordRequest request) {
+    public ResponseEntity<ApiResponse<String>> changePassword(@Valid @RequestBody ChangePasswordRequest request) {
         try {
             log.info("Zmiana hasła użytkownika");
-            userService.changePassword(request);
-            return ResponseEntity.ok(ApiResponse.<Void>builder()
+            String newToken = userService.changePassword(request);
+            return ResponseEntity.ok(ApiResponse.<String>builder()
                     .status("success")
                     .message("Hasło zostało zmienione pomyślnie")
+                    .data(newToken)
                     .build());
         } catch (RuntimeException e) {
             log.error("Błąd podczas zmiany hasła: {}", e.getMessage());
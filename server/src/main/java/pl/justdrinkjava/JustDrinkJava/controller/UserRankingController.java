@@ -1,12 +1,12 @@
 package pl.justdrinkjava.JustDrinkJava.controller;
 
-import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import pl.justdrinkjava.JustDrinkJava.dto.BaseResponse;
-import pl.justdrinkjava.JustDrinkJava.dto.UpdateScoreRequest;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingPageResponse;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingWindow;
 import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
 import pl.justdrinkjava.JustDrinkJava.service.UserRankingService;
 
@@ -20,16 +20,14 @@ public class UserRankingController {
     
     private final UserRankingService userRankingService;
     
-    @PutMapping("/score")
-    public ResponseEntity<UserRankingDto> updateUserScore(@Valid @RequestBody UpdateScoreRequest request) {
-        log.info("Updating score for user ID: {} to: {}", request.getUserId(), request.getTotalScore());
+    @GetMapping
+    public ResponseEntity<RankingPageResponse> getRankingPage(
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+        log.debug("Getting ranking page of {} (cursor: {})", limit, cursor);
         
-        UserRankingDto updatedRanking = userRankingService.updateUserScore(request);
-        
-        log.info("Successfully updated score for user ID: {}, new ranking: {}", 
-                request.getUserId(), updatedRanking.getRanking());
-        
-        return ResponseEntity.ok(updatedRanking);
+        RankingPageResponse page = userRankingService.getRankingPage(cursor, limit);
+        return ResponseEntity.ok(page);
     }
     
     @GetMapping("/user/{userId}")
@@ -40,6 +38,16 @@ public class UserRankingController {
         return ResponseEntity.ok(userRanking);
     }
     
+    @GetMapping("/user/{userId}/window")
+    public ResponseEntity<List<UserRankingDto>> getRankingWindow(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "5") int k) {
+        log.debug("Getting ranking window of {} around user ID: {}", k, userId);
+        
+        List<UserRankingDto> window = userRankingService.getRankingWindow(userId, k);
+        return ResponseEntity.ok(window);
+    }
+    
     @GetMapping("/all")
     public ResponseEntity<List<UserRankingDto>> getAllRankings() {
         log.debug("Getting all user rankings");
@@ -50,10 +58,14 @@ public class UserRankingController {
     
     @GetMapping("/top")
     public ResponseEntity<List<UserRankingDto>> getTopRankings(
-            @RequestParam(defaultValue = "10") int limit) {
-        log.debug("Getting top {} rankings", limit);
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String window) {
+        RankingWindow rankingWindow = RankingWindow.fromParam(window);
+        log.debug("Getting top {} rankings for window {}", limit, rankingWindow);
         
-        List<UserRankingDto> topRankings = userRankingService.getTopRankings(limit);
+        List<UserRankingDto> topRankings = rankingWindow == RankingWindow.ALL
+                ? userRankingService.getTopRankings(limit)
+                : userRankingService.getWindowTopRankings(rankingWindow, limit);
         return ResponseEntity.ok(topRankings);
     }
         
@@ -0,0 +1,23 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+/**
+ * Principal zbudowany wyłącznie z zweryfikowanych claimów tokenu JWT, bez odczytu z bazy danych.
+ */
+public record AuthenticatedUser(Long id, String email, List<String> roles, Instant issuedAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return AuthorityUtils.createAuthorityList(roles);
+    }
+}
@@ -0,0 +1,39 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import pl.justdrinkjava.JustDrinkJava.exception.InvalidCursorException;
+
+/**
+ * Nieprzezroczysty kursor paginacji po (createdAt, id). Dla wyników wyszukiwania
+ * zawiera też wynik trafności, bo po nim sortowane są wyniki z indeksu.
+ */
+public record PostCursor(Float score, LocalDateTime createdAt, Integer id) {
+    
+    private static final String SEPARATOR = "|";
+    
+    public static PostCursor of(LocalDateTime createdAt, Integer id) {
+        return new PostCursor(null, createdAt, id);
+    }
+    
+    public String encode() {
+        String raw = (score != null ? score.toString() : "") + SEPARATOR + createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static PostCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Oczekiwano 3 części kursora, otrzymano " + parts.length);
+            }
+            Float score = parts[0].isEmpty() ? null : Float.valueOf(parts[0]);
+            return new PostCursor(score, LocalDateTime.parse(parts[1]), Integer.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import java.time.LocalDateTime;
+
+public record PostVersion(Integer id, LocalDateTime updatedAt, Integer likesCount) {
+}
@@ -0,0 +1,21 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizBatchAnswerRequest {
+    
+    @NotEmpty(message = "Lista zgłoszeń nie może być pusta")
+    @Size(max = 500, message = "Maksymalnie 500 zgłoszeń w jednym żądaniu")
+    private List<QuizAnswerRequest> submissions;
+}
@@ -0,0 +1,19 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizBatchResultDTO {
+    
+    private Integer index;
+    private Long quizId;
+    private String status;
+    private String message;
+    private QuizResultDTO result;
+}
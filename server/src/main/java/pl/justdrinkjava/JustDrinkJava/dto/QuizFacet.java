@@ -0,0 +1,32 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import java.util.Locale;
+
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.exception.InvalidQuizFilterException;
+
+/**
+ * Para (kategoria, poziom trudności) - jednostka liczników i filtrowania katalogu quizów.
+ */
+public record QuizFacet(String category, Quiz.Difficulty difficulty) {
+    
+    /**
+     * Zwraca {@code null}, gdy nie podano żadnego filtra. Filtr musi zawierać oba parametry naraz.
+     */
+    public static QuizFacet fromParams(String category, String difficulty) {
+        boolean hasCategory = category != null && !category.isBlank();
+        boolean hasDifficulty = difficulty != null && !difficulty.isBlank();
+        if (!hasCategory && !hasDifficulty) {
+            return null;
+        }
+        if (!hasCategory || !hasDifficulty) {
+            throw new InvalidQuizFilterException("Filtr quizów wymaga podania kategorii i poziomu trudności");
+        }
+        try {
+            return new QuizFacet(category.trim(), Quiz.Difficulty.valueOf(difficulty.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQuizFilterException(
+                    "Nieznany poziom trudności: " + difficulty + " (dozwolone: easy, medium, hard)");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizFacetsDTO {
+    
+    private Long total;
+    private Map<String, Long> categories;
+    private Map<Quiz.Difficulty, Long> difficulties;
+    private List<FacetCountDTO> combinations;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetCountDTO {
+        private String category;
+        private Quiz.Difficulty difficulty;
+        private Long count;
+    }
+}
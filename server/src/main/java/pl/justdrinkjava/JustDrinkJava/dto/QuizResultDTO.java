@@ -19,6 +19,7 @@ public class QuizResultDTO {
     private Integer totalQuestions;
     private Integer correctAnswers;     
     private Integer timeSpent; 
+    private Integer pointsAwarded;
     private List<QuestionResultDTO> results;
     
     @Data
@@ -0,0 +1,13 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+
+import java.time.LocalDateTime;
+
+/**
+ * Wpis katalogu quizów - bez pytań i prawidłowych odpowiedzi, z liczbą pytań wyliczoną w zapytaniu.
+ */
+public record QuizSummary(Long id, String title, String description, String category,
+                          Quiz.Difficulty difficulty, Integer timeLimit, LocalDateTime createdAt,
+                          Long questionCount) {
+}
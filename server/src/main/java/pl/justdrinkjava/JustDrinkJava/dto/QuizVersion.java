@@ -0,0 +1,6 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import java.time.LocalDateTime;
+
+public record QuizVersion(Long quizId, LocalDateTime updatedAt, LocalDateTime questionsUpdatedAt, Long questionCount) {
+}
@@ -0,0 +1,38 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import pl.justdrinkjava.JustDrinkJava.exception.InvalidCursorException;
+
+/**
+ * Nieprzezroczysty kursor paginacji rankingu po (totalScore, updatedAt, userId).
+ */
+public record RankingCursor(Integer totalScore, LocalDateTime updatedAt, Long userId) {
+    
+    private static final String SEPARATOR = "|";
+    
+    public static RankingCursor of(UserRankingDto ranking) {
+        return new RankingCursor(ranking.getTotalScore(), ranking.getUpdatedAt(), ranking.getUserId());
+    }
+    
+    public String encode() {
+        String raw = totalScore + SEPARATOR + (updatedAt != null ? updatedAt.toString() : "") + SEPARATOR + userId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static RankingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Oczekiwano 3 części kursora, otrzymano " + parts.length);
+            }
+            LocalDateTime updatedAt = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new RankingCursor(Integer.valueOf(parts[0]), updatedAt, Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RankingPageResponse {
+    
+    private List<UserRankingDto> rankings;
+    private Boolean hasMore;
+    private String nextCursor;
+    
+    public static RankingPageResponse of(List<UserRankingDto> rankings, RankingCursor nextCursor) {
+        return RankingPageResponse.builder()
+            .rankings(rankings)
+            .hasMore(nextCursor != null)
+            .nextCursor(nextCursor != null ? nextCursor.encode() : null)
+            .build();
+    }
+}
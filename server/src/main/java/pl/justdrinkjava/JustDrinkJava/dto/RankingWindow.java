@@ -0,0 +1,36 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+import pl.justdrinkjava.JustDrinkJava.exception.InvalidRankingWindowException;
+
+/**
+ * Okres rankingu. Okna kroczące są wyrównane do granic kubełków: doba to 24 ostatnie godziny
+ * (łącznie z bieżącą), tydzień to 7 ostatnich dni (łącznie z dzisiejszym).
+ */
+public enum RankingWindow {
+    DAY,
+    WEEK,
+    ALL;
+    
+    public static RankingWindow fromParam(String window) {
+        if (window == null || window.isBlank()) {
+            return ALL;
+        }
+        try {
+            return valueOf(window.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRankingWindowException(window);
+        }
+    }
+    
+    public LocalDateTime startAt(LocalDateTime now) {
+        return switch (this) {
+            case DAY -> now.truncatedTo(ChronoUnit.HOURS).minusHours(23);
+            case WEEK -> now.truncatedTo(ChronoUnit.DAYS).minusDays(6);
+            case ALL -> throw new IllegalStateException("Ranking ogólny nie ma okresu");
+        };
+    }
+}
@@ -25,4 +25,6 @@ public class SearchPostsRequest {
     @Builder.Default
     @Min(value = 0, message = "Offset nie może być ujemny")
     private Integer offset = 0;
+    
+    private String cursor;
 } 
\ No newline at end of file
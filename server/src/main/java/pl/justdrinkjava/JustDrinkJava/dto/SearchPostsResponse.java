@@ -15,6 +15,7 @@ public class SearchPostsResponse {
     private List<PostDTO> posts;
     private Integer total;
     private Boolean hasMore;
+    private String nextCursor;
     
     public static SearchPostsResponse of(List<PostDTO> posts, Integer total, Integer limit, Integer offset) {
         boolean hasMore = offset + limit < total;
@@ -25,4 +26,13 @@ public class SearchPostsResponse {
             .hasMore(hasMore)
             .build();
     }
+    
+    public static SearchPostsResponse of(List<PostDTO> posts, Integer total, PostCursor nextCursor) {
+        return SearchPostsResponse.builder()
+            .posts(posts)
+            .total(total)
+            .hasMore(nextCursor != null)
+            .nextCursor(nextCursor != null ? nextCursor.encode() : null)
+            .build();
+    }
 } 
\ No newline at end of file
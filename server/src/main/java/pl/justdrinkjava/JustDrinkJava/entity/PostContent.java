@@ -7,6 +7,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -15,9 +16,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import pl.justdrinkjava.JustDrinkJava.event.PostEntityListener;
 
 @Entity
 @Table(name = "posts_content")
+@EntityListeners(PostEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
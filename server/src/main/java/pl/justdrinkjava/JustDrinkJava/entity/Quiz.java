@@ -6,12 +6,17 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import pl.justdrinkjava.JustDrinkJava.event.QuizEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "quizzes")
+@Table(name = "quizzes", indexes = {
+    @Index(name = "idx_quizzes_category_difficulty_created_at", columnList = "category, difficulty, created_at")
+})
+@EntityListeners(QuizEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -48,7 +53,9 @@ public class Quiz {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
-
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
     
     @OneToMany(mappedBy = "quizId", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<QuizContent> questions;
@@ -0,0 +1,51 @@
+package pl.justdrinkjava.JustDrinkJava.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "quiz_attempts", indexes = {
+    @Index(name = "idx_quiz_attempts_user_quiz", columnList = "user_id, quiz_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizAttempt {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_attempts_seq")
+    @SequenceGenerator(name = "quiz_attempts_seq", sequenceName = "quiz_attempts_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "quiz_id", nullable = false)
+    private Long quizId;
+    
+    @Column(nullable = false)
+    private Integer score;
+    
+    @Column(name = "correct_answers", nullable = false)
+    private Integer correctAnswers;
+    
+    @Column(name = "total_questions", nullable = false)
+    private Integer totalQuestions;
+    
+    @Column(name = "time_spent")
+    private Integer timeSpent;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // 5 punktów za poprawną odpowiedź, przeskalowane przez wynik procentowy
+    public int rankingPoints() {
+        return score * correctAnswers * 5 / 100;
+    }
+}
@@ -7,12 +7,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import pl.justdrinkjava.JustDrinkJava.event.QuizEntityListener;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Entity
 @Table(name = "quizzes_content")
+@EntityListeners(QuizEntityListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -42,13 +43,4 @@ public class QuizContent {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
-    
-    @Transient
-    public List<String> getOptionsList() {
-        return null;
-    }
-    
-    @Transient
-    public void setOptionsList(List<String> optionsList) {
-    }
 } 
\ No newline at end of file
@@ -9,7 +9,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users_ranking")
+@Table(name = "users_ranking", indexes = {
+    @Index(name = "idx_users_ranking_ranking", columnList = "ranking")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -34,6 +36,10 @@ public class UserRanking {
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
     
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", insertable = false, updatable = false)
     private User user;
@@ -0,0 +1,44 @@
+package pl.justdrinkjava.JustDrinkJava.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_score_buckets", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "granularity", "bucket_start"})
+}, indexes = {
+    @Index(name = "idx_user_score_buckets_start", columnList = "bucket_start, granularity")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserScoreBucket {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularity granularity;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer points = 0;
+    
+    public enum Granularity {
+        HOUR, DAY
+    }
+}
@@ -0,0 +1,17 @@
+package pl.justdrinkjava.JustDrinkJava.event;
+
+public record PostChangedEvent(Integer postId, Type type) {
+    
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+    
+    public static PostChangedEvent saved(Integer postId) {
+        return new PostChangedEvent(postId, Type.SAVED);
+    }
+    
+    public static PostChangedEvent deleted(Integer postId) {
+        return new PostChangedEvent(postId, Type.DELETED);
+    }
+}
@@ -0,0 +1,40 @@
+package pl.justdrinkjava.JustDrinkJava.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import pl.justdrinkjava.JustDrinkJava.entity.Post;
+import pl.justdrinkjava.JustDrinkJava.entity.PostContent;
+
+/**
+ * Publikuje PostChangedEvent przy każdym zapisie lub usunięciu posta albo jego treści.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostEntityListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        if (entity instanceof Post post) {
+            eventPublisher.publishEvent(PostChangedEvent.saved(post.getId()));
+        } else if (entity instanceof PostContent content) {
+            eventPublisher.publishEvent(PostChangedEvent.saved(content.getPostId()));
+        }
+    }
+    
+    @PostRemove
+    public void onRemoved(Object entity) {
+        if (entity instanceof Post post) {
+            eventPublisher.publishEvent(PostChangedEvent.deleted(post.getId()));
+        } else if (entity instanceof PostContent content) {
+            eventPublisher.publishEvent(PostChangedEvent.saved(content.getPostId()));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package pl.justdrinkjava.JustDrinkJava.event;
+
+public record QuizChangedEvent(Long quizId, Type type) {
+    
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+    
+    public static QuizChangedEvent saved(Long quizId) {
+        return new QuizChangedEvent(quizId, Type.SAVED);
+    }
+    
+    public static QuizChangedEvent deleted(Long quizId) {
+        return new QuizChangedEvent(quizId, Type.DELETED);
+    }
+}
@@ -0,0 +1,40 @@
+package pl.justdrinkjava.JustDrinkJava.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizContent;
+
+/**
+ * Publikuje QuizChangedEvent przy każdym zapisie lub usunięciu quizu albo jego pytania.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuizEntityListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        if (entity instanceof Quiz quiz) {
+            eventPublisher.publishEvent(QuizChangedEvent.saved(quiz.getId()));
+        } else if (entity instanceof QuizContent content) {
+            eventPublisher.publishEvent(QuizChangedEvent.saved(content.getQuizId()));
+        }
+    }
+    
+    @PostRemove
+    public void onRemoved(Object entity) {
+        if (entity instanceof Quiz quiz) {
+            eventPublisher.publishEvent(QuizChangedEvent.deleted(quiz.getId()));
+        } else if (entity instanceof QuizContent content) {
+            eventPublisher.publishEvent(QuizChangedEvent.saved(content.getQuizId()));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package pl.justdrinkjava.JustDrinkJava.event;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Zmiana wpisów w rankingu. Dla zmian wyników {@code topScore} to najwyższy nowy wynik w partii.
+ */
+public record UserRankingChangedEvent(Set<Long> userIds, Integer topScore, Type type) {
+    
+    public enum Type {
+        SCORE_CHANGED,
+        PROFILE_CHANGED
+    }
+    
+    public static UserRankingChangedEvent scoreChanged(Long userId, Integer totalScore) {
+        return new UserRankingChangedEvent(Set.of(userId), totalScore, Type.SCORE_CHANGED);
+    }
+    
+    public static UserRankingChangedEvent scoresChanged(Map<Long, Integer> scores) {
+        return new UserRankingChangedEvent(Set.copyOf(scores.keySet()), Collections.max(scores.values()), Type.SCORE_CHANGED);
+    }
+    
+    public static UserRankingChangedEvent profileChanged(Long userId) {
+        return new UserRankingChangedEvent(Set.of(userId), null, Type.PROFILE_CHANGED);
+    }
+}
@@ -0,0 +1,18 @@
+package pl.justdrinkjava.JustDrinkJava.event;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Przyrosty punktów użytkowników w jednej transakcji, używane przez rankingi okresowe.
+ */
+public record UserScoreDeltaEvent(Map<Long, Integer> deltas, LocalDateTime occurredAt) {
+    
+    public static UserScoreDeltaEvent of(Long userId, int delta, LocalDateTime occurredAt) {
+        return new UserScoreDeltaEvent(Map.of(userId, delta), occurredAt);
+    }
+    
+    public static UserScoreDeltaEvent of(Map<Long, Integer> deltas, LocalDateTime occurredAt) {
+        return new UserScoreDeltaEvent(Map.copyOf(deltas), occurredAt);
+    }
+}
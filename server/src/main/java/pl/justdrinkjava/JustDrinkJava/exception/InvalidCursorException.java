@@ -0,0 +1,12 @@
+package pl.justdrinkjava.JustDrinkJava.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidCursorException extends BaseApplicationException {
+    
+    private static final String ERROR_CODE = "INVALID_CURSOR";
+    
+    public InvalidCursorException(String cursor, Throwable cause) {
+        super("Nieprawidłowy kursor paginacji: " + cursor, ERROR_CODE, HttpStatus.BAD_REQUEST, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package pl.justdrinkjava.JustDrinkJava.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidQuizFilterException extends BaseApplicationException {
+    
+    private static final String ERROR_CODE = "INVALID_QUIZ_FILTER";
+    
+    public InvalidQuizFilterException(String message) {
+        super(message, ERROR_CODE, HttpStatus.BAD_REQUEST);
+    }
+}
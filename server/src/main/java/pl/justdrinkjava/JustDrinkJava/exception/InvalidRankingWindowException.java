@@ -0,0 +1,12 @@
+package pl.justdrinkjava.JustDrinkJava.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidRankingWindowException extends BaseApplicationException {
+    
+    private static final String ERROR_CODE = "INVALID_RANKING_WINDOW";
+    
+    public InvalidRankingWindowException(String window) {
+        super("Nieznany okres rankingu: " + window + " (dozwolone: day, week, all)", ERROR_CODE, HttpStatus.BAD_REQUEST);
+    }
+}
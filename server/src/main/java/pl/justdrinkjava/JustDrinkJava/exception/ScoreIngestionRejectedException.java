@@ -0,0 +1,13 @@
+package pl.justdrinkjava.JustDrinkJava.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ScoreIngestionRejectedException extends BaseApplicationException {
+    
+    private static final String ERROR_CODE = "SCORE_QUEUE_FULL";
+    
+    public ScoreIngestionRejectedException(int capacity) {
+        super("Kolejka aktualizacji wyników jest pełna (limit: " + capacity + "), spróbuj ponownie za chwilę",
+                ERROR_CODE, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
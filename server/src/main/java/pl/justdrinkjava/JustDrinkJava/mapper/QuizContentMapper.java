@@ -7,19 +7,33 @@ import org.springframework.stereotype.Component;
 import pl.justdrinkjava.JustDrinkJava.dto.QuizContentDTO;
 import pl.justdrinkjava.JustDrinkJava.entity.QuizContent;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class QuizContentMapper {
     
+    private static final int PARSED_OPTIONS_CACHE_SIZE = 4096;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     
+    private final Map<OptionsKey, List<String>> parsedOptions = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<OptionsKey, List<String>> eldest) {
+            return size() > PARSED_OPTIONS_CACHE_SIZE;
+        }
+    };
+    
     public QuizContentDTO toDTO(QuizContent entity) {
         return QuizContentDTO.builder()
                 .id(entity.getId())
                 .quizId(entity.getQuizId())
                 .question(entity.getQuestion())
-                .options(parseOptions(entity.getOptions()))
+                .options(getOptions(entity))
                 .correctAnswer(entity.getCorrectAnswer())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
@@ -38,6 +52,34 @@ public class QuizContentMapper {
                 .build();
     }
     
+    /**
+     * Zwraca niezmienną listę opcji pytania. Wynik parsowania JSON jest zapamiętywany pod kluczem
+     * (id, updatedAt), więc kolejne odczyty tej samej wersji pytania nie parsują już kolumny options.
+     */
+    public List<String> getOptions(QuizContent entity) {
+        if (entity.getId() == null || entity.getUpdatedAt() == null) {
+            return parseOptions(entity.getOptions());
+        }
+        
+        OptionsKey key = new OptionsKey(entity.getId(), entity.getUpdatedAt());
+        synchronized (parsedOptions) {
+            List<String> cached = parsedOptions.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        List<String> parsed = parseOptions(entity.getOptions());
+        if (parsed == null) {
+            return null;
+        }
+        List<String> options = Collections.unmodifiableList(new ArrayList<>(parsed));
+        synchronized (parsedOptions) {
+            parsedOptions.put(key, options);
+        }
+        return options;
+    }
+    
     private List<String> parseOptions(String optionsJson) {
         try {
             return objectMapper.readValue(optionsJson, new TypeReference<List<String>>() {});
@@ -53,4 +95,7 @@ public class QuizContentMapper {
             throw new RuntimeException("Błąd serializacji opcji do JSON", e);
         }
     }
+    
+    private record OptionsKey(Long id, LocalDateTime updatedAt) {
+    }
 } 
\ No newline at end of file
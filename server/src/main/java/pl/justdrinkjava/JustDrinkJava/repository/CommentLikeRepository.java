@@ -21,6 +21,9 @@ public interface CommentLikeRepository extends JpaRepository<CommentLike, Intege
     
     @Query("SELECT COUNT(cl) FROM CommentLike cl WHERE cl.comment.id = :commentId")
     Long countByCommentId(@Param("commentId") Integer commentId);
+    
+    @Query("SELECT cl.comment.id, COUNT(cl) FROM CommentLike cl WHERE cl.comment.id IN :commentIds GROUP BY cl.comment.id")
+    List<Object[]> countLikesByCommentIds(@Param("commentIds") List<Integer> commentIds);
         
     @Query("SELECT cl.comment.id FROM CommentLike cl WHERE cl.comment.id IN :commentIds AND cl.user.id = :userId")
     List<Integer> findLikedCommentIdsByUserAndCommentIds(@Param("commentIds") List<Integer> commentIds, @Param("userId") Long userId);
@@ -1,5 +1,6 @@
 package pl.justdrinkjava.JustDrinkJava.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,12 @@ public interface PostContentRepository extends JpaRepository<PostContent, Intege
     @Query("SELECT pc FROM PostContent pc WHERE pc.postId = :postId")
     Optional<PostContent> findByPostId(@Param("postId") Integer postId);
     
+    @Query("SELECT pc.updatedAt FROM PostContent pc WHERE pc.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Integer id);
+    
+    @Query("SELECT pc.updatedAt FROM PostContent pc WHERE pc.postId = :postId")
+    Optional<LocalDateTime> findUpdatedAtByPostId(@Param("postId") Integer postId);
+    
     @Query("SELECT pc FROM PostContent pc WHERE pc.categoryId = :categoryId")
     List<PostContent> findByCategoryId(@Param("categoryId") Integer categoryId);
     
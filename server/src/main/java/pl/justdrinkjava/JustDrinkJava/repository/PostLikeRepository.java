@@ -19,6 +19,9 @@ public interface PostLikeRepository extends JpaRepository<PostLike, Integer> {
     @Query("SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = :postId")
     Long countByPostId(@Param("postId") Integer postId);
     
+    @Query("SELECT pl.post.id, COUNT(pl) FROM PostLike pl GROUP BY pl.post.id")
+    List<Object[]> countLikesGroupedByPostId();
+    
     @Query("SELECT pl.post.id FROM PostLike pl WHERE pl.post.id IN :postIds AND pl.user.id = :userId")
     List<Integer> findLikedPostIdsByUserAndPostIds(@Param("postIds") List<Integer> postIds, @Param("userId") Long userId);
 }   
\ No newline at end of file
@@ -1,14 +1,18 @@
 package pl.justdrinkjava.JustDrinkJava.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import pl.justdrinkjava.JustDrinkJava.dto.PostVersion;
 import pl.justdrinkjava.JustDrinkJava.entity.Post;
 
 @Repository
@@ -16,12 +20,29 @@ public interface PostRepository extends JpaRepository<Post, Integer> {
     
     Optional<Post> findTopByOrderByCreatedAtDesc();
     
-    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.category ORDER BY p.createdAt DESC LIMIT 1")
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.category ORDER BY p.createdAt DESC, p.id DESC LIMIT 1")
     Optional<Post> findLatestPost();
     
-    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.category ORDER BY p.createdAt DESC LIMIT :limit")
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.category ORDER BY p.createdAt DESC, p.id DESC LIMIT :limit")
     List<Post> findLatestPosts(@Param("limit") int limit);
     
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.category " +
+           "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC LIMIT :limit")
+    List<Post> findLatestPostsAfter(@Param("createdAt") LocalDateTime createdAt, 
+                                    @Param("id") Integer id, 
+                                    @Param("limit") int limit);
+    
+    @Query("SELECT new pl.justdrinkjava.JustDrinkJava.dto.PostVersion(p.id, COALESCE(p.updatedAt, p.createdAt), p.likesCount) " +
+           "FROM Post p WHERE p.id = :id")
+    Optional<PostVersion> findVersionById(@Param("id") Integer id);
+    
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.category")
+    List<Post> findAllWithUserAndCategory();
+    
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.user LEFT JOIN FETCH p.category WHERE p.id = :id")
+    Optional<Post> findByIdWithUserAndCategory(@Param("id") Integer id);
+    
     @Query("SELECT p FROM Post p " +
            "LEFT JOIN FETCH p.user u " +
            "LEFT JOIN FETCH p.category c " +
@@ -31,9 +52,23 @@ public interface PostRepository extends JpaRepository<Post, Integer> {
            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
            "OR LOWER(c.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
            "OR LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%'))) " +
-           "ORDER BY p.createdAt DESC")
+           "ORDER BY p.createdAt DESC, p.id DESC")
     List<Post> searchPosts(@Param("query") String query, Pageable pageable);
     
+    @Query("SELECT p FROM Post p " +
+           "LEFT JOIN FETCH p.user u " +
+           "LEFT JOIN FETCH p.category c " +
+           "WHERE (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) AND " +
+           "(LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(c.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+           "OR LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%'))) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> searchPostsAfter(@Param("query") String query, 
+                                @Param("createdAt") LocalDateTime createdAt, 
+                                @Param("id") Integer id, 
+                                Pageable pageable);
+    
     @Query("SELECT COUNT(p) FROM Post p " +
            "LEFT JOIN p.user u " +
            "LEFT JOIN p.category c " +
@@ -44,4 +79,14 @@ public interface PostRepository extends JpaRepository<Post, Integer> {
            "OR LOWER(c.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
            "OR LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')))")
     long countSearchResults(@Param("query") String query);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.likesCount = :likesCount WHERE p.id = :postId")
+    int updateLikesCount(@Param("postId") Integer postId, @Param("likesCount") int likesCount);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.likesCount = (SELECT COUNT(pl) FROM PostLike pl WHERE pl.post.id = p.id)")
+    int syncLikesCountWithPostLikes();
 } 
\ No newline at end of file
@@ -0,0 +1,9 @@
+package pl.justdrinkjava.JustDrinkJava.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizAttempt;
+
+@Repository
+public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
+}
@@ -1,10 +1,18 @@
 package pl.justdrinkjava.JustDrinkJava.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizFacet;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizSummary;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizVersion;
 import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
@@ -14,4 +22,48 @@ public interface QuizRepository extends JpaRepository<Quiz, Long> {
     List<Quiz> findByDifficultyOrderByCreatedAtDesc(Quiz.Difficulty difficulty);
     
     List<Quiz> findByUserIdOrderByCreatedAtDesc(Long userId);
+    
+    @Query("SELECT new pl.justdrinkjava.JustDrinkJava.dto.QuizVersion(" +
+           "q.id, COALESCE(q.updatedAt, q.createdAt), MAX(qc.updatedAt), COUNT(qc.id)) " +
+           "FROM Quiz q LEFT JOIN QuizContent qc ON qc.quizId = q.id " +
+           "WHERE q.id = :quizId " +
+           "GROUP BY q.id, q.updatedAt, q.createdAt")
+    Optional<QuizVersion> findVersionById(@Param("quizId") Long quizId);
+    
+    @Query(value = "SELECT new pl.justdrinkjava.JustDrinkJava.dto.QuizSummary(" +
+           "q.id, q.title, q.description, q.category, q.difficulty, q.timeLimit, q.createdAt, COUNT(qc.id)) " +
+           "FROM Quiz q LEFT JOIN QuizContent qc ON qc.quizId = q.id " +
+           "GROUP BY q.id, q.title, q.description, q.category, q.difficulty, q.timeLimit, q.createdAt " +
+           "ORDER BY q.createdAt DESC, q.id DESC",
+           countQuery = "SELECT COUNT(q) FROM Quiz q")
+    Page<QuizSummary> findSummaries(Pageable pageable);
+    
+    @Query("SELECT new pl.justdrinkjava.JustDrinkJava.dto.QuizSummary(" +
+           "q.id, q.title, q.description, q.category, q.difficulty, q.timeLimit, q.createdAt, COUNT(qc.id)) " +
+           "FROM Quiz q LEFT JOIN QuizContent qc ON qc.quizId = q.id " +
+           "WHERE q.category = :category " +
+           "GROUP BY q.id, q.title, q.description, q.category, q.difficulty, q.timeLimit, q.createdAt " +
+           "ORDER BY q.createdAt DESC")
+    List<QuizSummary> findSummariesByCategory(@Param("category") String category);
+    
+    /**
+     * Strona quizów z jednej pary (kategoria, poziom trudności), obsługiwana indeksem
+     * (category, difficulty, created_at). Liczba wszystkich wyników pochodzi z QuizFacetIndex.
+     */
+    @Query("SELECT new pl.justdrinkjava.JustDrinkJava.dto.QuizSummary(" +
+           "q.id, q.title, q.description, q.category, q.difficulty, q.timeLimit, q.createdAt, COUNT(qc.id)) " +
+           "FROM Quiz q LEFT JOIN QuizContent qc ON qc.quizId = q.id " +
+           "WHERE q.category = :category AND q.difficulty = :difficulty " +
+           "GROUP BY q.id, q.title, q.description, q.category, q.difficulty, q.timeLimit, q.createdAt " +
+           "ORDER BY q.createdAt DESC, q.id DESC")
+    List<QuizSummary> findSummariesByFacet(@Param("category") String category,
+                                           @Param("difficulty") Quiz.Difficulty difficulty,
+                                           Pageable pageable);
+    
+    @Query("SELECT q.id, q.category, q.difficulty FROM Quiz q")
+    List<Object[]> findAllFacets();
+    
+    @Query("SELECT new pl.justdrinkjava.JustDrinkJava.dto.QuizFacet(q.category, q.difficulty) " +
+           "FROM Quiz q WHERE q.id = :quizId")
+    Optional<QuizFacet> findFacetById(@Param("quizId") Long quizId);
 } 
\ No newline at end of file
@@ -5,26 +5,85 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
 import pl.justdrinkjava.JustDrinkJava.entity.UserRanking;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRankingRepository extends JpaRepository<UserRanking, Long> {
+public interface UserRankingRepository extends JpaRepository<UserRanking, Long>, UserRankingRepositoryCustom {
     
     Optional<UserRanking> findByUserId(Long userId);
     
-    @Query("SELECT ur FROM UserRanking ur ORDER BY ur.totalScore DESC, ur.updatedAt ASC")
+    List<UserRanking> findByUserIdIn(Collection<Long> userIds);
+    
+    @Query("SELECT ur FROM UserRanking ur ORDER BY ur.totalScore DESC, ur.updatedAt ASC NULLS LAST, ur.userId ASC")
     List<UserRanking> findAllOrderByTotalScoreDesc();
     
-    @Query("SELECT ur FROM UserRanking ur ORDER BY ur.totalScore DESC, ur.updatedAt ASC")
-    List<UserRanking> findTopRankings();
+    @Query("SELECT new pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto(ur.userId, u.username, u.email, ur.totalScore, ur.ranking, ur.updatedAt) " +
+           "FROM UserRanking ur LEFT JOIN ur.user u " +
+           "ORDER BY ur.totalScore DESC, ur.updatedAt ASC NULLS LAST, ur.userId ASC LIMIT :limit")
+    List<UserRankingDto> findTopRankings(@Param("limit") int limit);
+    
+    @Query("SELECT new pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto(ur.userId, u.username, u.email, ur.totalScore, ur.ranking, ur.updatedAt) " +
+           "FROM UserRanking ur LEFT JOIN ur.user u " +
+           "WHERE ur.totalScore < :totalScore " +
+           "OR (ur.totalScore = :totalScore AND (ur.updatedAt > :updatedAt OR ur.updatedAt IS NULL " +
+           "    OR (ur.updatedAt = :updatedAt AND ur.userId > :userId))) " +
+           "ORDER BY ur.totalScore DESC, ur.updatedAt ASC NULLS LAST, ur.userId ASC LIMIT :limit")
+    List<UserRankingDto> findRankingPageAfter(@Param("totalScore") int totalScore,
+                                              @Param("updatedAt") LocalDateTime updatedAt,
+                                              @Param("userId") Long userId,
+                                              @Param("limit") int limit);
+    
+    @Query("SELECT new pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto(ur.userId, u.username, u.email, ur.totalScore, ur.ranking, ur.updatedAt) " +
+           "FROM UserRanking ur LEFT JOIN ur.user u " +
+           "WHERE ur.totalScore < :totalScore " +
+           "OR (ur.totalScore = :totalScore AND ur.updatedAt IS NULL AND ur.userId > :userId) " +
+           "ORDER BY ur.totalScore DESC, ur.updatedAt ASC NULLS LAST, ur.userId ASC LIMIT :limit")
+    List<UserRankingDto> findRankingPageAfterUndated(@Param("totalScore") int totalScore,
+                                                     @Param("userId") Long userId,
+                                                     @Param("limit") int limit);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserRanking ur SET ur.totalScore = ur.totalScore + :delta, ur.updatedAt = :updatedAt, ur.version = ur.version + 1 " +
+           "WHERE ur.userId = :userId AND ur.totalScore + :delta >= 0")
+    int addToTotalScore(@Param("userId") Long userId, @Param("delta") int delta, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserRanking ur SET ur.totalScore = :totalScore, ur.updatedAt = :updatedAt, ur.version = ur.version + 1 " +
+           "WHERE ur.userId = :userId")
+    int setTotalScore(@Param("userId") Long userId, @Param("totalScore") int totalScore, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Wstawia pusty wiersz rankingu we własnej transakcji. Gdy równoległe żądanie wstawiło go pierwsze,
+     * rzuca DataIntegrityViolationException, nie psując transakcji wywołującego.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO users_ranking (user_id, total_score, ranking, updated_at, version) " +
+                   "VALUES (:userId, 0, 1, :updatedAt, 0)", nativeQuery = true)
+    int insertEmptyRanking(@Param("userId") Long userId, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserRanking ur WHERE ur.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
     
     @Modifying
     @Query("UPDATE UserRanking ur SET ur.ranking = ur.ranking + 1 WHERE ur.ranking >= :ranking")
     void incrementRankingsFrom(@Param("ranking") int ranking);
     
+    @Query("SELECT new pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto(ur.userId, u.username, u.email, ur.totalScore, ur.ranking, ur.updatedAt) " +
+           "FROM UserRanking ur LEFT JOIN ur.user u " +
+           "WHERE ur.ranking BETWEEN :fromRanking AND :toRanking " +
+           "ORDER BY ur.ranking ASC, ur.userId ASC")
+    List<UserRankingDto> findByRankingBetween(@Param("fromRanking") int fromRanking, @Param("toRanking") int toRanking);
+    
     @Query("SELECT COUNT(ur) FROM UserRanking ur WHERE ur.totalScore > :score")
     long countUsersWithScoreHigherThan(@Param("score") int score);
     
@@ -0,0 +1,9 @@
+package pl.justdrinkjava.JustDrinkJava.repository;
+
+public interface UserRankingRepositoryCustom {
+    
+    /**
+     * Przenumerowuje pozycje wszystkich wierszy jednym poleceniem i zwraca liczbę zmienionych pozycji.
+     */
+    int recalculateRankings();
+}
@@ -0,0 +1,50 @@
+package pl.justdrinkjava.JustDrinkJava.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * MERGE ... USING jest w PostgreSQL dostępny dopiero od wersji 15, a H2 nie zna UPDATE ... FROM,
+ * dlatego polecenie jest wybierane według dialektu bazy.
+ */
+class UserRankingRepositoryImpl implements UserRankingRepositoryCustom {
+    
+    private static final String RANKED_ROWS =
+            "SELECT id, ROW_NUMBER() OVER (ORDER BY total_score DESC, updated_at ASC NULLS LAST, user_id ASC) AS new_ranking " +
+            "FROM users_ranking";
+    
+    static final String UPDATE_FROM_STATEMENT =
+            "UPDATE users_ranking SET ranking = ranked.new_ranking " +
+            "FROM (" + RANKED_ROWS + ") AS ranked " +
+            "WHERE users_ranking.id = ranked.id AND users_ranking.ranking <> ranked.new_ranking";
+    
+    static final String MERGE_STATEMENT =
+            "MERGE INTO users_ranking AS target " +
+            "USING (" + RANKED_ROWS + ") AS ranked " +
+            "ON target.id = ranked.id " +
+            "WHEN MATCHED AND target.ranking <> ranked.new_ranking THEN " +
+            "UPDATE SET ranking = ranked.new_ranking";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public int recalculateRankings() {
+        Dialect dialect = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        
+        entityManager.flush();
+        int updated = entityManager.createNativeQuery(statementFor(dialect)).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+    
+    static String statementFor(Dialect dialect) {
+        return dialect instanceof PostgreSQLDialect ? UPDATE_FROM_STATEMENT : MERGE_STATEMENT;
+    }
+}
@@ -0,0 +1,39 @@
+package pl.justdrinkjava.JustDrinkJava.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import pl.justdrinkjava.JustDrinkJava.entity.UserScoreBucket;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserScoreBucketRepository extends JpaRepository<UserScoreBucket, Long> {
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserScoreBucket b SET b.points = b.points + :points " +
+           "WHERE b.userId = :userId AND b.granularity = :granularity AND b.bucketStart = :bucketStart")
+    int addPoints(@Param("userId") Long userId,
+                  @Param("granularity") UserScoreBucket.Granularity granularity,
+                  @Param("bucketStart") LocalDateTime bucketStart,
+                  @Param("points") int points);
+    
+    @Query("SELECT b.userId, SUM(b.points) FROM UserScoreBucket b " +
+           "WHERE b.bucketStart >= :from " +
+           "GROUP BY b.userId HAVING SUM(b.points) > 0 " +
+           "ORDER BY SUM(b.points) DESC, b.userId ASC LIMIT :limit")
+    List<Object[]> sumPointsSince(@Param("from") LocalDateTime from, @Param("limit") int limit);
+    
+    List<UserScoreBucket> findByGranularityAndBucketStartBefore(UserScoreBucket.Granularity granularity, LocalDateTime before);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserScoreBucket b WHERE b.granularity = :granularity AND b.bucketStart < :before")
+    int deleteByGranularityAndBucketStartBefore(@Param("granularity") UserScoreBucket.Granularity granularity,
+                                                @Param("before") LocalDateTime before);
+}
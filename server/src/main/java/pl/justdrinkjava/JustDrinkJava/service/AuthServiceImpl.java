@@ -2,6 +2,7 @@ package pl.justdrinkjava.JustDrinkJava.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Service;
 import pl.justdrinkjava.JustDrinkJava.dto.*;
 import pl.justdrinkjava.JustDrinkJava.entity.User;
 import pl.justdrinkjava.JustDrinkJava.entity.UserRanking;
+import pl.justdrinkjava.JustDrinkJava.event.UserRankingChangedEvent;
 import pl.justdrinkjava.JustDrinkJava.exception.UserAlreadyExistsException;
 import pl.justdrinkjava.JustDrinkJava.mapper.UserMapper;
 import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
@@ -21,6 +23,8 @@ public class AuthServiceImpl implements AuthService {
     
     private final UserRepository userRepository;
     private final UserRankingRepository userRankingRepository;
+    private final LeaderboardIndex leaderboardIndex;
+    private final ApplicationEventPublisher eventPublisher;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
@@ -96,6 +100,8 @@ public class AuthServiceImpl implements AuthService {
                     .build();
             
             userRankingRepository.save(initialRanking);
+            leaderboardIndex.updateAfterCommit(initialRanking);
+            eventPublisher.publishEvent(UserRankingChangedEvent.scoreChanged(initialRanking.getUserId(), initialRanking.getTotalScore()));
             
             log.info("Created initial ranking for user {} at position {}", user.getId(), totalUsers + 1);
             
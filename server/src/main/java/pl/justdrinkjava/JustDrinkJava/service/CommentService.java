@@ -2,12 +2,9 @@ package pl.justdrinkjava.JustDrinkJava.service;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,7 +23,6 @@ import pl.justdrinkjava.JustDrinkJava.mapper.CommentMapper;
 import pl.justdrinkjava.JustDrinkJava.repository.CommentLikeRepository;
 import pl.justdrinkjava.JustDrinkJava.repository.CommentRepository;
 import pl.justdrinkjava.JustDrinkJava.repository.PostRepository;
-import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
 
 @Service
 @RequiredArgsConstructor
@@ -36,9 +32,10 @@ public class CommentService {
     
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserProvider currentUserProvider;
     private final CommentLikeRepository commentLikeRepository;
     private final CommentMapper commentMapper;
+    private final LikeEnrichmentService likeEnrichmentService;
     
     public List<CommentDTO> getCommentsByPostId(Integer postId) {
         log.info("Pobieranie komentarzy dla posta o ID: {}", postId);
@@ -68,7 +65,7 @@ public class CommentService {
     public CommentDTO createComment(CreateCommentRequest request) {
         log.info("Tworzenie nowego komentarza dla posta o ID: {}", request.getPostId());
         
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         Post post = postRepository.findById(request.getPostId())
                 .orElseThrow(() -> {
@@ -95,7 +92,7 @@ public class CommentService {
     public CommentDTO updateComment(Integer commentId, UpdateCommentRequest request) {
         log.info("Aktualizacja komentarza o ID: {}", commentId);
         
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> {
@@ -122,7 +119,7 @@ public class CommentService {
     public void deleteComment(Integer commentId) {
         log.info("Usuwanie komentarza o ID: {}", commentId);
         
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> {
@@ -146,7 +143,7 @@ public class CommentService {
     public CommentDTO toggleLike(Integer commentId) {
         log.info("Przełączanie polubienia komentarza o ID: {}", commentId);
         
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> {
@@ -174,20 +171,7 @@ public class CommentService {
     }
     
     private CommentDTO enrichCommentWithLikes(Comment comment) {
-        CommentDTO dto = commentMapper.toDTO(comment);
-        
-        Long likesCount = commentLikeRepository.countByCommentId(comment.getId());
-        dto.setLikes(likesCount.intValue());
-        
-        User currentUser = getCurrentUserOrNull();
-        if (currentUser != null) {
-            boolean isLiked = commentLikeRepository.findByCommentIdAndUserId(comment.getId(), currentUser.getId()).isPresent();
-            dto.setIsLikedByCurrentUser(isLiked);
-        } else {
-            dto.setIsLikedByCurrentUser(false);
-        }
-        
-        return dto;
+        return enrichCommentsWithLikes(List.of(comment)).get(0);
     }
     
     private List<CommentDTO> enrichCommentsWithLikes(List<Comment> comments) {
@@ -195,57 +179,15 @@ public class CommentService {
             return List.of();
         }
         
-        User currentUser = getCurrentUserOrNull();
-        Set<Integer> likedCommentIds = Set.of();
-        
-        if (currentUser != null) {
-            List<Integer> commentIds = comments.stream()
-                    .map(Comment::getId)
-                    .collect(Collectors.toList());
-            likedCommentIds = commentLikeRepository.findLikedCommentIdsByUserAndCommentIds(commentIds, currentUser.getId())
-                    .stream()
-                    .collect(Collectors.toSet());
-        }
-        
-        final Set<Integer> finalLikedCommentIds = likedCommentIds;
+        LikeEnrichmentService.LikeSnapshot likes = likeEnrichmentService.forComments(comments, currentUserProvider.getCurrentUserOrNull());
         
         return comments.stream()
                 .map(comment -> {
                     CommentDTO dto = commentMapper.toDTO(comment);
-                    Long likesCount = commentLikeRepository.countByCommentId(comment.getId());
-                    dto.setLikes(likesCount.intValue());
-                    dto.setIsLikedByCurrentUser(finalLikedCommentIds.contains(comment.getId()));
+                    dto.setLikes(likes.likesOf(comment.getId()));
+                    dto.setIsLikedByCurrentUser(likes.isLiked(comment.getId()));
                     return dto;
                 })
                 .collect(Collectors.toList());
     }
-    
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        
-        return userRepository.findByUsername(username)
-                .or(() -> userRepository.findByEmail(username))
-                .orElseThrow(() -> {
-                    log.error("Nie znaleziono aktualnego użytkownika: {}", username);
-                    return new RuntimeException("Użytkownik nie został znaleziony");
-                });
-    }
-    
-    private User getCurrentUserOrNull() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getName())) {
-                return null;
-            }
-            String username = authentication.getName();
-            
-            return userRepository.findByUsername(username)
-                    .or(() -> userRepository.findByEmail(username))
-                    .orElse(null);
-        } catch (Exception e) {
-            log.warn("Nie można pobrać aktualnego użytkownika: {}", e.getMessage());
-            return null;
-        }
-    }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.dto.AuthenticatedUser;
+import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
+
+/**
+ * Zalogowany użytkownik bieżącego żądania. Korzysta z encji ustawionej jako principal, a w innym
+ * przypadku (np. principal z claimów JWT) wyszukuje użytkownika raz i zapamiętuje wynik w atrybutach żądania.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CurrentUserProvider {
+
+    private static final String REQUEST_ATTRIBUTE = CurrentUserProvider.class.getName() + ".user";
+
+    private final UserRepository userRepository;
+
+    public User getCurrentUser() {
+        User user = getCurrentUserOrNull();
+        if (user == null) {
+            log.error("Nie znaleziono aktualnego użytkownika");
+            throw new RuntimeException("Użytkownik nie został znaleziony");
+        }
+        return user;
+    }
+
+    /**
+     * Identyfikator zalogowanego użytkownika; dla principala z tokenu JWT nie wymaga zapytania do bazy.
+     */
+    public Long getCurrentUserIdOrNull() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.id();
+        }
+        User user = getCurrentUserOrNull();
+        return user != null ? user.getId() : null;
+    }
+
+    public User getCurrentUserOrNull() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getName())) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof User user && user.getId() != null) {
+            return user;
+        }
+
+        String username = authentication.getName();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return findUser(authentication);
+        }
+
+        if (attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof ResolvedUser resolved
+                && resolved.username().equals(username)) {
+            return resolved.user();
+        }
+
+        User user = findUser(authentication);
+        attributes.setAttribute(REQUEST_ATTRIBUTE, new ResolvedUser(username, user), RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+
+    private User findUser(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            log.debug("Wyszukiwanie aktualnego użytkownika po ID: {}", principal.id());
+            return userRepository.findById(principal.id()).orElse(null);
+        }
+        
+        String username = authentication.getName();
+        log.debug("Wyszukiwanie aktualnego użytkownika: {}", username);
+        return userRepository.findByUsername(username)
+                .or(() -> userRepository.findByEmail(username))
+                .orElse(null);
+    }
+
+    private record ResolvedUser(String username, User user) {
+    }
+}
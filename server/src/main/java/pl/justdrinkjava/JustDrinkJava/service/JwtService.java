@@ -1,30 +1,51 @@
 package pl.justdrinkjava.JustDrinkJava.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import pl.justdrinkjava.JustDrinkJava.dto.AuthenticatedUser;
+import pl.justdrinkjava.JustDrinkJava.entity.User;
 
 import javax.crypto.SecretKey;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
 @Slf4j
 public class JwtService {
     
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
     
-    @Value("${app.jwt.expiration}")
-    private long jwtExpirationInMs;
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+    private final long jwtExpirationInMs;
+    private final int verifiedCacheSize;
+    
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    
+    public JwtService(@Value("${app.jwt.secret}") String jwtSecret,
+                      @Value("${app.jwt.expiration}") long jwtExpirationInMs,
+                      @Value("${app.jwt.verified-cache-size:10000}") int verifiedCacheSize) {
+        this.signInKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        this.verifiedCacheSize = verifiedCacheSize;
+    }
     
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -36,7 +57,14 @@ public class JwtService {
     }
     
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user && user.getId() != null) {
+            claims.put(USER_ID_CLAIM, user.getId());
+        }
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        return generateToken(claims, userDetails);
     }
     
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -56,10 +84,28 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiryDate))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
     
+    /**
+     * Weryfikuje podpis i ważność tokenu i buduje z niego principal. Zwraca null dla tokenów
+     * wydanych bez identyfikatora użytkownika.
+     */
+    public AuthenticatedUser extractAuthenticatedUser(String token) {
+        Claims claims = extractAllClaims(token);
+        if (!(claims.get(USER_ID_CLAIM) instanceof Number userId)) {
+            return null;
+        }
+        
+        List<String> roles = claims.get(ROLES_CLAIM) instanceof List<?> values
+                ? values.stream().map(String::valueOf).toList()
+                : List.of();
+        Instant issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+        
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), roles, issuedAt);
+    }
+    
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
             final String username = extractUsername(token);
@@ -78,15 +124,38 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
     
+    /**
+     * Zwraca claimy zweryfikowanego tokenu. Token zweryfikowany wcześniej jest brany z pamięci
+     * do chwili swojego wygaśnięcia, więc kolejne żądania z tym samym tokenem nie liczą podpisu ponownie.
+     */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (now < cached.expiresAt()) {
+                return cached.claims();
+            }
+            verifiedTokens.remove(token);
+        }
+        
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        remember(token, claims, now);
+        return claims;
+    }
+    
+    private void remember(String token, Claims claims, long now) {
+        if (verifiedCacheSize <= 0 || claims.getExpiration() == null) {
+            return;
+        }
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            verifiedTokens.values().removeIf(verified -> verified.expiresAt() <= now);
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(token, new VerifiedToken(claims, claims.getExpiration().getTime()));
     }
     
-    private SecretKey getSignInKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private record VerifiedToken(Claims claims, long expiresAt) {
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
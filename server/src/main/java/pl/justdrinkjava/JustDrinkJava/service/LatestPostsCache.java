@@ -0,0 +1,90 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.dto.PostDTO;
+import pl.justdrinkjava.JustDrinkJava.entity.Post;
+import pl.justdrinkjava.JustDrinkJava.event.PostChangedEvent;
+
+/**
+ * Read-through cache najnowszych postów, niezależny od użytkownika (bez polubień).
+ * Unieważniany zdarzeniem PostChangedEvent zamiast po czasie.
+ */
+@Component
+@Slf4j
+public class LatestPostsCache {
+    
+    @Value("${app.posts.latest-cache-size:50}")
+    private int capacity = 50;
+    
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+    
+    public List<CachedPost> getLatest(int limit, IntFunction<List<CachedPost>> loader) {
+        if (limit <= 0 || limit > capacity) {
+            return loader.apply(limit);
+        }
+        
+        Snapshot current = snapshot;
+        if (current != null && current.covers(limit)) {
+            return current.prefix(limit);
+        }
+        
+        long loadedGeneration = generation.get();
+        List<CachedPost> loaded = List.copyOf(loader.apply(limit));
+        install(loadedGeneration, new Snapshot(loaded, loaded.size() < limit));
+        return loaded;
+    }
+    
+    public Optional<CachedPost> getLatestPost(Supplier<Optional<CachedPost>> loader) {
+        Snapshot current = snapshot;
+        if (current != null && current.covers(1)) {
+            return current.posts().stream().findFirst();
+        }
+        
+        long loadedGeneration = generation.get();
+        Optional<CachedPost> loaded = loader.get();
+        install(loadedGeneration, new Snapshot(loaded.map(List::of).orElse(List.of()), loaded.isEmpty()));
+        return loaded;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostChanged(PostChangedEvent event) {
+        generation.incrementAndGet();
+        snapshot = null;
+        log.debug("Unieważniono cache najnowszych postów po zmianie posta o ID: {}", event.postId());
+    }
+    
+    private synchronized void install(long loadedGeneration, Snapshot loaded) {
+        if (generation.get() != loadedGeneration) {
+            return;
+        }
+        Snapshot current = snapshot;
+        if (current == null || loaded.complete() || loaded.posts().size() > current.posts().size()) {
+            snapshot = loaded;
+        }
+    }
+    
+    public record CachedPost(Post post, PostDTO base) {
+    }
+    
+    private record Snapshot(List<CachedPost> posts, boolean complete) {
+        
+        boolean covers(int limit) {
+            return complete || posts.size() >= limit;
+        }
+        
+        List<CachedPost> prefix(int limit) {
+            return posts.size() <= limit ? posts : posts.subList(0, limit);
+        }
+    }
+}
@@ -0,0 +1,456 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.entity.UserRanking;
+import pl.justdrinkjava.JustDrinkJava.repository.UserRankingRepository;
+
+/**
+ * Ranking użytkowników trzymany w pamięci jako drzewo pozycyjne (treap z rozmiarami poddrzew).
+ * Kolejność: punkty malejąco, data aktualizacji rosnąco, ID użytkownika rosnąco - tak jak w
+ * {@link UserRankingRepository#findAllOrderByTotalScoreDesc()}. Zmiana wyniku i odczyt pozycji
+ * kosztują O(log n), bez zapytań do bazy danych. Zapisy z transakcji trafiają do drzewa dopiero
+ * po commicie, a wersja wiersza chroni przed nadpisaniem nowszego wyniku starszym.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardIndex {
+
+    private static final Comparator<Node> ORDER = Comparator.comparingInt((Node node) -> node.totalScore).reversed()
+            .thenComparing(node -> node.updatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(node -> node.userId);
+
+    private final UserRankingRepository userRankingRepository;
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuild(userRankingRepository.findAllOrderByTotalScoreDesc());
+    }
+
+    /**
+     * Buduje drzewo od nowa w czasie O(n) dla listy już posortowanej w kolejności rankingu.
+     */
+    public void rebuild(List<UserRanking> rankings) {
+        List<Node> sorted = new ArrayList<>(rankings.size());
+        for (UserRanking ranking : rankings) {
+            sorted.add(new Node(ranking.getUserId(), scoreOf(ranking.getTotalScore()), ranking.getUpdatedAt(),
+                    ranking.getVersion()));
+        }
+        sorted.sort(ORDER);
+
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            Deque<Node> rightSpine = new ArrayDeque<>();
+            for (Node node : sorted) {
+                Node lastPopped = null;
+                while (!rightSpine.isEmpty() && rightSpine.peek().priority < node.priority) {
+                    lastPopped = rightSpine.pop();
+                    lastPopped.recount();
+                }
+                node.left = lastPopped;
+                if (!rightSpine.isEmpty()) {
+                    rightSpine.peek().right = node;
+                }
+                rightSpine.push(node);
+                nodes.put(node.userId, node);
+            }
+            while (rightSpine.size() > 1) {
+                rightSpine.pop().recount();
+            }
+            root = rightSpine.peek();
+            if (root != null) {
+                root.recount();
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Zbudowano ranking w pamięci dla {} użytkowników", sorted.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ustawia wynik użytkownika i zwraca jego nową pozycję (liczoną od 1).
+     */
+    public int update(Long userId, Integer totalScore, LocalDateTime updatedAt) {
+        return apply(new Node(userId, scoreOf(totalScore), updatedAt, null));
+    }
+
+    /**
+     * Przenosi zapisany wiersz do drzewa po zatwierdzeniu bieżącej transakcji (poza transakcją od razu).
+     * Pola są odczytywane po commicie, więc wersja jest już podbita przez zapis; wiersz ze starszą
+     * wersją niż ta w drzewie jest pomijany.
+     */
+    public void updateAfterCommit(UserRanking ranking) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(ranking);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(ranking);
+            }
+        });
+    }
+
+    /**
+     * Zwraca pozycję, którą użytkownik zająłby z podanym wynikiem, bez zmiany drzewa.
+     */
+    public int rankOf(Long userId, Integer totalScore, LocalDateTime updatedAt) {
+        Node probe = new Node(userId, scoreOf(totalScore), updatedAt, null);
+
+        lock.readLock().lock();
+        try {
+            int before = countBefore(probe);
+            Node current = nodes.get(userId);
+            if (current != null && ORDER.compare(current, probe) < 0) {
+                before--;
+            }
+            return before + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Usuwa użytkownika z drzewa dopiero po zatwierdzeniu bieżącej transakcji; poza transakcją od razu.
+     */
+    public void removeAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(userId);
+            }
+        });
+    }
+
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            Node previous = nodes.remove(userId);
+            if (previous != null) {
+                root = remove(root, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Standing> find(Long userId) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(userId);
+            return node != null ? Optional.of(node.toStanding(rankOf(node))) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zwraca pozycję użytkownika razem z {@code k} sąsiadami powyżej i poniżej, w czasie O(log n + k).
+     */
+    public List<Standing> around(Long userId, int k) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(userId);
+            if (node == null) {
+                return List.of();
+            }
+            int position = rankOf(node) - 1;
+            int from = Math.max(0, position - k);
+            int limit = position + k - from + 1;
+            List<Standing> result = new ArrayList<>(limit);
+            collect(root, from, limit, 0, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zwraca fragment rankingu od podanej pozycji (liczonej od 0) w czasie O(log n + limit).
+     */
+    public List<Standing> range(int offset, int limit) {
+        List<Standing> result = new ArrayList<>(Math.max(0, limit));
+        if (offset < 0 || limit <= 0) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            collect(root, offset, limit, 0, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zwraca pozycje, które zajęliby użytkownicy z partii po zastosowaniu wszystkich jej wyników,
+     * bez zmiany drzewa. Koszt O(b log b + b log n) dla partii b wierszy.
+     */
+    public Map<Long, Integer> rankOf(List<UserRanking> rankings) {
+        List<Node> probes = new ArrayList<>(rankings.size());
+        for (UserRanking ranking : rankings) {
+            probes.add(new Node(ranking.getUserId(), scoreOf(ranking.getTotalScore()), ranking.getUpdatedAt(), null));
+        }
+        probes.sort(ORDER);
+
+        Map<Long, Integer> ranks = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            List<Node> current = new ArrayList<>(probes.size());
+            for (Node probe : probes) {
+                Node node = nodes.get(probe.userId);
+                if (node != null) {
+                    current.add(node);
+                }
+            }
+            current.sort(ORDER);
+
+            for (int i = 0; i < probes.size(); i++) {
+                Node probe = probes.get(i);
+                ranks.put(probe.userId, countBefore(probe) - countBefore(current, probe) + i + 1);
+            }
+            return ranks;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(UserRanking ranking) {
+        apply(new Node(ranking.getUserId(), scoreOf(ranking.getTotalScore()), ranking.getUpdatedAt(), ranking.getVersion()));
+    }
+
+    private int apply(Node node) {
+        lock.writeLock().lock();
+        try {
+            Node previous = nodes.get(node.userId);
+            if (previous != null && previous.version != null && node.version != null && previous.version >= node.version) {
+                return rankOf(previous);
+            }
+            nodes.put(node.userId, node);
+            if (previous != null) {
+                root = remove(root, previous);
+            }
+            root = insert(root, node);
+            return rankOf(node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int countBefore(Node target) {
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            if (ORDER.compare(target, node) <= 0) {
+                node = node.left;
+            } else {
+                before += sizeOf(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return before;
+    }
+
+    private static int countBefore(List<Node> sorted, Node target) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ORDER.compare(sorted.get(middle), target) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void collect(Node node, int offset, int limit, int skipped, List<Standing> result) {
+        if (node == null || result.size() >= limit) {
+            return;
+        }
+        int leftSize = sizeOf(node.left);
+        int position = skipped + leftSize;
+        if (offset < position) {
+            collect(node.left, offset, limit, skipped, result);
+        }
+        if (position >= offset && result.size() < limit) {
+            result.add(node.toStanding(position + 1));
+        }
+        if (result.size() < limit) {
+            collect(node.right, offset, limit, position + 1, result);
+        }
+    }
+
+    private int rankOf(Node target) {
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = ORDER.compare(target, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                before += sizeOf(node.left) + 1;
+                node = node.right;
+            } else {
+                return before + sizeOf(node.left) + 1;
+            }
+        }
+        throw new IllegalStateException("Użytkownik " + target.userId + " nie znajduje się w rankingu");
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] parts = split(node, inserted);
+            inserted.left = parts[0];
+            inserted.right = parts[1];
+            inserted.recount();
+            return inserted;
+        }
+        if (ORDER.compare(inserted, node) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        node.recount();
+        return node;
+    }
+
+    private static Node remove(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = ORDER.compare(removed, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, removed);
+        } else {
+            node.right = remove(node.right, removed);
+        }
+        node.recount();
+        return node;
+    }
+
+    private static Node[] split(Node node, Node pivot) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (ORDER.compare(node, pivot) < 0) {
+            Node[] parts = split(node.right, pivot);
+            node.right = parts[0];
+            node.recount();
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, pivot);
+        node.left = parts[1];
+        node.recount();
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.recount();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.recount();
+        return right;
+    }
+
+    private static int sizeOf(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static int scoreOf(Integer totalScore) {
+        return totalScore != null ? totalScore : 0;
+    }
+
+    private static final class Node {
+
+        final long userId;
+        final int totalScore;
+        final LocalDateTime updatedAt;
+        final Long version;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long userId, int totalScore, LocalDateTime updatedAt, Long version) {
+            this.userId = userId;
+            this.totalScore = totalScore;
+            this.updatedAt = updatedAt;
+            this.version = version;
+        }
+
+        void recount() {
+            size = 1 + sizeOf(left) + sizeOf(right);
+        }
+
+        Standing toStanding(int rank) {
+            return new Standing(userId, totalScore, updatedAt, rank);
+        }
+    }
+
+    public record Standing(Long userId, int totalScore, LocalDateTime updatedAt, int rank) {
+    }
+}
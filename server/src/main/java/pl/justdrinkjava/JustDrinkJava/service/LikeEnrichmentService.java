@@ -0,0 +1,94 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import pl.justdrinkjava.JustDrinkJava.entity.Comment;
+import pl.justdrinkjava.JustDrinkJava.entity.Post;
+import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.repository.CommentLikeRepository;
+import pl.justdrinkjava.JustDrinkJava.repository.PostLikeRepository;
+
+/**
+ * Wylicza liczbę polubień i flagi "polubione przez użytkownika" dla całej listy encji naraz,
+ * zamiast osobnych zapytań dla każdego posta lub komentarza.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LikeEnrichmentService {
+
+    private final PostLikeRepository postLikeRepository;
+    private final CommentLikeRepository commentLikeRepository;
+    private final PostLikeCounterService postLikeCounterService;
+
+    public LikeSnapshot forPosts(List<Post> posts, User currentUser) {
+        if (posts.isEmpty()) {
+            return LikeSnapshot.EMPTY;
+        }
+
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Post post : posts) {
+            counts.put(post.getId(), postLikeCounterService.getLikes(post));
+        }
+
+        Set<Integer> likedIds = Set.of();
+        if (currentUser != null) {
+            likedIds = new HashSet<>(postLikeRepository.findLikedPostIdsByUserAndPostIds(
+                    ids(posts, Post::getId), currentUser.getId()));
+        }
+
+        return new LikeSnapshot(counts, likedIds);
+    }
+
+    public LikeSnapshot forComments(List<Comment> comments, User currentUser) {
+        if (comments.isEmpty()) {
+            return LikeSnapshot.EMPTY;
+        }
+
+        List<Integer> commentIds = ids(comments, Comment::getId);
+
+        Map<Integer, Integer> counts = commentLikeRepository.countLikesByCommentIds(commentIds)
+                .stream()
+                .collect(Collectors.toMap(
+                        row -> (Integer) row[0],
+                        row -> ((Number) row[1]).intValue()));
+
+        Set<Integer> likedIds = Set.of();
+        if (currentUser != null) {
+            likedIds = new HashSet<>(commentLikeRepository.findLikedCommentIdsByUserAndCommentIds(
+                    commentIds, currentUser.getId()));
+        }
+
+        return new LikeSnapshot(counts, likedIds);
+    }
+
+    private <T> List<Integer> ids(List<T> entities, Function<T, Integer> idExtractor) {
+        return entities.stream()
+                .map(idExtractor)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    public record LikeSnapshot(Map<Integer, Integer> counts, Set<Integer> likedIds) {
+
+        public static final LikeSnapshot EMPTY = new LikeSnapshot(Map.of(), Set.of());
+
+        public int likesOf(Integer id) {
+            return counts.getOrDefault(id, 0);
+        }
+
+        public boolean isLiked(Integer id) {
+            return likedIds.contains(id);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package pl.justdrinkjava.JustDrinkJava.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -36,6 +37,18 @@ public class PostContentService {
         return postContentMapper.toDTO(postContent);
     }
     
+    public String getPostContentVersion(Integer id) {
+        LocalDateTime updatedAt = postContentRepository.findUpdatedAtById(id)
+                .orElseThrow(() -> new RuntimeException("Post content nie znaleziony z ID: " + id));
+        return "post-content:" + id + ":" + updatedAt;
+    }
+    
+    public String getPostContentVersionByPostId(Integer postId) {
+        LocalDateTime updatedAt = postContentRepository.findUpdatedAtByPostId(postId)
+                .orElseThrow(() -> new RuntimeException("Post content nie znaleziony dla post ID: " + postId));
+        return "post-content:post:" + postId + ":" + updatedAt;
+    }
+    
     public List<PostContentDTO> getAllPostContent() {
         List<PostContent> postContents = postContentRepository.findAllOrderByCreatedAtDesc();
         return postContents.stream()
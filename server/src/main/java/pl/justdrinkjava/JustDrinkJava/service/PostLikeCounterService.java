@@ -0,0 +1,153 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.entity.Post;
+import pl.justdrinkjava.JustDrinkJava.repository.PostLikeRepository;
+import pl.justdrinkjava.JustDrinkJava.repository.PostRepository;
+
+/**
+ * Liczniki polubień postów trzymane w pamięci (LongAdder na post).
+ * Odczyt nie wykonuje zapytań, a zmiany są okresowo zapisywane do kolumny posts.likes_count.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostLikeCounterService {
+
+    private final PostLikeRepository postLikeRepository;
+    private final PostRepository postRepository;
+
+    private final ConcurrentMap<Integer, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Set<Integer> dirtyPostIds = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seed() {
+        int synced = postRepository.syncLikesCountWithPostLikes();
+
+        List<Object[]> rows = postLikeRepository.countLikesGroupedByPostId();
+        for (Object[] row : rows) {
+            Integer postId = (Integer) row[0];
+            long likes = ((Number) row[1]).longValue();
+            LongAdder counter = new LongAdder();
+            counter.add(likes);
+            counters.put(postId, counter);
+        }
+
+        log.info("Zainicjalizowano liczniki polubień dla {} postów ({} postów zsynchronizowanych)",
+                rows.size(), synced);
+    }
+
+    public int getLikes(Post post) {
+        return getLikes(post.getId(), post.getLikesCount());
+    }
+    
+    public int getLikes(Integer postId, Integer persistedLikes) {
+        LongAdder counter = counters.get(postId);
+        if (counter != null) {
+            return counter.intValue();
+        }
+        return persistedLikes != null ? persistedLikes : 0;
+    }
+
+    public void recordLike(Post post) {
+        adjust(post, 1);
+    }
+
+    public void recordUnlike(Post post) {
+        adjust(post, -1);
+    }
+
+    @Scheduled(fixedDelayString = "${app.likes.flush-interval-ms:30000}",
+               initialDelayString = "${app.likes.flush-interval-ms:30000}")
+    @Transactional
+    public void flush() {
+        if (dirtyPostIds.isEmpty()) {
+            return;
+        }
+
+        List<Integer> postIds = new ArrayList<>(dirtyPostIds);
+        postIds.forEach(dirtyPostIds::remove);
+        markDirtyOnRollback(postIds);
+
+        int flushed = 0;
+        try {
+            for (Integer postId : postIds) {
+                LongAdder counter = counters.get(postId);
+                if (counter != null) {
+                    flushed += postRepository.updateLikesCount(postId, counter.intValue());
+                }
+            }
+        } catch (RuntimeException e) {
+            dirtyPostIds.addAll(postIds);
+            throw e;
+        }
+
+        log.debug("Zapisano liczniki polubień dla {} postów", flushed);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Nie udało się zapisać liczników polubień przy zamykaniu: {}", e.getMessage());
+        }
+    }
+
+    private void adjust(Post post, int delta) {
+        Integer postId = post.getId();
+        counters.computeIfAbsent(postId, id -> initialCounter(post)).add(delta);
+        dirtyPostIds.add(postId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        counters.get(postId).add(-delta);
+                        dirtyPostIds.add(postId);
+                    }
+                }
+            });
+        }
+    }
+
+    private void markDirtyOnRollback(List<Integer> postIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        dirtyPostIds.addAll(postIds);
+                    }
+                }
+            });
+        }
+    }
+
+    private LongAdder initialCounter(Post post) {
+        LongAdder counter = new LongAdder();
+        if (post.getLikesCount() != null) {
+            counter.add(post.getLikesCount());
+        }
+        return counter;
+    }
+}
@@ -0,0 +1,250 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.dto.PostCursor;
+import pl.justdrinkjava.JustDrinkJava.entity.Post;
+import pl.justdrinkjava.JustDrinkJava.entity.PostContent;
+import pl.justdrinkjava.JustDrinkJava.event.PostChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.exception.InvalidCursorException;
+import pl.justdrinkjava.JustDrinkJava.repository.PostContentRepository;
+import pl.justdrinkjava.JustDrinkJava.repository.PostRepository;
+
+/**
+ * Indeks odwrócony postów trzymany w pamięci. Wyszukuje po prefiksach słów z tytułu, opisu,
+ * kategorii, autora i treści posta, bez zapytań do bazy danych.
+ * W odróżnieniu od zapytania SQL (LIKE '%fraza%') każde słowo zapytania musi być początkiem słowa
+ * w poście, a wszystkie słowa muszą trafić w ten sam post: "spr boot" znajdzie "Spring Boot",
+ * ale "ring" już nie.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final float TITLE_WEIGHT = 5f;
+    private static final float CATEGORY_WEIGHT = 3f;
+    private static final float AUTHOR_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 2f;
+    private static final float CONTENT_WEIGHT = 1f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+    private final PostRepository postRepository;
+    private final PostContentRepository postContentRepository;
+
+    private final NavigableMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+    private final Map<Integer, IndexedPost> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Post> posts = postRepository.findAllWithUserAndCategory();
+        Map<Integer, String> contents = postContentRepository.findAll().stream()
+                .collect(Collectors.toMap(PostContent::getPostId, PostContent::getContent, (a, b) -> a + " " + b));
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            for (Post post : posts) {
+                addDocument(post, contents.get(post.getId()));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Zbudowano indeks wyszukiwania dla {} postów ({} unikalnych słów)", posts.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Integer postId = event.postId();
+
+        Optional<Post> post = event.type() == PostChangedEvent.Type.DELETED
+                ? Optional.empty()
+                : postRepository.findByIdWithUserAndCategory(postId);
+        String content = post.isPresent()
+                ? postContentRepository.findByPostId(postId).map(PostContent::getContent).orElse(null)
+                : null;
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(postId);
+            post.ifPresent(p -> addDocument(p, content));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.debug("Zaktualizowano indeks wyszukiwania dla posta o ID: {} ({})", postId, event.type());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public SearchHits search(String query, int offset, int limit) {
+        return search(query, null, offset, limit);
+    }
+
+    /**
+     * Wyniki są sortowane po trafności, więc kursor musi pochodzić z wyszukiwania i nieść wynik;
+     * kursor z listy postów (tylko data i ID) zacząłby stronicowanie od początku.
+     */
+    public SearchHits searchAfter(String query, PostCursor after, int limit) {
+        if (after.score() == null) {
+            throw new InvalidCursorException(after.encode(),
+                    new IllegalArgumentException("Kursor wyszukiwania nie zawiera wyniku trafności"));
+        }
+        return search(query, after, 0, limit);
+    }
+
+    private SearchHits search(String query, PostCursor after, int offset, int limit) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return SearchHits.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Float> scores = null;
+            for (String term : terms) {
+                Map<Integer, Float> termScores = matchTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((postId, score) -> score + termScores.get(postId));
+                }
+                if (scores.isEmpty()) {
+                    return SearchHits.EMPTY;
+                }
+            }
+
+            RankedPost boundary = after != null ? RankedPost.boundaryOf(after) : null;
+            List<RankedPost> ranked = scores.entrySet().stream()
+                    .map(entry -> new RankedPost(documents.get(entry.getKey()).post(), entry.getValue()))
+                    .filter(hit -> boundary == null || RankedPost.ORDER.compare(hit, boundary) > 0)
+                    .sorted(RankedPost.ORDER)
+                    .skip(offset)
+                    .limit(limit + 1L)
+                    .collect(Collectors.toList());
+
+            boolean hasMore = ranked.size() > limit;
+            List<RankedPost> page = hasMore ? ranked.subList(0, limit) : ranked;
+            PostCursor nextCursor = hasMore && !page.isEmpty() ? page.get(page.size() - 1).toCursor() : null;
+
+            return new SearchHits(page.stream().map(RankedPost::post).collect(Collectors.toList()), scores.size(), nextCursor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private Map<Integer, Float> matchTerm(String term) {
+        Map<Integer, Float> result = new HashMap<>();
+        postings.subMap(term, true, term + Character.MAX_VALUE, false).forEach((indexedTerm, postingList) -> {
+            float factor = indexedTerm.equals(term) ? 1f : PREFIX_MATCH_FACTOR;
+            postingList.forEach((postId, weight) -> result.merge(postId, weight * factor, Math::max));
+        });
+        return result;
+    }
+
+    private void addDocument(Post post, String content) {
+        Map<String, Float> termWeights = new HashMap<>();
+        addField(termWeights, post.getTitle(), TITLE_WEIGHT);
+        addField(termWeights, post.getDescription(), DESCRIPTION_WEIGHT);
+        addField(termWeights, post.getCategory() != null ? post.getCategory().getName() : null, CATEGORY_WEIGHT);
+        addField(termWeights, post.getUser() != null ? post.getUser().getDisplayUsername() : null, AUTHOR_WEIGHT);
+        addField(termWeights, content, CONTENT_WEIGHT);
+
+        termWeights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(post.getId(), weight));
+        documents.put(post.getId(), new IndexedPost(post, termWeights.keySet()));
+    }
+
+    private void addField(Map<String, Float> termWeights, String text, float weight) {
+        for (String token : tokenize(text)) {
+            termWeights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private void removeDocument(Integer postId) {
+        IndexedPost existing = documents.remove(postId);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Map<Integer, Float> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(postId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private record IndexedPost(Post post, Set<String> terms) {
+    }
+
+    private record RankedPost(Post post, float score) {
+
+        static final Comparator<RankedPost> ORDER = Comparator.comparing((RankedPost hit) -> hit.score(), Comparator.reverseOrder())
+                .thenComparing(hit -> hit.post().getCreatedAt(), Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(hit -> hit.post().getId(), Comparator.reverseOrder());
+
+        static RankedPost boundaryOf(PostCursor cursor) {
+            return new RankedPost(
+                    Post.builder().id(cursor.id()).createdAt(cursor.createdAt()).build(),
+                    cursor.score());
+        }
+
+        PostCursor toCursor() {
+            return new PostCursor(score, post.getCreatedAt(), post.getId());
+        }
+    }
+
+    public record SearchHits(List<Post> posts, int total, PostCursor nextCursor) {
+
+        public static final SearchHits EMPTY = new SearchHits(List.of(), 0, null);
+    }
+}
@@ -2,19 +2,18 @@ package pl.justdrinkjava.JustDrinkJava.service;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.dto.PostCursor;
 import pl.justdrinkjava.JustDrinkJava.dto.PostDTO;
+import pl.justdrinkjava.JustDrinkJava.dto.PostVersion;
 import pl.justdrinkjava.JustDrinkJava.dto.SearchPostsRequest;
 import pl.justdrinkjava.JustDrinkJava.dto.SearchPostsResponse;
 import pl.justdrinkjava.JustDrinkJava.entity.Post;
@@ -24,7 +23,6 @@ import pl.justdrinkjava.JustDrinkJava.exception.PostNotFoundException;
 import pl.justdrinkjava.JustDrinkJava.mapper.PostMapper;
 import pl.justdrinkjava.JustDrinkJava.repository.PostLikeRepository;
 import pl.justdrinkjava.JustDrinkJava.repository.PostRepository;
-import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
 
 @Service
 @RequiredArgsConstructor
@@ -34,17 +32,22 @@ public class PostService {
     
     private final PostRepository postRepository;
     private final PostLikeRepository postLikeRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserProvider currentUserProvider;
     private final PostMapper postMapper;
+    private final PostLikeCounterService postLikeCounterService;
+    private final LikeEnrichmentService likeEnrichmentService;
+    private final PostSearchIndex postSearchIndex;
+    private final LatestPostsCache latestPostsCache;
     
     public PostDTO getLatestPost() {
-        Post latestPost = postRepository.findLatestPost()
+        LatestPostsCache.CachedPost latestPost = latestPostsCache
+                .getLatestPost(() -> postRepository.findLatestPost().map(this::toCachedPost))
                 .orElseThrow(() -> {
                     log.error("Nie znaleziono żadnego postu w bazie danych");
                     return new PostNotFoundException("Nie znaleziono żadnego postu");
                 });
         
-        return enrichPostWithLikes(latestPost);
+        return overlayLikes(List.of(latestPost)).get(0);
     }
     
     public PostDTO getPostById(Integer id) {
@@ -57,10 +60,45 @@ public class PostService {
         return enrichPostWithLikes(post);
     }
     
+    /**
+     * Wersja reprezentacji posta dla bieżącego użytkownika: data modyfikacji, liczba polubień
+     * i flaga polubienia. Nie mapuje posta, więc nadaje się do obsługi If-None-Match.
+     */
+    public String getPostVersion(Integer id) {
+        PostVersion version = postRepository.findVersionById(id)
+                .orElseThrow(() -> {
+                    log.error("Nie znaleziono postu o ID: {}", id);
+                    return new PostNotFoundException("Nie znaleziono postu o ID: " + id);
+                });
+        
+        int likes = postLikeCounterService.getLikes(id, version.likesCount());
+        User currentUser = currentUserProvider.getCurrentUserOrNull();
+        boolean liked = currentUser != null
+                && postLikeRepository.findByPostIdAndUserId(id, currentUser.getId()).isPresent();
+        
+        return "post:" + id + ":" + version.updatedAt() + ":" + likes + ":" + liked;
+    }
+    
     public List<PostDTO> getLatestPosts(int limit) {
-        log.info("Pobieranie {} ostatnich postów z bazy danych", limit);
+        log.info("Pobieranie {} ostatnich postów", limit);
         
-        List<Post> posts = postRepository.findLatestPosts(limit);
+        List<LatestPostsCache.CachedPost> posts = latestPostsCache.getLatest(limit, n -> {
+            log.info("Pobieranie {} ostatnich postów z bazy danych", n);
+            return postRepository.findLatestPosts(n).stream()
+                    .map(this::toCachedPost)
+                    .collect(Collectors.toList());
+        });
+        
+        log.info("Znaleziono {} postów", posts.size());
+        
+        return overlayLikes(posts);
+    }
+    
+    public List<PostDTO> getLatestPostsAfter(String cursor, int limit) {
+        PostCursor after = PostCursor.decode(cursor);
+        log.info("Pobieranie {} postów starszych niż {} (ID: {})", limit, after.createdAt(), after.id());
+        
+        List<Post> posts = postRepository.findLatestPostsAfter(after.createdAt(), after.id(), limit);
         
         log.info("Znaleziono {} postów", posts.size());
         
@@ -78,25 +116,55 @@ public class PostService {
             return SearchPostsResponse.of(List.of(), 0, request.getLimit(), request.getOffset());
         }
         
-        int page = request.getOffset() / request.getLimit();
-        Pageable pageable = PageRequest.of(page, request.getLimit());
-        
-        List<Post> posts = postRepository.searchPosts(query, pageable);
-        long totalCount = postRepository.countSearchResults(query);
+        PostCursor after = request.getCursor() != null && !request.getCursor().isBlank()
+                ? PostCursor.decode(request.getCursor())
+                : null;
+        int limit = request.getLimit();
+        
+        List<Post> posts;
+        long totalCount;
+        PostCursor nextCursor;
+        
+        if (postSearchIndex.isReady()) {
+            PostSearchIndex.SearchHits hits = after != null
+                    ? postSearchIndex.searchAfter(query, after, limit)
+                    : postSearchIndex.search(query, request.getOffset(), limit);
+            posts = hits.posts();
+            totalCount = hits.total();
+            nextCursor = hits.nextCursor();
+        } else {
+            if (after != null) {
+                posts = postRepository.searchPostsAfter(query, after.createdAt(), after.id(), PageRequest.of(0, limit));
+            } else {
+                int page = request.getOffset() / limit;
+                Pageable pageable = PageRequest.of(page, limit);
+                posts = postRepository.searchPosts(query, pageable);
+            }
+            totalCount = postRepository.countSearchResults(query);
+            nextCursor = posts.size() == limit ? cursorOf(posts.get(posts.size() - 1)) : null;
+        }
         
         List<PostDTO> postDTOs = enrichPostsWithLikes(posts);
         
         log.info("Znaleziono {} postów na {} total dla zapytania: '{}'", 
                 posts.size(), totalCount, query);
         
-        return SearchPostsResponse.of(postDTOs, (int) totalCount, request.getLimit(), request.getOffset());
+        if (after != null) {
+            return SearchPostsResponse.of(postDTOs, (int) totalCount, nextCursor);
+        }
+        
+        SearchPostsResponse response = SearchPostsResponse.of(postDTOs, (int) totalCount, limit, request.getOffset());
+        if (response.getHasMore() && nextCursor != null) {
+            response.setNextCursor(nextCursor.encode());
+        }
+        return response;
     }
     
     @Transactional
     public PostDTO toggleLike(Integer postId) {
         log.info("Przełączanie polubienia posta o ID: {}", postId);
         
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserProvider.getCurrentUser();
         
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> {
@@ -108,6 +176,7 @@ public class PostService {
         
         if (existingLike.isPresent()) {
             postLikeRepository.delete(existingLike.get());
+            postLikeCounterService.recordUnlike(post);
             log.info("Usunięto polubienie posta o ID: {} przez użytkownika: {}", 
                     postId, currentUser.getUsername());
         } else {
@@ -116,6 +185,7 @@ public class PostService {
                     .user(currentUser)
                     .build();
             postLikeRepository.save(newLike);
+            postLikeCounterService.recordLike(post);
             log.info("Dodano polubienie posta o ID: {} przez użytkownika: {}", 
                     postId, currentUser.getUsername());
         }
@@ -123,21 +193,34 @@ public class PostService {
         return enrichPostWithLikes(post);
     }
     
-    private PostDTO enrichPostWithLikes(Post post) {
-        PostDTO dto = postMapper.toDTO(post);
-        
-        Long likesCount = postLikeRepository.countByPostId(post.getId());
-        dto.setLikes(likesCount.intValue());
-        
-        User currentUser = getCurrentUserOrNull();
-        if (currentUser != null) {
-            boolean isLiked = postLikeRepository.findByPostIdAndUserId(post.getId(), currentUser.getId()).isPresent();
-            dto.setIsLikedByCurrentUser(isLiked);
-        } else {
-            dto.setIsLikedByCurrentUser(false);
+    private PostCursor cursorOf(Post post) {
+        return PostCursor.of(post.getCreatedAt(), post.getId());
+    }
+    
+    private LatestPostsCache.CachedPost toCachedPost(Post post) {
+        return new LatestPostsCache.CachedPost(post, postMapper.toDTO(post));
+    }
+    
+    private List<PostDTO> overlayLikes(List<LatestPostsCache.CachedPost> cachedPosts) {
+        if (cachedPosts.isEmpty()) {
+            return List.of();
         }
         
-        return dto;
+        List<Post> posts = cachedPosts.stream()
+                .map(LatestPostsCache.CachedPost::post)
+                .collect(Collectors.toList());
+        LikeEnrichmentService.LikeSnapshot likes = likeEnrichmentService.forPosts(posts, currentUserProvider.getCurrentUserOrNull());
+        
+        return cachedPosts.stream()
+                .map(cached -> cached.base().toBuilder()
+                        .likes(likes.likesOf(cached.post().getId()))
+                        .isLikedByCurrentUser(likes.isLiked(cached.post().getId()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    private PostDTO enrichPostWithLikes(Post post) {
+        return enrichPostsWithLikes(List.of(post)).get(0);
     }
     
     private List<PostDTO> enrichPostsWithLikes(List<Post> posts) {
@@ -145,57 +228,15 @@ public class PostService {
             return List.of();
         }
         
-        User currentUser = getCurrentUserOrNull();
-        Set<Integer> likedPostIds = Set.of();
-        
-        if (currentUser != null) {
-            List<Integer> postIds = posts.stream()
-                    .map(Post::getId)
-                    .collect(Collectors.toList());
-            likedPostIds = postLikeRepository.findLikedPostIdsByUserAndPostIds(postIds, currentUser.getId())
-                    .stream()
-                    .collect(Collectors.toSet());
-        }
-        
-        final Set<Integer> finalLikedPostIds = likedPostIds;
+        LikeEnrichmentService.LikeSnapshot likes = likeEnrichmentService.forPosts(posts, currentUserProvider.getCurrentUserOrNull());
         
         return posts.stream()
                 .map(post -> {
                     PostDTO dto = postMapper.toDTO(post);
-                    Long likesCount = postLikeRepository.countByPostId(post.getId());
-                    dto.setLikes(likesCount.intValue());
-                    dto.setIsLikedByCurrentUser(finalLikedPostIds.contains(post.getId()));
+                    dto.setLikes(likes.likesOf(post.getId()));
+                    dto.setIsLikedByCurrentUser(likes.isLiked(post.getId()));
                     return dto;
                 })
                 .collect(Collectors.toList());
     }
-    
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        
-        return userRepository.findByUsername(username)
-                .or(() -> userRepository.findByEmail(username))
-                .orElseThrow(() -> {
-                    log.error("Nie znaleziono aktualnego użytkownika: {}", username);
-                    return new RuntimeException("Użytkownik nie został znaleziony");
-                });
-    }
-    
-    private User getCurrentUserOrNull() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getName())) {
-                return null;
-            }
-            String username = authentication.getName();
-            
-            return userRepository.findByUsername(username)
-                    .or(() -> userRepository.findByEmail(username))
-                    .orElse(null);
-        } catch (Exception e) {
-            log.warn("Nie można pobrać aktualnego użytkownika: {}", e.getMessage());
-            return null;
-        }
-    }
-} 
\ No newline at end of file
+}
\ No newline at end of file
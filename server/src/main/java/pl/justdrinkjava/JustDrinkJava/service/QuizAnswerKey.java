@@ -0,0 +1,165 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import pl.justdrinkjava.JustDrinkJava.dto.QuizAnswerRequest;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizResultDTO;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizVersion;
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizContent;
+
+/**
+ * Skompilowany, niezmienny klucz odpowiedzi quizu. Ocenianie odbywa się wyłącznie w pamięci.
+ */
+public record QuizAnswerKey(Long quizId, String title, QuizVersion version, List<Question> questions) {
+    
+    public static QuizAnswerKey compile(Quiz quiz, List<QuizContent> contents, Function<QuizContent, List<String>> optionsParser) {
+        List<Question> questions = new ArrayList<>(contents.size());
+        for (QuizContent content : contents) {
+            List<String> options = optionsParser.apply(content);
+            questions.add(Question.of(content.getId(), content.getQuestion(),
+                    options != null ? List.copyOf(options) : List.of(), content.getCorrectAnswer()));
+        }
+        
+        LocalDateTime questionsUpdatedAt = contents.stream()
+                .map(QuizContent::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        QuizVersion version = new QuizVersion(quiz.getId(),
+                quiz.getUpdatedAt() != null ? quiz.getUpdatedAt() : quiz.getCreatedAt(),
+                questionsUpdatedAt, (long) contents.size());
+        
+        return new QuizAnswerKey(quiz.getId(), quiz.getTitle(), version, List.copyOf(questions));
+    }
+    
+    public QuizResultDTO grade(QuizAnswerRequest request) {
+        Map<Long, List<String>> answers = request.getAnswers() != null ? request.getAnswers() : Map.of();
+        List<QuizResultDTO.QuestionResultDTO> results = new ArrayList<>(questions.size());
+        int correctAnswers = 0;
+        
+        for (Question question : questions) {
+            List<String> userAnswers = answers.getOrDefault(question.id(), List.of());
+            boolean isCorrect = question.isAnsweredCorrectly(userAnswers);
+            
+            if (isCorrect) {
+                correctAnswers++;
+            }
+            
+            results.add(QuizResultDTO.QuestionResultDTO.builder()
+                    .questionId(question.id())
+                    .question(question.text())
+                    .userAnswers(userAnswers)
+                    .correctAnswer(question.correctAnswer())
+                    .isCorrect(isCorrect)
+                    .explanation(question.explanation(isCorrect))
+                    .build());
+        }
+        
+        int score = (int) Math.round((double) correctAnswers / questions.size() * 100);
+        
+        return QuizResultDTO.builder()
+                .quizId(quizId)
+                .quizTitle(title)
+                .score(score)
+                .totalQuestions(questions.size())
+                .correctAnswers(correctAnswers)
+                .timeSpent(request.getTimeSpent())
+                .results(results)
+                .build();
+    }
+    
+    /**
+     * Pytanie z prawidłową odpowiedzią znormalizowaną do maski bitowej indeksów opcji. Maska równa 0
+     * oznacza odpowiedź, której nie da się odwzorować na opcje (lub ponad 64 opcje) - wtedy pytanie
+     * jest oceniane dawnym porównaniem tekstowym.
+     */
+    public record Question(Long id, String text, List<String> options, String correctAnswer, long correctMask) {
+        
+        static final int MAX_MASK_OPTIONS = Long.SIZE;
+        
+        public static Question of(Long id, String text, List<String> options, String correctAnswer) {
+            return new Question(id, text, options, correctAnswer, maskOf(options, correctAnswer));
+        }
+        
+        boolean isAnsweredCorrectly(List<String> userAnswers) {
+            if (userAnswers == null || userAnswers.isEmpty()) {
+                return false;
+            }
+            if (correctMask == 0L) {
+                return matchesText(userAnswers);
+            }
+            
+            long mask = 0L;
+            for (int i = 0; i < userAnswers.size(); i++) {
+                int index = indexOf(options, userAnswers.get(i));
+                if (index < 0) {
+                    return false;
+                }
+                long bit = 1L << index;
+                if ((mask & bit) != 0L) {
+                    return false;
+                }
+                mask |= bit;
+            }
+            return mask == correctMask;
+        }
+        
+        String explanation(boolean isCorrect) {
+            if (isCorrect) {
+                return "Poprawna odpowiedź! " + correctAnswer;
+            }
+            return "Niepoprawna odpowiedź. Prawidłowa odpowiedź to: " + correctAnswer;
+        }
+        
+        private boolean matchesText(List<String> userAnswers) {
+            if (correctAnswer == null) {
+                return false;
+            }
+            if (userAnswers.size() == 1) {
+                return correctAnswer.equals(userAnswers.get(0));
+            }
+            return correctAnswer.equals(String.join(",", userAnswers.stream().sorted().toList()));
+        }
+        
+        /**
+         * Cała odpowiedź równa jednej z opcji ma pierwszeństwo, więc opcje zawierające przecinki
+         * nie są rozbijane. W przeciwnym razie odpowiedź jest listą opcji rozdzielonych przecinkami.
+         */
+        static long maskOf(List<String> options, String correctAnswer) {
+            if (correctAnswer == null || options.isEmpty() || options.size() > MAX_MASK_OPTIONS) {
+                return 0L;
+            }
+            
+            int index = indexOf(options, correctAnswer);
+            if (index >= 0) {
+                return 1L << index;
+            }
+            
+            long mask = 0L;
+            for (String part : correctAnswer.split(",", -1)) {
+                index = indexOf(options, part.trim());
+                if (index < 0) {
+                    return 0L;
+                }
+                mask |= 1L << index;
+            }
+            return mask;
+        }
+        
+        private static int indexOf(List<String> options, String answer) {
+            for (int i = 0; i < options.size(); i++) {
+                if (options.get(i).equals(answer)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
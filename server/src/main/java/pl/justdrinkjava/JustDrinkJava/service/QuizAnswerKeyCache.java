@@ -0,0 +1,102 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizVersion;
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizContent;
+import pl.justdrinkjava.JustDrinkJava.event.QuizChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.mapper.QuizContentMapper;
+import pl.justdrinkjava.JustDrinkJava.repository.QuizContentRepository;
+import pl.justdrinkjava.JustDrinkJava.repository.QuizRepository;
+
+/**
+ * Ograniczony (LRU) cache skompilowanych kluczy odpowiedzi. Zapis lub usunięcie quizu albo jego pytania
+ * usuwa wpis od razu (QuizChangedEvent). Zmiany z pominięciem JPA (np. skrypty SQL) zdarzeń nie publikują,
+ * więc wpis jest dodatkowo co pewien czas weryfikowany jednym zapytaniem o wersję quizu (daty modyfikacji
+ * i liczba pytań) i kompilowany od nowa dopiero, gdy wersja się zmieni.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAnswerKeyCache {
+    
+    private final QuizRepository quizRepository;
+    private final QuizContentRepository quizContentRepository;
+    private final QuizContentMapper quizContentMapper;
+    
+    @Value("${app.quiz.answer-key-cache-size:500}")
+    private int capacity = 500;
+    
+    @Value("${app.quiz.answer-key-revalidate-ms:30000}")
+    private long revalidateAfterMs = 30000;
+    
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    
+    public QuizAnswerKey get(Long quizId) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(quizId);
+        }
+        
+        long now = System.currentTimeMillis();
+        if (entry != null && now - entry.validatedAt() < revalidateAfterMs) {
+            return entry.key();
+        }
+        
+        if (entry != null) {
+            Optional<QuizVersion> version = quizRepository.findVersionById(quizId);
+            if (version.isPresent() && version.get().equals(entry.key().version())) {
+                put(quizId, new Entry(entry.key(), now));
+                return entry.key();
+            }
+            log.debug("Wersja quizu {} zmieniła się, klucz odpowiedzi zostanie skompilowany ponownie", quizId);
+        }
+        
+        QuizAnswerKey compiled = compile(quizId);
+        put(quizId, new Entry(compiled, now));
+        return compiled;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizChanged(QuizChangedEvent event) {
+        evict(event.quizId());
+        log.debug("Usunięto klucz odpowiedzi quizu o ID: {} ({})", event.quizId(), event.type());
+    }
+    
+    public synchronized void evict(Long quizId) {
+        entries.remove(quizId);
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    private QuizAnswerKey compile(Long quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz nie został znaleziony: " + quizId));
+        List<QuizContent> questions = quizContentRepository.findByQuizIdOrderById(quizId);
+        
+        return QuizAnswerKey.compile(quiz, questions, quizContentMapper::getOptions);
+    }
+    
+    private synchronized void put(Long quizId, Entry entry) {
+        entries.put(quizId, entry);
+        while (entries.size() > capacity) {
+            Long eldest = entries.keySet().iterator().next();
+            entries.remove(eldest);
+        }
+    }
+    
+    private record Entry(QuizAnswerKey key, long validatedAt) {
+    }
+}
@@ -0,0 +1,102 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizAttempt;
+import pl.justdrinkjava.JustDrinkJava.exception.ScoreIngestionRejectedException;
+import pl.justdrinkjava.JustDrinkJava.repository.QuizAttemptRepository;
+
+/**
+ * Podejścia do quizów zapisywane poza wątkiem żądania. Partia podejść trafia do bazy jednym
+ * wsadowym INSERT-em, a każde podejście dodaje do rankingu {@link QuizAttempt#rankingPoints()}
+ * punktów, zsumowanych dla użytkownika w obrębie partii. Podejścia i punkty są zapisywane w jednej
+ * transakcji; gdy się nie powiedzie, partia wraca do kolejki i trafi do bazy przy następnym zapisie.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAttemptRecorder {
+    
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final UserRankingService userRankingService;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.quiz.attempts.capacity:10000}")
+    private int capacity = 10000;
+    
+    private List<QuizAttempt> pending = new ArrayList<>();
+    
+    public synchronized void record(QuizAttempt attempt) {
+        if (pending.size() >= capacity) {
+            throw new ScoreIngestionRejectedException(capacity);
+        }
+        pending.add(attempt);
+    }
+    
+    public synchronized int size() {
+        return pending.size();
+    }
+    
+    @Scheduled(fixedDelayString = "${app.quiz.attempts.flush-ms:1000}",
+               initialDelayString = "${app.quiz.attempts.flush-ms:1000}")
+    public void flush() {
+        List<QuizAttempt> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException e) {
+            // identyfikatory z sekwencji zostały nadane w wycofanej transakcji, ponowny zapis nada nowe
+            batch.forEach(attempt -> attempt.setId(null));
+            synchronized (this) {
+                List<QuizAttempt> requeued = new ArrayList<>(batch);
+                requeued.addAll(pending);
+                pending = requeued;
+            }
+            throw e;
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Nie udało się zapisać podejść do quizów przy zamykaniu: {}", e.getMessage());
+        }
+    }
+    
+    private void write(List<QuizAttempt> batch) {
+        Map<Long, Integer> points = new LinkedHashMap<>();
+        for (QuizAttempt attempt : batch) {
+            int earned = attempt.rankingPoints();
+            if (earned > 0) {
+                points.merge(attempt.getUserId(), earned, Integer::sum);
+            }
+        }
+        
+        quizAttemptRepository.saveAll(batch);
+        if (!points.isEmpty()) {
+            userRankingService.addScores(points);
+        }
+        
+        log.debug("Zapisano {} podejść do quizów, ranking zmieniony dla {} użytkowników", batch.size(), points.size());
+    }
+}
@@ -0,0 +1,85 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizAnswerRequest;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizResultDTO;
+
+/**
+ * Ocenia wiele zgłoszeń naraz na ograniczonej puli wątków. Paczka jest dzielona na tyle części,
+ * ile jest wątków; gdy kolejka puli jest pełna, część oceniana jest w wątku żądania. Małe paczki
+ * oceniane są od razu w wątku żądania, bo przekazanie zadań kosztowałoby więcej niż samo ocenianie.
+ */
+@Component
+@Slf4j
+public class QuizBatchGrader {
+    
+    static final int PARALLEL_THRESHOLD = 32;
+    
+    private final int parallelism;
+    private final ThreadPoolExecutor executor;
+    
+    public QuizBatchGrader(@Value("${app.quiz.batch-grading-threads:4}") int threads,
+                           @Value("${app.quiz.batch-grading-queue-size:64}") int queueSize) {
+        this.parallelism = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "quiz-grading-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+    
+    /**
+     * Zwraca wyniki w kolejności zgłoszeń; {@code keys.get(i)} to klucz odpowiedzi dla {@code requests.get(i)}.
+     */
+    public List<QuizResultDTO> grade(List<QuizAnswerKey> keys, List<QuizAnswerRequest> requests) {
+        int size = requests.size();
+        QuizResultDTO[] results = new QuizResultDTO[size];
+        
+        if (size < PARALLEL_THRESHOLD || parallelism == 1) {
+            gradeRange(keys, requests, results, 0, size);
+            return Arrays.asList(results);
+        }
+        
+        int chunk = (size + parallelism - 1) / parallelism;
+        List<CompletableFuture<Void>> parts = new ArrayList<>(parallelism);
+        for (int from = 0; from < size; from += chunk) {
+            int start = from;
+            int end = Math.min(size, from + chunk);
+            parts.add(CompletableFuture.runAsync(() -> gradeRange(keys, requests, results, start, end), executor));
+        }
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).join();
+        
+        return Arrays.asList(results);
+    }
+    
+    private static void gradeRange(List<QuizAnswerKey> keys, List<QuizAnswerRequest> requests,
+                                   QuizResultDTO[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = keys.get(i).grade(requests.get(i));
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        log.debug("Zamknięto pulę wątków oceniania quizów");
+    }
+}
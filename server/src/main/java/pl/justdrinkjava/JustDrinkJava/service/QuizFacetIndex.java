@@ -0,0 +1,157 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizFacet;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizFacetsDTO;
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.event.QuizChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.repository.QuizRepository;
+
+/**
+ * Liczniki quizów dla każdej pary (kategoria, poziom trudności) trzymane w pamięci. Budowane raz
+ * przy starcie, potem aktualizowane zdarzeniem QuizChangedEvent - zapamiętana para każdego quizu
+ * pozwala przenieść go między licznikami przy zmianie kategorii lub poziomu trudności.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizFacetIndex {
+    
+    private static final Comparator<QuizFacet> ORDER = Comparator.comparing(QuizFacet::category)
+            .thenComparing(QuizFacet::difficulty);
+    
+    private final QuizRepository quizRepository;
+    
+    private final Map<Long, QuizFacet> facetsByQuiz = new HashMap<>();
+    private final Map<QuizFacet, Long> counts = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Object[]> rows = quizRepository.findAllFacets();
+        
+        lock.writeLock().lock();
+        try {
+            facetsByQuiz.clear();
+            counts.clear();
+            for (Object[] row : rows) {
+                add((Long) row[0], new QuizFacet((String) row[1], (Quiz.Difficulty) row[2]));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        log.info("Zbudowano liczniki quizów dla {} quizów ({} kombinacji)", rows.size(), counts.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onQuizChanged(QuizChangedEvent event) {
+        if (!ready) {
+            return;
+        }
+        Optional<QuizFacet> facet = event.type() == QuizChangedEvent.Type.DELETED
+                ? Optional.empty()
+                : quizRepository.findFacetById(event.quizId());
+        
+        lock.writeLock().lock();
+        try {
+            remove(event.quizId());
+            facet.ifPresent(f -> add(event.quizId(), f));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        log.debug("Zaktualizowano liczniki dla quizu o ID: {} ({})", event.quizId(), event.type());
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public long count(QuizFacet facet) {
+        ensureReady();
+        lock.readLock().lock();
+        try {
+            return counts.getOrDefault(facet, 0L);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public QuizFacetsDTO getFacets() {
+        ensureReady();
+        List<Map.Entry<QuizFacet, Long>> entries;
+        lock.readLock().lock();
+        try {
+            entries = new ArrayList<>(counts.entrySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+        entries.sort(Map.Entry.comparingByKey(ORDER));
+        
+        Map<String, Long> categories = new TreeMap<>();
+        Map<Quiz.Difficulty, Long> difficulties = new EnumMap<>(Quiz.Difficulty.class);
+        List<QuizFacetsDTO.FacetCountDTO> combinations = new ArrayList<>(entries.size());
+        long total = 0;
+        for (Map.Entry<QuizFacet, Long> entry : entries) {
+            QuizFacet facet = entry.getKey();
+            long count = entry.getValue();
+            categories.merge(facet.category(), count, Long::sum);
+            difficulties.merge(facet.difficulty(), count, Long::sum);
+            combinations.add(QuizFacetsDTO.FacetCountDTO.builder()
+                    .category(facet.category())
+                    .difficulty(facet.difficulty())
+                    .count(count)
+                    .build());
+            total += count;
+        }
+        
+        return QuizFacetsDTO.builder()
+                .total(total)
+                .categories(categories)
+                .difficulties(difficulties)
+                .combinations(combinations)
+                .build();
+    }
+    
+    private void ensureReady() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+    
+    private void add(Long quizId, QuizFacet facet) {
+        facetsByQuiz.put(quizId, facet);
+        counts.merge(facet, 1L, Long::sum);
+    }
+    
+    private void remove(Long quizId) {
+        QuizFacet previous = facetsByQuiz.remove(quizId);
+        if (previous != null) {
+            counts.computeIfPresent(previous, (facet, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+}
@@ -3,20 +3,26 @@ package pl.justdrinkjava.JustDrinkJava.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import pl.justdrinkjava.JustDrinkJava.dto.*;
 import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizAttempt;
 import pl.justdrinkjava.JustDrinkJava.entity.QuizContent;
-import pl.justdrinkjava.JustDrinkJava.entity.User;
 import pl.justdrinkjava.JustDrinkJava.mapper.QuizContentMapper;
 import pl.justdrinkjava.JustDrinkJava.mapper.QuizMapper;
 import pl.justdrinkjava.JustDrinkJava.repository.QuizContentRepository;
 import pl.justdrinkjava.JustDrinkJava.repository.QuizRepository;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,13 +35,30 @@ public class QuizService {
     private final QuizContentRepository quizContentRepository;
     private final QuizMapper quizMapper;
     private final QuizContentMapper quizContentMapper;
+    private final QuizAttemptRecorder quizAttemptRecorder;
+    private final QuizAnswerKeyCache quizAnswerKeyCache;
+    private final QuizBatchGrader quizBatchGrader;
+    private final QuizFacetIndex quizFacetIndex;
     
     @Transactional(readOnly = true)
-    public Page<QuizDTO> getAllQuizzes(Pageable pageable) {
+    public Page<QuizSummary> getAllQuizzes(Pageable pageable) {
         log.debug("Pobieranie quizów z paginacją: {}", pageable);
         
-        Page<Quiz> quizPage = quizRepository.findAll(pageable);
-        return quizPage.map(quizMapper::toDTO);
+        return quizRepository.findSummaries(pageable);
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<QuizSummary> getQuizzesByFacet(QuizFacet facet, Pageable pageable) {
+        log.debug("Pobieranie quizów dla kategorii: {} i poziomu: {} z paginacją: {}", 
+                facet.category(), facet.difficulty(), pageable);
+        
+        List<QuizSummary> quizzes = quizRepository.findSummariesByFacet(facet.category(), facet.difficulty(), pageable);
+        return new PageImpl<>(quizzes, pageable, quizFacetIndex.count(facet));
+    }
+    
+    @Transactional(readOnly = true)
+    public QuizFacetsDTO getFacets() {
+        return quizFacetIndex.getFacets();
     }
     
     @Transactional(readOnly = true)
@@ -51,6 +74,18 @@ public class QuizService {
         return quizMapper.toDTO(quiz);
     }
     
+    /**
+     * Wersja quizu wyliczana bez ładowania pytań: zmienia się przy edycji quizu,
+     * edycji, dodaniu lub usunięciu któregokolwiek z jego pytań.
+     */
+    @Transactional(readOnly = true)
+    public String getQuizVersion(Long quizId) {
+        QuizVersion version = quizRepository.findVersionById(quizId)
+                .orElseThrow(() -> new RuntimeException("Quiz nie został znaleziony: " + quizId));
+        
+        return quizId + ":" + version.updatedAt() + ":" + version.questionsUpdatedAt() + ":" + version.questionCount();
+    }
+    
     @Transactional(readOnly = true)
     public List<QuizContentDTO> getQuizQuestionsForSolving(Long quizId) {
         log.debug("Pobieranie pytań quizu do rozwiązywania: {}", quizId);
@@ -69,83 +104,110 @@ public class QuizService {
                 .collect(Collectors.toList());
     }
     
-    @Transactional(readOnly = true)
-    public QuizResultDTO checkAnswers(QuizAnswerRequest request, User currentUser) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public QuizResultDTO checkAnswers(QuizAnswerRequest request, Long userId) {
         log.debug("Sprawdzanie odpowiedzi dla quizu: {} przez użytkownika: {}", 
-                request.getQuizId(), currentUser != null ? currentUser.getId() : "anonimowy");
-        
-        Quiz quiz = quizRepository.findById(request.getQuizId())
-                .orElseThrow(() -> new RuntimeException("Quiz nie został znaleziony: " + request.getQuizId()));
+                request.getQuizId(), userId != null ? userId : "anonimowy");
         
-        List<QuizContent> questions = quizContentRepository.findByQuizIdOrderById(request.getQuizId());
+        QuizAnswerKey answerKey = quizAnswerKeyCache.get(request.getQuizId());
         
-        if (questions.isEmpty()) {
+        if (answerKey.questions().isEmpty()) {
             throw new RuntimeException("Quiz nie zawiera pytań");
         }
         
-        List<QuizResultDTO.QuestionResultDTO> results = new ArrayList<>();
-        int correctAnswers = 0;
+        QuizResultDTO result = answerKey.grade(request);
+        recordAttempt(answerKey, request, result, userId);
         
-        for (QuizContent question : questions) {
-            List<String> userAnswers = request.getAnswers().getOrDefault(question.getId(), new ArrayList<>());
-            boolean isCorrect = checkAnswer(question, userAnswers);
-            
-            if (isCorrect) {
-                correctAnswers++;
-            }
-            
-            results.add(QuizResultDTO.QuestionResultDTO.builder()
-                    .questionId(question.getId())
-                    .question(question.getQuestion())
-                    .userAnswers(userAnswers)
-                    .correctAnswer(question.getCorrectAnswer())
-                    .isCorrect(isCorrect)
-                    .explanation(generateExplanation(question, isCorrect))
-                    .build());
-        }
-        
-        int score = (int) Math.round((double) correctAnswers / questions.size() * 100);
-        
-        return QuizResultDTO.builder()
-                .quizId(quiz.getId())
-                .quizTitle(quiz.getTitle())
-                .score(score)
-                .totalQuestions(questions.size())
-                .correctAnswers(correctAnswers)
-                .timeSpent(request.getTimeSpent())
-                .results(results)
-                .build();
+        return result;
     }
     
-    private boolean checkAnswer(QuizContent question, List<String> userAnswers) {
-        if (userAnswers == null || userAnswers.isEmpty()) {
-            return false;
+    /**
+     * Ocenia wiele zgłoszeń w jednym wywołaniu. Klucz odpowiedzi każdego quizu pobierany jest raz,
+     * a błąd jednego quizu (brak quizu, brak pytań) oznacza tylko jego zgłoszenia, nie całą paczkę.
+     * Paczka tylko ocenia odpowiedzi - podejścia i ranking zapisuje wyłącznie {@link #checkAnswers}.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<QuizBatchResultDTO> checkAnswersBatch(List<QuizAnswerRequest> submissions) {
+        log.debug("Sprawdzanie {} zgłoszeń", submissions.size());
+        
+        Map<Long, QuizAnswerKey> answerKeys = new HashMap<>();
+        Map<Long, String> failures = new HashMap<>();
+        for (QuizAnswerRequest submission : submissions) {
+            Long quizId = submission.getQuizId();
+            if (quizId == null || answerKeys.containsKey(quizId) || failures.containsKey(quizId)) {
+                continue;
+            }
+            try {
+                QuizAnswerKey answerKey = quizAnswerKeyCache.get(quizId);
+                if (answerKey.questions().isEmpty()) {
+                    failures.put(quizId, "Quiz nie zawiera pytań");
+                } else {
+                    answerKeys.put(quizId, answerKey);
+                }
+            } catch (RuntimeException e) {
+                failures.put(quizId, e.getMessage());
+            }
         }
         
-        String correctAnswer = question.getCorrectAnswer();
+        List<Integer> positions = new ArrayList<>(submissions.size());
+        List<QuizAnswerKey> keys = new ArrayList<>(submissions.size());
+        List<QuizAnswerRequest> graded = new ArrayList<>(submissions.size());
+        QuizBatchResultDTO[] results = new QuizBatchResultDTO[submissions.size()];
+        for (int i = 0; i < submissions.size(); i++) {
+            QuizAnswerRequest submission = submissions.get(i);
+            QuizAnswerKey answerKey = answerKeys.get(submission.getQuizId());
+            if (answerKey != null) {
+                positions.add(i);
+                keys.add(answerKey);
+                graded.add(submission);
+            } else {
+                String message = submission.getQuizId() == null
+                        ? "Brak ID quizu"
+                        : failures.get(submission.getQuizId());
+                results[i] = QuizBatchResultDTO.builder()
+                        .index(i)
+                        .quizId(submission.getQuizId())
+                        .status("error")
+                        .message(message)
+                        .build();
+            }
+        }
         
-        if (userAnswers.size() == 1) {
-            return correctAnswer.equals(userAnswers.get(0));
-        } else {
-            return correctAnswer.equals(String.join(",", userAnswers.stream().sorted().collect(Collectors.toList())));
+        List<QuizResultDTO> gradedResults = quizBatchGrader.grade(keys, graded);
+        for (int i = 0; i < gradedResults.size(); i++) {
+            QuizResultDTO result = gradedResults.get(i);
+            results[positions.get(i)] = QuizBatchResultDTO.builder()
+                    .index(positions.get(i))
+                    .quizId(result.getQuizId())
+                    .status("success")
+                    .result(result)
+                    .build();
         }
+        
+        return Arrays.asList(results);
     }
     
-    private String generateExplanation(QuizContent question, boolean isCorrect) {
-        if (isCorrect) {
-            return "Poprawna odpowiedź! " + question.getCorrectAnswer();
-        } else {
-            return "Niepoprawna odpowiedź. Prawidłowa odpowiedź to: " + question.getCorrectAnswer();
+    private void recordAttempt(QuizAnswerKey answerKey, QuizAnswerRequest request, QuizResultDTO result, Long userId) {
+        if (userId == null) {
+            return;
         }
+        QuizAttempt attempt = QuizAttempt.builder()
+                .userId(userId)
+                .quizId(answerKey.quizId())
+                .score(result.getScore())
+                .correctAnswers(result.getCorrectAnswers())
+                .totalQuestions(result.getTotalQuestions())
+                .timeSpent(request.getTimeSpent())
+                .createdAt(LocalDateTime.now())
+                .build();
+        quizAttemptRecorder.record(attempt);
+        result.setPointsAwarded(attempt.rankingPoints());
     }
         
     @Transactional(readOnly = true)
-    public List<QuizDTO> getQuizzesByCategory(String category) {
+    public List<QuizSummary> getQuizzesByCategory(String category) {
         log.debug("Pobieranie quizów dla kategorii: {}", category);
         
-        List<Quiz> quizzes = quizRepository.findByCategoryOrderByCreatedAtDesc(category);
-        return quizzes.stream()
-                .map(quizMapper::toDTO)
-                .collect(Collectors.toList());
+        return quizRepository.findSummariesByCategory(category);
     }
 } 
\ No newline at end of file
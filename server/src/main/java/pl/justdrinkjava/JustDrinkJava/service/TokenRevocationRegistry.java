@@ -0,0 +1,70 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ograniczony rejestr użytkowników, których wcześniej wydane tokeny przestały być ważne
+ * (zmiana profilu, usunięcie konta). Wpis jest potrzebny tylko do wygaśnięcia tokenów wydanych
+ * przed unieważnieniem, więc starsze wpisy są usuwane. Gdy rejestr jest pełny, a najstarszy wpis
+ * wciąż obowiązuje, jego granica staje się granicą dla wszystkich użytkowników - nadmiar wylogowuje
+ * więcej osób, ale nigdy nie przywraca ważności unieważnionego tokenu.
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry {
+
+    @Value("${app.jwt.revocation-cache-size:10000}")
+    private int capacity = 10000;
+
+    @Value("${app.jwt.expiration}")
+    private long tokenTtlMillis;
+
+    private final Map<Long, Instant> revokedBefore = new LinkedHashMap<>();
+    private Instant allRevokedBefore = Instant.MIN;
+
+    public synchronized void revokeTokensIssuedBefore(Long userId, Instant instant) {
+        // iat w tokenie ma precyzję sekund, więc token wydany w tej samej sekundzie pozostaje ważny
+        Instant cutoff = instant.truncatedTo(ChronoUnit.SECONDS);
+        revokedBefore.remove(userId);
+        revokedBefore.put(userId, cutoff);
+        evict(Instant.now());
+        log.debug("Unieważniono tokeny użytkownika {} wydane przed {}", userId, cutoff);
+    }
+
+    public synchronized boolean isRevoked(Long userId, Instant issuedAt) {
+        Instant cutoff = revokedBefore.get(userId);
+        if (cutoff == null && issuedAt != null && issuedAt.isBefore(allRevokedBefore)) {
+            return true;
+        }
+        return cutoff != null && (issuedAt == null || issuedAt.isBefore(cutoff));
+    }
+
+    private void evict(Instant now) {
+        Instant expiredBefore = now.minusMillis(tokenTtlMillis);
+        Iterator<Map.Entry<Long, Instant>> iterator = revokedBefore.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Instant> eldest = iterator.next();
+            if (eldest.getValue().isBefore(expiredBefore)) {
+                iterator.remove();
+            } else if (revokedBefore.size() > capacity) {
+                if (eldest.getValue().isAfter(allRevokedBefore)) {
+                    allRevokedBefore = eldest.getValue();
+                    log.warn("Rejestr unieważnień jest pełny, tokeny wydane przed {} są odrzucane dla wszystkich użytkowników",
+                            allRevokedBefore);
+                }
+                iterator.remove();
+            } else {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
+import pl.justdrinkjava.JustDrinkJava.event.UserRankingChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.repository.UserRankingRepository;
+
+/**
+ * Niezmienna migawka czołówki rankingu. Odczyt to jedno przeczytanie pola volatile, bez blokad.
+ * Migawka jest budowana od nowa tylko wtedy, gdy zmiana wyniku może wpłynąć na czołówkę:
+ * użytkownik już w niej jest albo jego nowy wynik osiąga próg ostatniego miejsca.
+ * Wpisy są trzymane jako niezmienne rekordy, a każdy odczyt dostaje własne kopie DTO.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TopRankingsSnapshot {
+    
+    private final UserRankingRepository userRankingRepository;
+    
+    @Value("${app.rankings.top-snapshot-size:100}")
+    private int capacity = 100;
+    
+    private volatile Snapshot snapshot;
+    
+    public List<UserRankingDto> getTop(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        if (limit > capacity) {
+            return userRankingRepository.findTopRankings(limit);
+        }
+        
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current.prefix(limit);
+    }
+    
+    public long getVersion() {
+        Snapshot current = snapshot;
+        return current != null ? current.version() : 0L;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRankingChanged(UserRankingChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null || !current.isAffectedBy(event)) {
+            return;
+        }
+        rebuild();
+        log.debug("Przebudowano czołówkę rankingu po zmianie użytkowników o ID: {} ({})", event.userIds(), event.type());
+    }
+    
+    synchronized Snapshot rebuild() {
+        List<UserRankingDto> top = userRankingRepository.findTopRankings(capacity);
+        List<Entry> entries = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            entries.add(Entry.of(top.get(i), i + 1));
+        }
+        
+        Snapshot previous = snapshot;
+        Snapshot rebuilt = new Snapshot(previous != null ? previous.version() + 1 : 1L, List.copyOf(entries), top.size() < capacity);
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+    
+    private record Snapshot(long version, List<Entry> entries, boolean complete, Set<Long> userIds) {
+        
+        Snapshot(long version, List<Entry> entries, boolean complete) {
+            this(version, entries, complete, entries.stream().map(Entry::userId).collect(Collectors.toUnmodifiableSet()));
+        }
+        
+        boolean isAffectedBy(UserRankingChangedEvent event) {
+            if (event.userIds().stream().anyMatch(userIds::contains)) {
+                return true;
+            }
+            if (event.type() != UserRankingChangedEvent.Type.SCORE_CHANGED) {
+                return false;
+            }
+            return complete || event.topScore() >= cutoffScore();
+        }
+        
+        int cutoffScore() {
+            return entries.get(entries.size() - 1).totalScore();
+        }
+        
+        List<UserRankingDto> prefix(int limit) {
+            return entries.stream().limit(limit).map(Entry::toDto).toList();
+        }
+    }
+    
+    private record Entry(Long userId, String username, String email, Integer totalScore, Integer ranking, LocalDateTime updatedAt) {
+        
+        static Entry of(UserRankingDto dto, int ranking) {
+            return new Entry(dto.getUserId(), dto.getUsername(), dto.getEmail(), dto.getTotalScore(), ranking, dto.getUpdatedAt());
+        }
+        
+        UserRankingDto toDto() {
+            return new UserRankingDto(userId, username, email, totalScore, ranking, updatedAt);
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package pl.justdrinkjava.JustDrinkJava.service;
 
-import pl.justdrinkjava.JustDrinkJava.dto.UpdateScoreRequest;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingPageResponse;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingWindow;
 import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
 
 import java.util.List;
+import java.util.Map;
 
 public interface UserRankingService {
     
-    UserRankingDto updateUserScore(UpdateScoreRequest request);
+    Map<Long, UserRankingDto> addScores(Map<Long, Integer> deltasByUserId);
     
     UserRankingDto getUserRanking(Long userId);
     
@@ -15,5 +17,13 @@ public interface UserRankingService {
     
     List<UserRankingDto> getTopRankings(int limit);
     
+    List<UserRankingDto> getWindowTopRankings(RankingWindow window, int limit);
+    
+    RankingPageResponse getRankingPage(String cursor, int limit);
+    
+    List<UserRankingDto> getRankingWindow(Long userId, int k);
+    
     void recalculateAllRankings();
+    
+    void removeUserRanking(Long userId);
 } 
\ No newline at end of file
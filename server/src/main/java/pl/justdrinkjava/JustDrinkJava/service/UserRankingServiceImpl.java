@@ -2,18 +2,33 @@ package pl.justdrinkjava.JustDrinkJava.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import pl.justdrinkjava.JustDrinkJava.dto.UpdateScoreRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingCursor;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingPageResponse;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingWindow;
 import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
 import pl.justdrinkjava.JustDrinkJava.entity.User;
 import pl.justdrinkjava.JustDrinkJava.entity.UserRanking;
+import pl.justdrinkjava.JustDrinkJava.event.UserRankingChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.event.UserScoreDeltaEvent;
 import pl.justdrinkjava.JustDrinkJava.repository.UserRankingRepository;
 import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,43 +37,87 @@ public class UserRankingServiceImpl implements UserRankingService {
     
     private final UserRankingRepository userRankingRepository;
     private final UserRepository userRepository;
+    private final LeaderboardIndex leaderboardIndex;
+    private final TopRankingsSnapshot topRankingsSnapshot;
+    private final WindowedLeaderboard windowedLeaderboard;
+    private final ApplicationEventPublisher eventPublisher;
     
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_WINDOW_NEIGHBOURS = 25;
+    
+    private final AtomicBoolean rankingsDirty = new AtomicBoolean();
+    
+    /**
+     * Każdy wiersz partii jest zmieniany osobnym, atomowym poleceniem UPDATE (z podbiciem wersji),
+     * więc równoległa zmiana wyniku jednego użytkownika nie kończy całej partii konfliktem wersji.
+     */
     @Override
     @Transactional
-    public UserRankingDto updateUserScore(UpdateScoreRequest request) {
-        log.info("Updating score for user ID: {} to: {}", request.getUserId(), request.getTotalScore());
-        
-        User user = userRepository.findById(request.getUserId())
-                .orElseThrow(() -> new RuntimeException("Użytkownik nie został znaleziony"));
-        
-        UserRanking userRanking = userRankingRepository.findByUserId(request.getUserId())
-                .orElse(UserRanking.builder()
-                        .userId(request.getUserId())
-                        .totalScore(0)
-                        .ranking(1)
-                        .build());
-        
-        int oldRanking = userRanking.getRanking();
-        int oldScore = userRanking.getTotalScore();
+    public Map<Long, UserRankingDto> addScores(Map<Long, Integer> deltasByUserId) {
+        if (deltasByUserId.isEmpty()) {
+            return Map.of();
+        }
         
-        userRanking.setTotalScore(request.getTotalScore());
-        userRanking.setUpdatedAt(LocalDateTime.now());
+        Map<Long, User> users = userRepository.findAllById(deltasByUserId.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Integer> previousScores = userRankingRepository.findByUserIdIn(users.keySet()).stream()
+                .collect(Collectors.toMap(UserRanking::getUserId, UserRanking::getTotalScore));
         
-        long betterScoreCount = userRankingRepository.countUsersWithScoreHigherThan(request.getTotalScore());
-        int newRanking = (int) betterScoreCount + 1;
-        userRanking.setRanking(newRanking);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        List<Long> changedIds = new ArrayList<>(users.size());
+        deltasByUserId.forEach((userId, value) -> {
+            if (!users.containsKey(userId)) {
+                return;
+            }
+            if (!previousScores.containsKey(userId)) {
+                createRankingIfAbsent(userId, now);
+            }
+            int previous = previousScores.getOrDefault(userId, 0);
+            int delta;
+            if (userRankingRepository.addToTotalScore(userId, value, now) > 0) {
+                delta = value;
+            } else {
+                userRankingRepository.setTotalScore(userId, 0, now);
+                delta = -previous;
+            }
+            if (delta != 0) {
+                deltas.put(userId, delta);
+            }
+            changedIds.add(userId);
+        });
         
-        UserRanking savedRanking = userRankingRepository.save(userRanking);
+        Map<Long, UserRanking> saved = userRankingRepository.findByUserIdIn(changedIds).stream()
+                .collect(Collectors.toMap(UserRanking::getUserId, Function.identity()));
+        List<UserRanking> changed = changedIds.stream().map(saved::get).filter(Objects::nonNull).toList();
         
-        if (shouldRecalculateRankings(oldScore, request.getTotalScore(), oldRanking, newRanking)) {
-            recalculateAllRankings();
-            log.info("Recalculated all rankings due to significant position change");
+        Map<Long, Integer> ranks = leaderboardIndex.isReady() ? leaderboardIndex.rankOf(changed) : Map.of();
+        Map<Long, Integer> applied = new LinkedHashMap<>();
+        for (UserRanking ranking : changed) {
+            ranking.setRanking(ranks.containsKey(ranking.getUserId())
+                    ? ranks.get(ranking.getUserId())
+                    : (int) userRankingRepository.countUsersWithScoreHigherThan(ranking.getTotalScore()) + 1);
+            applied.put(ranking.getUserId(), ranking.getTotalScore());
+            if (leaderboardIndex.isReady()) {
+                leaderboardIndex.updateAfterCommit(ranking);
+            }
+        }
+        if (!applied.isEmpty()) {
+            markRankingsDirty();
+            eventPublisher.publishEvent(UserRankingChangedEvent.scoresChanged(applied));
+        }
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(UserScoreDeltaEvent.of(deltas, now));
         }
         
-        log.info("Updated user {} ranking from position {} to {} (score: {} -> {})", 
-                request.getUserId(), oldRanking, newRanking, oldScore, request.getTotalScore());
+        log.info("Applied {} score updates in one batch ({} unknown users skipped)",
+                applied.size(), deltasByUserId.size() - applied.size());
         
-        return mapToDto(savedRanking, user);
+        Map<Long, UserRankingDto> result = new LinkedHashMap<>();
+        for (UserRanking ranking : changed) {
+            result.put(ranking.getUserId(), mapToDto(ranking, users.get(ranking.getUserId())));
+        }
+        return result;
     }
     
     @Override
@@ -68,6 +127,12 @@ public class UserRankingServiceImpl implements UserRankingService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Użytkownik nie został znaleziony"));
         
+        if (leaderboardIndex.isReady()) {
+            return leaderboardIndex.find(userId)
+                    .map(standing -> mapToDto(standing, user))
+                    .orElseThrow(() -> new RuntimeException("Ranking użytkownika nie został znaleziony"));
+        }
+        
         UserRanking ranking = userRankingRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Ranking użytkownika nie został znaleziony"));
         
@@ -78,6 +143,10 @@ public class UserRankingServiceImpl implements UserRankingService {
     public List<UserRankingDto> getAllRankings() {
         log.debug("Getting all user rankings");
         
+        if (leaderboardIndex.isReady()) {
+            return mapStandings(leaderboardIndex.range(0, leaderboardIndex.size()));
+        }
+        
         List<UserRanking> rankings = userRankingRepository.findAllOrderByTotalScoreDesc();
         
         return rankings.stream()
@@ -92,15 +161,61 @@ public class UserRankingServiceImpl implements UserRankingService {
     public List<UserRankingDto> getTopRankings(int limit) {
         log.debug("Getting top {} rankings", limit);
         
-        List<UserRanking> rankings = userRankingRepository.findTopRankings();
+        return topRankingsSnapshot.getTop(limit);
+    }
+    
+    @Override
+    public List<UserRankingDto> getWindowTopRankings(RankingWindow window, int limit) {
+        log.debug("Getting top {} rankings for window {}", limit, window);
         
-        return rankings.stream()
-                .limit(limit)
-                .map(ranking -> {
-                    User user = userRepository.findById(ranking.getUserId()).orElse(null);
-                    return mapToDto(ranking, user);
-                })
-                .toList();
+        if (window == RankingWindow.ALL) {
+            return topRankingsSnapshot.getTop(limit);
+        }
+        return windowedLeaderboard.getTop(window, limit);
+    }
+    
+    @Override
+    public RankingPageResponse getRankingPage(String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        RankingCursor after = cursor != null && !cursor.isBlank() ? RankingCursor.decode(cursor) : null;
+        log.debug("Getting ranking page of {} after cursor: {}", pageSize, after);
+        
+        List<UserRankingDto> rankings;
+        if (after == null) {
+            rankings = userRankingRepository.findTopRankings(pageSize + 1);
+        } else if (after.updatedAt() == null) {
+            rankings = userRankingRepository.findRankingPageAfterUndated(after.totalScore(), after.userId(), pageSize + 1);
+        } else {
+            rankings = userRankingRepository.findRankingPageAfter(after.totalScore(), after.updatedAt(), after.userId(), pageSize + 1);
+        }
+        
+        boolean hasMore = rankings.size() > pageSize;
+        List<UserRankingDto> page = hasMore ? rankings.subList(0, pageSize) : rankings;
+        if (leaderboardIndex.isReady()) {
+            page.forEach(ranking -> leaderboardIndex.find(ranking.getUserId())
+                    .ifPresent(standing -> ranking.setRanking(standing.rank())));
+        }
+        
+        return RankingPageResponse.of(page, hasMore ? RankingCursor.of(page.get(page.size() - 1)) : null);
+    }
+    
+    @Override
+    public List<UserRankingDto> getRankingWindow(Long userId, int k) {
+        int neighbours = Math.min(Math.max(k, 0), MAX_WINDOW_NEIGHBOURS);
+        log.debug("Getting ranking window of {} around user ID: {}", neighbours, userId);
+        
+        if (leaderboardIndex.isReady()) {
+            List<LeaderboardIndex.Standing> window = leaderboardIndex.around(userId, neighbours);
+            if (window.isEmpty()) {
+                throw new RuntimeException("Ranking użytkownika nie został znaleziony");
+            }
+            return mapStandings(window);
+        }
+        
+        UserRanking ranking = userRankingRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Ranking użytkownika nie został znaleziony"));
+        
+        return userRankingRepository.findByRankingBetween(Math.max(1, ranking.getRanking() - neighbours), ranking.getRanking() + neighbours);
     }
     
     @Override
@@ -108,26 +223,115 @@ public class UserRankingServiceImpl implements UserRankingService {
     public void recalculateAllRankings() {
         log.info("Recalculating all user rankings");
         
-        List<UserRanking> allRankings = userRankingRepository.findAllOrderByTotalScoreDesc();
-            
-        IntStream.range(0, allRankings.size())
-                .forEach(i -> {
-                    UserRanking ranking = allRankings.get(i);
-                    ranking.setRanking(i + 1);
-                    ranking.setUpdatedAt(LocalDateTime.now());
-                });
+        rankingsDirty.set(false);
+        int changed = recalculatePersistedRankings();
+        leaderboardIndex.rebuild();
         
-        userRankingRepository.saveAll(allRankings);
+        log.info("Recalculated rankings for {} users ({} positions changed)", leaderboardIndex.size(), changed);
+    }
+    
+    /**
+     * Wiersz znika w bieżącej transakcji, a drzewo jest zmieniane po jej zatwierdzeniu,
+     * żeby wycofane usunięcie konta nie zabrało użytkownikowi pozycji.
+     */
+    @Override
+    @Transactional
+    public void removeUserRanking(Long userId) {
+        if (userRankingRepository.deleteByUserId(userId) > 0) {
+            markRankingsDirty();
+        }
+        leaderboardIndex.removeAfterCommit(userId);
         
-        log.info("Recalculated rankings for {} users", allRankings.size());
+        log.info("Removed ranking of user ID: {}", userId);
     }
     
+    @Scheduled(fixedDelayString = "${app.rankings.refresh-interval-ms:60000}",
+               initialDelayString = "${app.rankings.refresh-interval-ms:60000}")
+    @Transactional
+    public void refreshPersistedRankings() {
+        if (!rankingsDirty.getAndSet(false)) {
+            return;
+        }
         
-    private boolean shouldRecalculateRankings(int oldScore, int newScore, int oldRanking, int newRanking) {
-        int rankingChange = Math.abs(newRanking - oldRanking);
-        int scoreChange = Math.abs(newScore - oldScore);
+        int changed = recalculatePersistedRankings();
         
-        return rankingChange > 1 || scoreChange > 50;
+        log.debug("Odświeżono zapisane pozycje w rankingu ({} zmienionych)", changed);
+    }
+    
+    /**
+     * Wiersz powstaje w osobnej transakcji, więc przegrany wyścig o unikalne user_id nie unieważnia
+     * bieżącej - wystarczy ponowić UPDATE na wierszu wstawionym przez równoległe żądanie.
+     */
+    private void createRankingIfAbsent(Long userId, LocalDateTime now) {
+        try {
+            userRankingRepository.insertEmptyRanking(userId, now);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Ranking użytkownika {} został utworzony równolegle", userId);
+        }
+    }
+    
+    /**
+     * Flaga zmian jest zdejmowana przed zapytaniem; gdy przeliczenie albo jego transakcja się nie powiedzie,
+     * wraca, żeby kolejne odświeżenie ponowiło próbę.
+     */
+    private int recalculatePersistedRankings() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        rankingsDirty.set(true);
+                    }
+                }
+            });
+        }
+        try {
+            return userRankingRepository.recalculateRankings();
+        } catch (RuntimeException e) {
+            rankingsDirty.set(true);
+            throw e;
+        }
+    }
+    
+    /**
+     * Zmiana jest widoczna dla przeliczenia dopiero po zatwierdzeniu, więc flaga jest ustawiana także
+     * po commicie - odświeżenie wykonane w międzyczasie nie zgubi tej zmiany.
+     */
+    private void markRankingsDirty() {
+        rankingsDirty.set(true);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rankingsDirty.set(true);
+                }
+            });
+        }
+    }
+    
+    private List<UserRankingDto> mapStandings(List<LeaderboardIndex.Standing> standings) {
+        if (standings.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, User> users = userRepository.findAllById(standings.stream().map(LeaderboardIndex.Standing::userId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        return standings.stream()
+                .map(standing -> mapToDto(standing, users.get(standing.userId())))
+                .toList();
+    }
+    
+    private UserRankingDto mapToDto(LeaderboardIndex.Standing standing, User user) {
+        return UserRankingDto.builder()
+                .userId(standing.userId())
+                .username(user != null ? user.getDisplayUsername() : null)
+                .email(user != null ? user.getEmail() : null)
+                .totalScore(standing.totalScore())
+                .ranking(standing.rank())
+                .updatedAt(standing.updatedAt())
+                .build();
     }
     
     private UserRankingDto mapToDto(UserRanking ranking, User user) {
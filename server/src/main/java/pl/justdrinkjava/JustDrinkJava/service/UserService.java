@@ -2,8 +2,7 @@ package pl.justdrinkjava.JustDrinkJava.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,8 +12,10 @@ import pl.justdrinkjava.JustDrinkJava.dto.UpdateProfileRequest;
 import pl.justdrinkjava.JustDrinkJava.dto.UpdateProfileResponse;
 import pl.justdrinkjava.JustDrinkJava.dto.UserDto;
 import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.event.UserRankingChangedEvent;
 import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
-import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
 
 @Service
 @RequiredArgsConstructor
@@ -25,17 +26,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final CurrentUserProvider currentUserProvider;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserRankingService userRankingService;
 
     public UserDto getCurrentUser() {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            log.info("Pobieranie danych dla użytkownika: {}", username);
-            
-            User user = userRepository.findByUsername(username)
-                    .or(() -> userRepository.findByEmail(username))
-                    .orElseThrow(() -> new RuntimeException("Użytkownik nie został znaleziony"));
-                    
+            User user = currentUserProvider.getCurrentUser();
             log.info("Znaleziono użytkownika: {} z ID: {}", user.getUsername(), user.getId());
             
             UserDto userDto = UserDto.builder()
@@ -55,13 +53,8 @@ public class UserService {
 
     public UpdateProfileResponse updateProfile(UpdateProfileRequest request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String currentUsername = authentication.getName();
-            log.info("Aktualizacja profilu dla: {}", currentUsername);
-            
-            User user = userRepository.findByUsername(currentUsername)
-                    .or(() -> userRepository.findByEmail(currentUsername))
-                    .orElseThrow(() -> new RuntimeException("Użytkownik nie został znaleziony"));
+            User user = currentUserProvider.getCurrentUser();
+            log.info("Aktualizacja profilu dla: {}", user.getDisplayUsername());
 
             boolean usernameChanged = !user.getDisplayUsername().equals(request.getUsername());
             log.info("Sprawdzanie zmiany nazwy: obecna='{}', nowa='{}', zmieniona={}", 
@@ -90,12 +83,9 @@ public class UserService {
                     .build();   
             String newToken = null;
             if (usernameChanged) {
-                UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                        .username(savedUser.getUsername())
-                        .password(savedUser.getPassword())
-                        .authorities("USER")
-                        .build();
-                newToken = jwtService.generateToken(userDetails);
+                tokenRevocationRegistry.revokeTokensIssuedBefore(savedUser.getId(), Instant.now());
+                newToken = jwtService.generateToken(savedUser);
+                eventPublisher.publishEvent(UserRankingChangedEvent.profileChanged(savedUser.getId()));
                 log.info("Wygenerowano nowy token dla użytkownika: {}", savedUser.getDisplayUsername());
             }
                 
@@ -109,13 +99,11 @@ public class UserService {
         }
     }
 
-    public void changePassword(ChangePasswordRequest request) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        
-        User user = userRepository.findByUsername(username)
-                .or(() -> userRepository.findByEmail(username))
-                .orElseThrow(() -> new RuntimeException("Użytkownik nie został znaleziony"));
+    /**
+     * Po zmianie hasła wcześniej wydane tokeny przestają być ważne; zwraca nowy token dla bieżącej sesji.
+     */
+    public String changePassword(ChangePasswordRequest request) {
+        User user = currentUserProvider.getCurrentUser();
 
         if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
             throw new RuntimeException("Niepoprawne aktualne hasło");
@@ -126,24 +114,24 @@ public class UserService {
         }
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        tokenRevocationRegistry.revokeTokensIssuedBefore(savedUser.getId(), Instant.now());
         
-        log.info("Zmieniono hasło dla użytkownika: {}", user.getDisplayUsername());
+        log.info("Zmieniono hasło dla użytkownika: {}", savedUser.getDisplayUsername());
+        return jwtService.generateToken(savedUser);
     }
 
     public void deleteAccount(DeleteAccountRequest request) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        
-        User user = userRepository.findByUsername(username)
-                .or(() -> userRepository.findByEmail(username))
-                .orElseThrow(() -> new RuntimeException("Użytkownik nie został znaleziony"));
+        User user = currentUserProvider.getCurrentUser();
 
         if (!"USUŃ KONTO".equals(request.getConfirmation())) {
             throw new RuntimeException("Niepoprawne potwierdzenie usunięcia konta");
         }
 
         userRepository.delete(user);
+        userRankingService.removeUserRanking(user.getId());
+        tokenRevocationRegistry.revokeTokensIssuedBefore(user.getId(), Instant.now());
+        eventPublisher.publishEvent(UserRankingChangedEvent.profileChanged(user.getId()));
         log.info("Usunięto konto użytkownika: {}", user.getDisplayUsername());
     }
 } 
\ No newline at end of file
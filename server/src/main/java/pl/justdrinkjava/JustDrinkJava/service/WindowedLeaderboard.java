@@ -0,0 +1,196 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingWindow;
+import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
+import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.entity.UserScoreBucket;
+import pl.justdrinkjava.JustDrinkJava.event.UserScoreDeltaEvent;
+import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
+import pl.justdrinkjava.JustDrinkJava.repository.UserScoreBucketRepository;
+
+/**
+ * Rankingi okresowe (doba, tydzień) liczone z kubełków punktów. Przyrosty trafiają najpierw do kubełków
+ * godzinowych w pamięci i są okresowo zapisywane; starsze godziny są scalane w kubełki dzienne, a dni
+ * spoza najdłuższego okna usuwane. Czołówka każdego okna jest przeliczana po zapisie i trzymana w pamięci.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WindowedLeaderboard {
+    
+    private static final int RETAINED_DAYS = 7;
+    
+    private final UserScoreBucketRepository userScoreBucketRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.rankings.top-snapshot-size:100}")
+    private int capacity = 100;
+    
+    private final ConcurrentMap<BucketKey, Integer> pending = new ConcurrentHashMap<>();
+    private volatile Map<RankingWindow, List<UserRankingDto>> tops;
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoreDelta(UserScoreDeltaEvent event) {
+        LocalDateTime hour = event.occurredAt().truncatedTo(ChronoUnit.HOURS);
+        event.deltas().forEach((userId, delta) -> {
+            if (delta != 0) {
+                pending.merge(new BucketKey(userId, hour), delta, Integer::sum);
+            }
+        });
+    }
+    
+    public List<UserRankingDto> getTop(RankingWindow window, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        if (limit > capacity) {
+            return computeTop(window, limit, LocalDateTime.now());
+        }
+        
+        Map<RankingWindow, List<UserRankingDto>> current = tops;
+        if (current == null) {
+            current = refresh();
+        }
+        List<UserRankingDto> top = current.getOrDefault(window, List.of());
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+    
+    /**
+     * Zapisuje zebrane przyrosty we własnej transakcji; gdy zapis się nie powiedzie, przyrosty wracają
+     * do kolejki i trafią do bazy przy następnym zapisie.
+     */
+    @Scheduled(fixedDelayString = "${app.rankings.window-flush-ms:5000}",
+               initialDelayString = "${app.rankings.window-flush-ms:5000}")
+    public void flush() {
+        Map<BucketKey, Integer> batch = new LinkedHashMap<>();
+        for (BucketKey key : new ArrayList<>(pending.keySet())) {
+            Integer points = pending.remove(key);
+            if (points != null && points != 0) {
+                batch.merge(key, points, Integer::sum);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach((key, points) ->
+                    addToBucket(key.userId(), UserScoreBucket.Granularity.HOUR, key.start(), points)));
+        } catch (RuntimeException e) {
+            batch.forEach((key, points) -> pending.merge(key, points, Integer::sum));
+            throw e;
+        }
+        
+        refresh();
+        log.debug("Zapisano {} kubełków godzinowych rankingu okresowego", batch.size());
+    }
+    
+    /**
+     * Scala kubełki godzinowe sprzed wczoraj w dzienne i usuwa dni starsze niż najdłuższe okno.
+     */
+    @Scheduled(cron = "${app.rankings.window-compaction-cron:0 5 * * * *}")
+    @Transactional
+    public void compact() {
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime hourlyCutoff = today.minusDays(1);
+        
+        Map<BucketKey, Integer> daily = new LinkedHashMap<>();
+        for (UserScoreBucket bucket : userScoreBucketRepository.findByGranularityAndBucketStartBefore(
+                UserScoreBucket.Granularity.HOUR, hourlyCutoff)) {
+            daily.merge(new BucketKey(bucket.getUserId(), bucket.getBucketStart().truncatedTo(ChronoUnit.DAYS)),
+                    bucket.getPoints(), Integer::sum);
+        }
+        daily.forEach((key, points) -> addToBucket(key.userId(), UserScoreBucket.Granularity.DAY, key.start(), points));
+        
+        int rolledUp = userScoreBucketRepository.deleteByGranularityAndBucketStartBefore(
+                UserScoreBucket.Granularity.HOUR, hourlyCutoff);
+        int expired = userScoreBucketRepository.deleteByGranularityAndBucketStartBefore(
+                UserScoreBucket.Granularity.DAY, today.minusDays(RETAINED_DAYS - 1));
+        
+        refresh();
+        log.info("Scalono {} kubełków godzinowych w {} dziennych, usunięto {} przeterminowanych",
+                rolledUp, daily.size(), expired);
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Nie udało się zapisać kubełków rankingu przy zamykaniu: {}", e.getMessage());
+        }
+    }
+    
+    synchronized Map<RankingWindow, List<UserRankingDto>> refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<RankingWindow, List<UserRankingDto>> rebuilt = new EnumMap<>(RankingWindow.class);
+        rebuilt.put(RankingWindow.DAY, computeTop(RankingWindow.DAY, capacity, now));
+        rebuilt.put(RankingWindow.WEEK, computeTop(RankingWindow.WEEK, capacity, now));
+        
+        Map<RankingWindow, List<UserRankingDto>> snapshot = Map.copyOf(rebuilt);
+        tops = snapshot;
+        return snapshot;
+    }
+    
+    private List<UserRankingDto> computeTop(RankingWindow window, int limit, LocalDateTime now) {
+        List<Object[]> rows = userScoreBucketRepository.sumPointsSince(window.startAt(now), limit);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, User> users = userRepository.findAllById(rows.stream().map(row -> (Long) row[0]).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        
+        List<UserRankingDto> top = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long userId = (Long) row[0];
+            User user = users.get(userId);
+            top.add(UserRankingDto.builder()
+                    .userId(userId)
+                    .username(user != null ? user.getDisplayUsername() : null)
+                    .email(user != null ? user.getEmail() : null)
+                    .totalScore(((Number) row[1]).intValue())
+                    .ranking(top.size() + 1)
+                    .build());
+        }
+        return List.copyOf(top);
+    }
+    
+    private void addToBucket(Long userId, UserScoreBucket.Granularity granularity, LocalDateTime bucketStart, int points) {
+        if (userScoreBucketRepository.addPoints(userId, granularity, bucketStart, points) == 0) {
+            userScoreBucketRepository.save(UserScoreBucket.builder()
+                    .userId(userId)
+                    .granularity(granularity)
+                    .bucketStart(bucketStart)
+                    .points(points)
+                    .build());
+        }
+    }
+    
+    private record BucketKey(Long userId, LocalDateTime start) {
+    }
+}
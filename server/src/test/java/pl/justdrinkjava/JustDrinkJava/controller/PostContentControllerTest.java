@@ -75,6 +75,32 @@ class PostContentControllerTest {
         verify(postContentService).getPostContentById(1);
     }
 
+    @Test
+    @DisplayName("should return post content with ETag")
+    void shouldReturnPostContentWithETag() throws Exception {
+        when(postContentService.getPostContentVersionByPostId(1)).thenReturn("post-content:post:1:v1");
+        when(postContentService.getPostContentByPostId(1)).thenReturn(postContentDTO);
+
+        mockMvc.perform(get("/post-content/post/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ConditionalResponses.eTagOf("post-content:post:1:v1")))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(jsonPath("$.content").value("Test content"));
+    }
+
+    @Test
+    @DisplayName("should return 304 without loading post content when ETag matches")
+    void shouldReturnNotModifiedWhenPostContentETagMatches() throws Exception {
+        when(postContentService.getPostContentVersion(1)).thenReturn("post-content:1:v1");
+
+        mockMvc.perform(get("/post-content/1")
+                .header("If-None-Match", ConditionalResponses.eTagOf("post-content:1:v1")))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(postContentService, never()).getPostContentById(any());
+    }
+
     @Test
     @DisplayName("should return 500 when post content not found by ID")
     void shouldReturn500WhenPostContentNotFoundById() throws Exception {
@@ -16,9 +16,11 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import pl.justdrinkjava.JustDrinkJava.config.JwtAuthenticationFilter;
 import pl.justdrinkjava.JustDrinkJava.config.SecurityConfig;
+import pl.justdrinkjava.JustDrinkJava.dto.PostCursor;
 import pl.justdrinkjava.JustDrinkJava.dto.PostDTO;
 import pl.justdrinkjava.JustDrinkJava.dto.SearchPostsRequest;
 import pl.justdrinkjava.JustDrinkJava.dto.SearchPostsResponse;
+import pl.justdrinkjava.JustDrinkJava.exception.InvalidCursorException;
 import pl.justdrinkjava.JustDrinkJava.service.JwtService;
 import pl.justdrinkjava.JustDrinkJava.service.PostService;
 
@@ -27,6 +29,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -129,6 +132,58 @@ class PostControllerTest {
         verify(postService).getLatestPosts(5);
     }
 
+    @Test
+    @DisplayName("should return next cursor header when page is full")
+    void shouldReturnNextCursorHeaderWhenPageIsFull() throws Exception {
+        when(postService.getLatestPosts(1)).thenReturn(List.of(postDTO));
+
+        mockMvc.perform(get("/posts")
+                .param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", PostCursor.of(testDateTime, 1).encode()));
+    }
+
+    @Test
+    @DisplayName("should not return next cursor header for last page")
+    void shouldNotReturnNextCursorHeaderForLastPage() throws Exception {
+        when(postService.getLatestPosts(9)).thenReturn(List.of(postDTO));
+
+        mockMvc.perform(get("/posts")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @DisplayName("should get latest posts after cursor")
+    void shouldGetLatestPostsAfterCursor() throws Exception {
+        String cursor = PostCursor.of(testDateTime, 5).encode();
+        when(postService.getLatestPostsAfter(cursor, 9)).thenReturn(List.of(postDTO));
+
+        mockMvc.perform(get("/posts")
+                .param("cursor", cursor)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        verify(postService).getLatestPostsAfter(cursor, 9);
+        verify(postService, never()).getLatestPosts(anyInt());
+    }
+
+    @Test
+    @DisplayName("should return bad request for invalid cursor")
+    void shouldReturnBadRequestForInvalidCursor() throws Exception {
+        when(postService.getLatestPostsAfter("broken", 9))
+                .thenThrow(new InvalidCursorException("broken", new IllegalArgumentException()));
+
+        mockMvc.perform(get("/posts")
+                .param("cursor", "broken")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_CURSOR"));
+    }
+
     @Test
     @DisplayName("should handle empty latest posts")
     void shouldHandleEmptyLatestPosts() throws Exception {
@@ -158,6 +213,34 @@ class PostControllerTest {
         verify(postService).getPostById(1);
     }
 
+    @Test
+    @DisplayName("should return post with ETag and vary by authorization")
+    void shouldReturnPostWithETag() throws Exception {
+        when(postService.getPostVersion(1)).thenReturn("post:1:v1");
+        when(postService.getPostById(1)).thenReturn(postDTO);
+
+        mockMvc.perform(get("/posts/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ConditionalResponses.eTagOf("post:1:v1")))
+                .andExpect(header().stringValues("Vary", hasItem("Authorization")))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    @DisplayName("should return 304 without loading post when ETag matches")
+    void shouldReturnNotModifiedWhenPostETagMatches() throws Exception {
+        when(postService.getPostVersion(1)).thenReturn("post:1:v1");
+
+        mockMvc.perform(get("/posts/1")
+                .header("If-None-Match", ConditionalResponses.eTagOf("post:1:v1")))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("ETag", ConditionalResponses.eTagOf("post:1:v1")))
+                .andExpect(content().string(""));
+
+        verify(postService, never()).getPostById(any());
+    }
+
     @Test
     @DisplayName("should handle post by ID not found")
     void shouldHandlePostByIdNotFound() throws Exception {
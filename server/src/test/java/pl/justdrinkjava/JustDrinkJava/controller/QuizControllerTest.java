@@ -17,6 +17,9 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import pl.justdrinkjava.JustDrinkJava.dto.*;
 import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
 import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.exception.GlobalExceptionHandler;
+import pl.justdrinkjava.JustDrinkJava.exception.ScoreIngestionRejectedException;
+import pl.justdrinkjava.JustDrinkJava.service.CurrentUserProvider;
 import pl.justdrinkjava.JustDrinkJava.service.QuizService;
 
 import java.time.LocalDateTime;
@@ -34,6 +37,9 @@ class QuizControllerTest {
     @Mock
     private QuizService quizService;
 
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+
     @InjectMocks
     private QuizController quizController;
 
@@ -41,6 +47,7 @@ class QuizControllerTest {
     private ObjectMapper objectMapper;
 
     private QuizDTO quizDTO;
+    private QuizSummary quizSummary;
     private QuizContentDTO quizContentDTO;
     private List<QuizContentDTO> quizContentList;
     private QuizAnswerRequest quizAnswerRequest;
@@ -49,7 +56,9 @@ class QuizControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(quizController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(quizController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
         objectMapper = new ObjectMapper();
         quizContentDTO = QuizContentDTO.builder()
                 .id(1L)
@@ -75,6 +84,9 @@ class QuizControllerTest {
                 .questions(quizContentList)
                 .build();
 
+        quizSummary = new QuizSummary(1L, "Java Basics", "Basic Java concepts", "Programming",
+                Quiz.Difficulty.MEDIUM, 15, LocalDateTime.now(), 1L);
+
         quizAnswerRequest = QuizAnswerRequest.builder()
                 .quizId(1L)
                 .answers(Map.of(1L, List.of("Language")))
@@ -107,7 +119,7 @@ class QuizControllerTest {
 
     @Test
     void getAllQuizzes_ShouldReturnPageOfQuizzes() throws Exception {
-        Page<QuizDTO> quizPage = new PageImpl<>(List.of(quizDTO), PageRequest.of(0, 10), 1);
+        Page<QuizSummary> quizPage = new PageImpl<>(List.of(quizSummary), PageRequest.of(0, 10), 1);
         when(quizService.getAllQuizzes(any())).thenReturn(quizPage);
 
         mockMvc.perform(get("/quizzes")
@@ -118,6 +130,8 @@ class QuizControllerTest {
                 .andExpect(jsonPath("$.data.content").isArray())
                 .andExpect(jsonPath("$.data.content[0].id").value(1))
                 .andExpect(jsonPath("$.data.content[0].title").value("Java Basics"))
+                .andExpect(jsonPath("$.data.content[0].questionCount").value(1))
+                .andExpect(jsonPath("$.data.content[0].questions").doesNotExist())
                 .andExpect(jsonPath("$.message").value("Quizy pobrane pomyślnie"));
 
         verify(quizService).getAllQuizzes(PageRequest.of(0, 10));
@@ -125,7 +139,7 @@ class QuizControllerTest {
 
     @Test
     void getAllQuizzes_WithDefaultParameters_ShouldUseDefaults() throws Exception {
-        Page<QuizDTO> quizPage = new PageImpl<>(List.of(quizDTO), PageRequest.of(0, 10), 1);
+        Page<QuizSummary> quizPage = new PageImpl<>(List.of(quizSummary), PageRequest.of(0, 10), 1);
         when(quizService.getAllQuizzes(any())).thenReturn(quizPage);
 
         mockMvc.perform(get("/quizzes"))
@@ -145,6 +159,56 @@ class QuizControllerTest {
                 .andExpect(jsonPath("$.message").value("Błąd podczas pobierania quizów: Database error"));
     }
 
+    @Test
+    void getAllQuizzes_WithCategoryAndDifficulty_ShouldUseFacetQuery() throws Exception {
+        QuizFacet facet = new QuizFacet("Programming", Quiz.Difficulty.MEDIUM);
+        when(quizService.getQuizzesByFacet(facet, PageRequest.of(0, 5)))
+                .thenReturn(new PageImpl<>(List.of(quizSummary), PageRequest.of(0, 5), 1));
+
+        mockMvc.perform(get("/quizzes")
+                .param("size", "5")
+                .param("category", "Programming")
+                .param("difficulty", "medium"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].difficulty").value("MEDIUM"))
+                .andExpect(jsonPath("$.data.totalElements").value(1));
+
+        verify(quizService, never()).getAllQuizzes(any());
+    }
+
+    @Test
+    void getAllQuizzes_WithIncompleteOrUnknownFilter_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/quizzes").param("category", "Programming"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_QUIZ_FILTER"));
+        mockMvc.perform(get("/quizzes").param("category", "Programming").param("difficulty", "extreme"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_QUIZ_FILTER"));
+
+        verifyNoInteractions(quizService);
+    }
+
+    @Test
+    void getQuizFacets_ShouldReturnCounts() throws Exception {
+        when(quizService.getFacets()).thenReturn(QuizFacetsDTO.builder()
+                .total(3L)
+                .categories(Map.of("Programming", 3L))
+                .difficulties(Map.of(Quiz.Difficulty.MEDIUM, 2L, Quiz.Difficulty.EASY, 1L))
+                .combinations(List.of(QuizFacetsDTO.FacetCountDTO.builder()
+                        .category("Programming").difficulty(Quiz.Difficulty.MEDIUM).count(2L).build()))
+                .build());
+
+        mockMvc.perform(get("/quizzes/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.data.total").value(3))
+                .andExpect(jsonPath("$.data.categories.Programming").value(3))
+                .andExpect(jsonPath("$.data.difficulties.MEDIUM").value(2))
+                .andExpect(jsonPath("$.data.combinations[0].count").value(2));
+
+        verify(quizService, never()).getQuizById(anyLong());
+    }
+
     @Test
     void getQuizById_ShouldReturnQuiz() throws Exception {
         when(quizService.getQuizById(1L)).thenReturn(quizDTO);
@@ -179,6 +243,49 @@ class QuizControllerTest {
         verify(quizService).getQuizById(1L);
     }
 
+    @Test
+    void getQuizById_ShouldReturnETag() throws Exception {
+        when(quizService.getQuizVersion(1L)).thenReturn("1:v1:v2:5");
+        when(quizService.getQuizById(1L)).thenReturn(quizDTO);
+
+        mockMvc.perform(get("/quizzes/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ConditionalResponses.eTagOf("quiz:1:v1:v2:5")))
+                .andExpect(jsonPath("$.data.id").value(1));
+    }
+
+    @Test
+    void getQuizById_WhenETagMatches_ShouldReturnNotModified() throws Exception {
+        when(quizService.getQuizVersion(1L)).thenReturn("1:v1:v2:5");
+
+        mockMvc.perform(get("/quizzes/1")
+                        .header("If-None-Match", ConditionalResponses.eTagOf("quiz:1:v1:v2:5")))
+                .andExpect(status().isNotModified());
+
+        verify(quizService, never()).getQuizById(any());
+    }
+
+    @Test
+    void getQuizQuestions_ShouldNotMatchQuizETag() throws Exception {
+        when(quizService.getQuizVersion(1L)).thenReturn("1:v1:v2:5");
+        when(quizService.getQuizQuestionsForSolving(1L)).thenReturn(List.of());
+
+        mockMvc.perform(get("/quizzes/1/questions")
+                        .header("If-None-Match", ConditionalResponses.eTagOf("quiz:1:v1:v2:5")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ConditionalResponses.eTagOf("questions:1:v1:v2:5")));
+    }
+
+    @Test
+    void getQuizById_WhenVersionNotFound_ShouldReturnNotFound() throws Exception {
+        when(quizService.getQuizVersion(1L)).thenThrow(new RuntimeException("Quiz nie został znaleziony: 1"));
+
+        mockMvc.perform(get("/quizzes/1"))
+                .andExpect(status().isNotFound());
+
+        verify(quizService, never()).getQuizById(any());
+    }
+
     @Test
     void getQuizQuestions_ShouldReturnQuestions() throws Exception {
         List<QuizContentDTO> questionsWithoutAnswers = List.of(
@@ -230,7 +337,8 @@ class QuizControllerTest {
     @Test
     @WithMockUser
     void checkAnswers_WithAuthenticatedUser_ShouldReturnResult() throws Exception {
-        when(quizService.checkAnswers(any(QuizAnswerRequest.class), any(User.class))).thenReturn(quizResultDTO);
+        when(currentUserProvider.getCurrentUserIdOrNull()).thenReturn(mockUser.getId());
+        when(quizService.checkAnswers(any(QuizAnswerRequest.class), eq(mockUser.getId()))).thenReturn(quizResultDTO);
 
         mockMvc.perform(post("/quizzes/check-answers")
                 .with(user(mockUser))
@@ -244,12 +352,13 @@ class QuizControllerTest {
                 .andExpect(jsonPath("$.data.correctAnswers").value(1))
                 .andExpect(jsonPath("$.message").value("Odpowiedzi sprawdzone pomyślnie"));
 
-        verify(quizService).checkAnswers(any(QuizAnswerRequest.class), any(User.class));
+        verify(quizService).checkAnswers(any(QuizAnswerRequest.class), eq(mockUser.getId()));
     }
 
     @Test
     void checkAnswers_WithAnonymousUser_ShouldReturnResult() throws Exception {
-        when(quizService.checkAnswers(any(QuizAnswerRequest.class), any(User.class))).thenReturn(quizResultDTO);
+        when(currentUserProvider.getCurrentUserIdOrNull()).thenReturn(null);
+        when(quizService.checkAnswers(any(QuizAnswerRequest.class), isNull())).thenReturn(quizResultDTO);
 
         mockMvc.perform(post("/quizzes/check-answers")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -258,7 +367,7 @@ class QuizControllerTest {
                 .andExpect(jsonPath("$.status").value("success"))
                 .andExpect(jsonPath("$.data.score").value(100));
 
-        verify(quizService).checkAnswers(any(QuizAnswerRequest.class), any(User.class));
+        verify(quizService).checkAnswers(any(QuizAnswerRequest.class), isNull());
     }
 
     @Test
@@ -273,6 +382,19 @@ class QuizControllerTest {
                 .andExpect(jsonPath("$.message").value("Błąd podczas sprawdzania odpowiedzi: Invalid answers"));
     }
 
+    @Test
+    void checkAnswers_WhenScoreQueueIsFull_ShouldReturnServiceUnavailable() throws Exception {
+        when(quizService.checkAnswers(any(QuizAnswerRequest.class), any()))
+                .thenThrow(new ScoreIngestionRejectedException(10000));
+
+        mockMvc.perform(post("/quizzes/check-answers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(quizAnswerRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.errors").value("SCORE_QUEUE_FULL"));
+    }
+
     @Test
     void checkAnswers_WhenServiceThrowsException_ShouldReturnBadRequest() throws Exception {
         when(quizService.checkAnswers(any(QuizAnswerRequest.class), any())).thenThrow(new RuntimeException("Database error"));
@@ -285,10 +407,42 @@ class QuizControllerTest {
                 .andExpect(jsonPath("$.message").value("Błąd podczas sprawdzania odpowiedzi: Database error"));
     }
 
+    @Test
+    void checkAnswersBatch_ShouldReturnResultsPerSubmission() throws Exception {
+        QuizBatchAnswerRequest batchRequest = QuizBatchAnswerRequest.builder()
+                .submissions(List.of(quizAnswerRequest, QuizAnswerRequest.builder().quizId(99L).build()))
+                .build();
+        when(quizService.checkAnswersBatch(anyList())).thenReturn(List.of(
+                QuizBatchResultDTO.builder().index(0).quizId(1L).status("success").result(quizResultDTO).build(),
+                QuizBatchResultDTO.builder().index(1).quizId(99L).status("error")
+                        .message("Quiz nie został znaleziony: 99").build()));
+
+        mockMvc.perform(post("/quizzes/check-answers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.data[0].result.score").value(100))
+                .andExpect(jsonPath("$.data[1].status").value("error"))
+                .andExpect(jsonPath("$.data[1].message").value("Quiz nie został znaleziony: 99"));
+
+        verify(quizService).checkAnswersBatch(argThat(submissions -> submissions.size() == 2));
+        verifyNoInteractions(currentUserProvider);
+    }
+
+    @Test
+    void checkAnswersBatch_WithoutSubmissions_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/quizzes/check-answers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"submissions\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(quizService);
+    }
+
     @Test
     void getQuizzesByCategory_ShouldReturnQuizzes() throws Exception {
-        List<QuizDTO> quizzes = List.of(quizDTO);
-        when(quizService.getQuizzesByCategory("Programming")).thenReturn(quizzes);
+        when(quizService.getQuizzesByCategory("Programming")).thenReturn(List.of(quizSummary));
 
         mockMvc.perform(get("/quizzes/category/Programming"))
                 .andExpect(status().isOk())
@@ -296,6 +450,7 @@ class QuizControllerTest {
                 .andExpect(jsonPath("$.data").isArray())
                 .andExpect(jsonPath("$.data[0].id").value(1))
                 .andExpect(jsonPath("$.data[0].category").value("Programming"))
+                .andExpect(jsonPath("$.data[0].questionCount").value(1))
                 .andExpect(jsonPath("$.message").value("Quizy dla kategorii pobrane pomyślnie"));
 
         verify(quizService).getQuizzesByCategory("Programming");
@@ -313,7 +468,7 @@ class QuizControllerTest {
 
     @Test
     void getQuizzesByCategory_WithEmptyCategory_ShouldReturnEmptyList() throws Exception {
-        List<QuizDTO> emptyList = Collections.emptyList();
+        List<QuizSummary> emptyList = Collections.emptyList();
         when(quizService.getQuizzesByCategory("NonExistent")).thenReturn(emptyList);
 
         mockMvc.perform(get("/quizzes/category/NonExistent"))
@@ -155,7 +155,7 @@ class UserControllerTest {
     @Test
     @DisplayName("should change password successfully")
     void shouldChangePasswordSuccessfully() throws Exception {
-        doNothing().when(userService).changePassword(any(ChangePasswordRequest.class));
+        when(userService.changePassword(any(ChangePasswordRequest.class))).thenReturn("newToken");
 
         mockMvc.perform(put("/user/password")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -163,7 +163,8 @@ class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.status").value("success"))
-                .andExpect(jsonPath("$.message").value("Hasło zostało zmienione pomyślnie"));
+                .andExpect(jsonPath("$.message").value("Hasło zostało zmienione pomyślnie"))
+                .andExpect(jsonPath("$.data").value("newToken"));
 
         verify(userService).changePassword(any(ChangePasswordRequest.class));
     }
@@ -6,10 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
-import pl.justdrinkjava.JustDrinkJava.dto.UpdateScoreRequest;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingCursor;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingPageResponse;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingWindow;
 import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
+import pl.justdrinkjava.JustDrinkJava.entity.UserRanking;
 import pl.justdrinkjava.JustDrinkJava.service.UserRankingService;
 
 import java.time.LocalDateTime;
@@ -43,11 +47,13 @@ class UserRankingControllerTest {
     @MockitoBean
     private org.springframework.security.core.userdetails.UserDetailsService userDetailsService;
 
+    @MockitoBean
+    private pl.justdrinkjava.JustDrinkJava.service.TokenRevocationRegistry tokenRevocationRegistry;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     private UserRankingDto testRankingDto;
-    private UpdateScoreRequest updateScoreRequest;
 
     @BeforeEach
     void setUp() {
@@ -59,95 +65,34 @@ class UserRankingControllerTest {
                 .ranking(3)
                 .updatedAt(LocalDateTime.now())
                 .build();
-
-        updateScoreRequest = new UpdateScoreRequest(1L, 750);
     }
 
     @Test
-    void updateUserScore_ShouldReturnUpdatedRanking() throws Exception {
-        when(userRankingService.updateUserScore(any(UpdateScoreRequest.class)))
-                .thenReturn(testRankingDto);
+    void getRankingPage_ShouldReturnPageWithNextCursor() throws Exception {
+        when(userRankingService.getRankingPage(null, 50))
+                .thenReturn(RankingPageResponse.of(List.of(testRankingDto), RankingCursor.of(testRankingDto)));
 
-        mockMvc.perform(put("/rankings/score")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(updateScoreRequest)))
+        mockMvc.perform(get("/rankings"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.userId").value(1L))
-                .andExpect(jsonPath("$.username").value("testuser"))
-                .andExpect(jsonPath("$.email").value("test@example.com"))
-                .andExpect(jsonPath("$.totalScore").value(750))
-                .andExpect(jsonPath("$.ranking").value(3));
-
-        verify(userRankingService).updateUserScore(any(UpdateScoreRequest.class));
-    }
-
-    @Test
-    void updateUserScore_WithInvalidRequest_ShouldReturnBadRequest() throws Exception {
-        UpdateScoreRequest invalidRequest = new UpdateScoreRequest(null, -100);
-
-        mockMvc.perform(put("/rankings/score")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(invalidRequest)))
-                .andExpect(status().isBadRequest());
-
-        verify(userRankingService, never()).updateUserScore(any());
-    }
-
-    @Test
-    void updateUserScore_WithMissingUserId_ShouldReturnBadRequest() throws Exception {
-        UpdateScoreRequest invalidRequest = new UpdateScoreRequest(null, 750);
+                .andExpect(jsonPath("$.rankings", hasSize(1)))
+                .andExpect(jsonPath("$.rankings[0].userId").value(1L))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
 
-        mockMvc.perform(put("/rankings/score")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(invalidRequest)))
-                .andExpect(status().isBadRequest());
-
-        verify(userRankingService, never()).updateUserScore(any());
-    }
-
-    @Test
-    void updateUserScore_WithNegativeScore_ShouldReturnBadRequest() throws Exception {
-        UpdateScoreRequest invalidRequest = new UpdateScoreRequest(1L, -50);
-
-        mockMvc.perform(put("/rankings/score")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(invalidRequest)))
-                .andExpect(status().isBadRequest());
-
-        verify(userRankingService, never()).updateUserScore(any());
-    }
-
-    @Test
-    void updateUserScore_WhenServiceThrowsException_ShouldReturnInternalServerError() throws Exception {
-        when(userRankingService.updateUserScore(any(UpdateScoreRequest.class)))
-                .thenThrow(new RuntimeException("Database error"));
-
-        mockMvc.perform(put("/rankings/score")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(updateScoreRequest)))
-                .andExpect(status().isInternalServerError());
-
-        verify(userRankingService).updateUserScore(any(UpdateScoreRequest.class));
+        verify(userRankingService).getRankingPage(null, 50);
     }
 
     @Test
-    void updateUserScore_WithMissingContentType_ShouldReturnUnsupportedMediaType() throws Exception {
-        mockMvc.perform(put("/rankings/score")
-                        .content(objectMapper.writeValueAsString(updateScoreRequest)))
-                .andExpect(status().isInternalServerError()); // Spring zwraca 500 dla brakującego content type
+    void getRankingPage_WithCursorAndLimit_ShouldPassThemToService() throws Exception {
+        when(userRankingService.getRankingPage("abc", 20))
+                .thenReturn(RankingPageResponse.of(Collections.emptyList(), null));
 
-        verify(userRankingService, never()).updateUserScore(any());
-    }
-
-    @Test
-    void updateUserScore_WithEmptyBody_ShouldReturnBadRequest() throws Exception {
-        mockMvc.perform(put("/rankings/score")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(""))
-                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rankings").param("cursor", "abc").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rankings", hasSize(0)))
+                .andExpect(jsonPath("$.hasMore").value(false));
 
-        verify(userRankingService, never()).updateUserScore(any());
+        verify(userRankingService).getRankingPage("abc", 20);
     }
 
     @Test
@@ -354,43 +299,34 @@ class UserRankingControllerTest {
     }
 
     @Test
-    void recalculateRankings_WithInvalidMethod_ShouldReturnMethodNotAllowed() throws Exception {
-        mockMvc.perform(get("/rankings/recalculate"))
-                .andExpect(status().isInternalServerError()); // Spring zwraca 500 dla błędnego HTTP method
+    void recalculateRankings_WhenConcurrentlyModified_ShouldReturnConflict() throws Exception {
+        doThrow(new ObjectOptimisticLockingFailureException(UserRanking.class, 1L))
+                .when(userRankingService).recalculateAllRankings();
 
-        verify(userRankingService, never()).recalculateAllRankings();
+        mockMvc.perform(post("/rankings/recalculate"))
+                .andExpect(status().isConflict());
     }
 
     @Test
-    void updateUserScore_WithValidationErrors_ShouldReturnDetailedErrors() throws Exception {
-        UpdateScoreRequest invalidRequest = new UpdateScoreRequest(null, null);
-
-        mockMvc.perform(put("/rankings/score")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(invalidRequest)))
-                .andExpect(status().isBadRequest());
+    void recalculateRankings_WithInvalidMethod_ShouldReturnMethodNotAllowed() throws Exception {
+        mockMvc.perform(get("/rankings/recalculate"))
+                .andExpect(status().isInternalServerError()); // Spring zwraca 500 dla błędnego HTTP method
 
-        verify(userRankingService, never()).updateUserScore(any());
+        verify(userRankingService, never()).recalculateAllRankings();
     }
 
     @Test
-    void updateUserScore_WithMalformedJson_ShouldReturnBadRequest() throws Exception {
+    void scoreWriteEndpoints_ShouldNotBeExposed() throws Exception {
         mockMvc.perform(put("/rankings/score")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content("{invalid json}"))
-                .andExpect(status().isBadRequest());
+                        .content("{\"userId\":1,\"totalScore\":750}"))
+                .andExpect(status().isNotFound());
 
-        verify(userRankingService, never()).updateUserScore(any());
+        verifyNoInteractions(userRankingService);
     }
 
     @Test
     void getAllEndpoints_ShouldAcceptCorrectHttpMethods() throws Exception {
-        // Test that PUT is accepted for /rankings/score
-        mockMvc.perform(post("/rankings/score")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(updateScoreRequest)))
-                .andExpect(status().isInternalServerError()); // Spring zwraca 500 dla błędnego HTTP method
-
         // Test that POST is accepted for /rankings/recalculate
         mockMvc.perform(put("/rankings/recalculate"))
                 .andExpect(status().isInternalServerError()); // Spring zwraca 500 dla błędnego HTTP method
@@ -400,31 +336,51 @@ class UserRankingControllerTest {
         mockMvc.perform(post("/rankings/user/1"))
                 .andExpect(status().isInternalServerError()); // Spring zwraca 500 dla błędnego HTTP method
 
-        verify(userRankingService, never()).updateUserScore(any());
         verify(userRankingService, never()).recalculateAllRankings();
         verify(userRankingService, never()).getUserRanking(anyLong());
     }
 
     @Test
-    void updateUserScore_WithExtremelyLargeScore_ShouldAcceptValue() throws Exception {
-        UpdateScoreRequest largeScoreRequest = new UpdateScoreRequest(1L, Integer.MAX_VALUE);
-        
-        UserRankingDto largeScoreDto = UserRankingDto.builder()
-                .userId(1L)
-                .username("testuser")
-                .totalScore(Integer.MAX_VALUE)
-                .ranking(1)
-                .build();
+    void getTopRankings_WithWeekWindow_ShouldUseWindowedRanking() throws Exception {
+        when(userRankingService.getWindowTopRankings(RankingWindow.WEEK, 5)).thenReturn(List.of(testRankingDto));
 
-        when(userRankingService.updateUserScore(any(UpdateScoreRequest.class)))
-                .thenReturn(largeScoreDto);
+        mockMvc.perform(get("/rankings/top").param("limit", "5").param("window", "week"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].userId").value(1L));
 
-        mockMvc.perform(put("/rankings/score")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(largeScoreRequest)))
+        verify(userRankingService).getWindowTopRankings(RankingWindow.WEEK, 5);
+        verify(userRankingService, never()).getTopRankings(anyInt());
+    }
+
+    @Test
+    void getTopRankings_WithUnknownWindow_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/rankings/top").param("window", "century"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_RANKING_WINDOW"));
+
+        verifyNoInteractions(userRankingService);
+    }
+
+    @Test
+    void getRankingWindow_ShouldReturnNeighbours() throws Exception {
+        when(userRankingService.getRankingWindow(1L, 2)).thenReturn(List.of(testRankingDto));
+
+        mockMvc.perform(get("/rankings/user/1/window").param("k", "2"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.totalScore").value(Integer.MAX_VALUE));
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].userId").value(1L));
+
+        verify(userRankingService).getRankingWindow(1L, 2);
+    }
+
+    @Test
+    void getRankingWindow_WithoutK_ShouldUseDefault() throws Exception {
+        when(userRankingService.getRankingWindow(1L, 5)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/rankings/user/1/window"))
+                .andExpect(status().isOk());
 
-        verify(userRankingService).updateUserScore(any(UpdateScoreRequest.class));
+        verify(userRankingService).getRankingWindow(1L, 5);
     }
-} 
\ No newline at end of file
+}
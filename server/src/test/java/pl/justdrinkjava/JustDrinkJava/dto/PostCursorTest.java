@@ -0,0 +1,48 @@
+package pl.justdrinkjava.JustDrinkJava.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import pl.justdrinkjava.JustDrinkJava.exception.InvalidCursorException;
+
+@DisplayName("PostCursor Tests")
+class PostCursorTest {
+
+    @Test
+    @DisplayName("should round trip cursor without score")
+    void shouldRoundTripCursorWithoutScore() {
+        PostCursor cursor = PostCursor.of(LocalDateTime.of(2024, 1, 1, 12, 30, 15, 123000000), 42);
+
+        PostCursor decoded = PostCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertNull(decoded.score());
+    }
+
+    @Test
+    @DisplayName("should round trip cursor with score")
+    void shouldRoundTripCursorWithScore() {
+        PostCursor cursor = new PostCursor(7.5f, LocalDateTime.of(2024, 1, 1, 12, 0), 3);
+
+        assertEquals(cursor, PostCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    @DisplayName("should produce url safe opaque value")
+    void shouldProduceUrlSafeValue() {
+        String encoded = PostCursor.of(LocalDateTime.of(2024, 1, 1, 12, 0), 1).encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    @DisplayName("should reject malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> PostCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> PostCursor.decode("Zm9vfGJhcg"));
+    }
+}
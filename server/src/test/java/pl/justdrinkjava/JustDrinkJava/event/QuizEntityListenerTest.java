@@ -0,0 +1,50 @@
+package pl.justdrinkjava.JustDrinkJava.event;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizContent;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuizEntityListener Tests")
+class QuizEntityListenerTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private QuizEntityListener quizEntityListener;
+
+    @Test
+    @DisplayName("should publish quiz events for saved and removed quizzes")
+    void shouldPublishEventsForQuizzes() {
+        Quiz quiz = new Quiz();
+        quiz.setId(1L);
+
+        quizEntityListener.onSaved(quiz);
+        quizEntityListener.onRemoved(quiz);
+
+        verify(eventPublisher).publishEvent(QuizChangedEvent.saved(1L));
+        verify(eventPublisher).publishEvent(QuizChangedEvent.deleted(1L));
+    }
+
+    @Test
+    @DisplayName("should mark the owning quiz as changed when a question is edited or removed")
+    void shouldPublishQuizEventForQuestionChanges() {
+        QuizContent question = QuizContent.builder().id(10L).quizId(2L).build();
+
+        quizEntityListener.onSaved(question);
+        quizEntityListener.onRemoved(question);
+
+        verify(eventPublisher, times(2)).publishEvent(QuizChangedEvent.saved(2L));
+        verify(eventPublisher, never()).publishEvent(QuizChangedEvent.deleted(2L));
+    }
+}
@@ -331,4 +331,34 @@ class QuizContentMapperTest {
 
         assertThat(result.getCorrectAnswer()).isEqualTo(longAnswer);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void toDTO_WithSameQuestionVersion_ShouldReuseParsedOptions() {
+        QuizContent reloaded = QuizContent.builder()
+                .id(1L)
+                .quizId(1L)
+                .question("What is Java?")
+                .options("[\"Language\",\"Framework\",\"Database\",\"OS\"]")
+                .correctAnswer("Language")
+                .updatedAt(testDateTime)
+                .build();
+
+        List<String> first = quizContentMapper.toDTO(quizContent).getOptions();
+        List<String> second = quizContentMapper.toDTO(reloaded).getOptions();
+
+        assertThat(second).isSameAs(first);
+        assertThatThrownBy(() -> second.add("Other")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void toDTO_WithUpdatedQuestion_ShouldParseOptionsAgain() {
+        List<String> before = quizContentMapper.toDTO(quizContent).getOptions();
+
+        quizContent.setOptions("[\"Language\",\"Platform\"]");
+        quizContent.setUpdatedAt(testDateTime.plusMinutes(5));
+        List<String> after = quizContentMapper.toDTO(quizContent).getOptions();
+
+        assertThat(before).hasSize(4);
+        assertThat(after).containsExactly("Language", "Platform");
+    }
+}
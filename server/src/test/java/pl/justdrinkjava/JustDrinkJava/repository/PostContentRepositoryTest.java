@@ -74,6 +74,20 @@ class PostContentRepositoryTest {
         assertEquals(1, result.get().getCategoryId());
     }
 
+    @Test
+    @DisplayName("should find post content update timestamp by id and post ID")
+    void shouldFindUpdatedAtByIdAndPostId() {
+        entityManager.persist(postContent1);
+        entityManager.flush();
+
+        Optional<LocalDateTime> byId = postContentRepository.findUpdatedAtById(postContent1.getId());
+        Optional<LocalDateTime> byPostId = postContentRepository.findUpdatedAtByPostId(1);
+
+        assertTrue(byId.isPresent());
+        assertEquals(byId, byPostId);
+        assertFalse(postContentRepository.findUpdatedAtByPostId(999).isPresent());
+    }
+
     @Test
     @DisplayName("should return empty when post content not found by post ID")
     void shouldReturnEmptyWhenPostContentNotFoundByPostId() {
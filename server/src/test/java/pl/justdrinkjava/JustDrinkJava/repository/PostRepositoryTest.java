@@ -19,6 +19,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityManager;
+import pl.justdrinkjava.JustDrinkJava.dto.PostVersion;
 import pl.justdrinkjava.JustDrinkJava.entity.Category;
 import pl.justdrinkjava.JustDrinkJava.entity.Post;
 import pl.justdrinkjava.JustDrinkJava.entity.User;
@@ -187,6 +188,42 @@ class PostRepositoryTest {
         }
     }
 
+    @Test
+    @DisplayName("should project post version without loading associations")
+    void shouldFindVersionById() {
+        Optional<PostVersion> version = postRepository.findVersionById(post1.getId());
+
+        assertTrue(version.isPresent());
+        assertEquals(post1.getId(), version.get().id());
+        assertNotNull(version.get().updatedAt());
+        assertEquals(post1.getLikesCount(), version.get().likesCount());
+        assertFalse(postRepository.findVersionById(-1).isPresent());
+    }
+
+    @Test
+    @DisplayName("should continue latest posts after keyset cursor")
+    void shouldFindLatestPostsAfterCursor() {
+        List<Post> all = postRepository.findLatestPosts(10);
+        Post first = all.get(0);
+
+        List<Post> result = postRepository.findLatestPostsAfter(first.getCreatedAt(), first.getId(), 10);
+
+        assertEquals(all.subList(1, all.size()).stream().map(Post::getId).toList(),
+                     result.stream().map(Post::getId).toList());
+    }
+
+    @Test
+    @DisplayName("should search posts after keyset cursor")
+    void shouldSearchPostsAfterCursor() {
+        List<Post> all = postRepository.searchPosts("java", PageRequest.of(0, 10));
+        Post first = all.get(0);
+
+        List<Post> result = postRepository.searchPostsAfter("java", first.getCreatedAt(), first.getId(), PageRequest.of(0, 10));
+
+        assertEquals(all.size() - 1, result.size());
+        assertEquals(all.get(1).getId(), result.get(0).getId());
+    }
+
     @Test
     @DisplayName("should return empty list when limit is zero")
     void shouldReturnEmptyListWhenLimitIsZero() {
@@ -0,0 +1,44 @@
+package pl.justdrinkjava.JustDrinkJava.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizAttempt;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+class QuizAttemptRepositoryTest {
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Test
+    void saveAll_ShouldAssignIdsFromSequence() {
+        List<QuizAttempt> saved = quizAttemptRepository.saveAll(List.of(
+                attempt(1L, 10L, 50), attempt(1L, 11L, 70), attempt(2L, 10L, 30)));
+        quizAttemptRepository.flush();
+
+        assertThat(saved).extracting(QuizAttempt::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(quizAttemptRepository.count()).isEqualTo(3);
+    }
+
+    private QuizAttempt attempt(Long userId, Long quizId, int score) {
+        return QuizAttempt.builder()
+                .userId(userId)
+                .quizId(quizId)
+                .score(score)
+                .correctAnswers(score / 10)
+                .totalQuestions(10)
+                .timeSpent(120)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 12, 0))
+                .build();
+    }
+}
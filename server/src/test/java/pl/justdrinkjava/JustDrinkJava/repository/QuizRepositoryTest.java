@@ -8,11 +8,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityManager;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizFacet;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizSummary;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizVersion;
 import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizContent;
 
 @SpringBootTest
 @Transactional
@@ -74,6 +80,114 @@ class QuizRepositoryTest {
                 .containsExactlyInAnyOrder("Java Basics", "Spring Framework");
     }
 
+    @Test
+    void findVersionById_ShouldAggregateQuestionsWithoutLoadingThem() {
+        entityManager.persist(QuizContent.builder()
+                .quizId(quiz1.getId())
+                .question("Q1")
+                .options("[\"A\",\"B\"]")
+                .correctAnswer("A")
+                .build());
+        entityManager.persist(QuizContent.builder()
+                .quizId(quiz1.getId())
+                .question("Q2")
+                .options("[\"A\",\"B\"]")
+                .correctAnswer("B")
+                .build());
+        entityManager.flush();
+
+        Optional<QuizVersion> withQuestions = quizRepository.findVersionById(quiz1.getId());
+        Optional<QuizVersion> withoutQuestions = quizRepository.findVersionById(quiz2.getId());
+
+        assertThat(withQuestions).isPresent();
+        assertThat(withQuestions.get().updatedAt()).isNotNull();
+        assertThat(withQuestions.get().questionsUpdatedAt()).isNotNull();
+        assertThat(withQuestions.get().questionCount()).isEqualTo(2L);
+        assertThat(withoutQuestions).isPresent();
+        assertThat(withoutQuestions.get().questionsUpdatedAt()).isNull();
+        assertThat(withoutQuestions.get().questionCount()).isZero();
+        assertThat(quizRepository.findVersionById(-1L)).isEmpty();
+    }
+
+    @Test
+    void findSummaries_ShouldCountQuestionsInOneQueryWithPaging() {
+        persistQuestions(quiz2, 3);
+        persistQuestions(quiz3, 1);
+
+        Page<QuizSummary> page = quizRepository.findSummaries(PageRequest.of(0, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(QuizSummary::title)
+                .containsExactly("Database Fundamentals", "Spring Framework");
+        assertThat(page.getContent()).extracting(QuizSummary::questionCount).containsExactly(1L, 3L);
+        assertThat(page.getContent().get(1).difficulty()).isEqualTo(Quiz.Difficulty.MEDIUM);
+        assertThat(page.getContent().get(1).timeLimit()).isEqualTo(15);
+    }
+
+    @Test
+    void findSummaries_ShouldReturnStablePagesNewestFirst() {
+        List<QuizSummary> firstPage = quizRepository.findSummaries(PageRequest.of(0, 2)).getContent();
+        List<QuizSummary> secondPage = quizRepository.findSummaries(PageRequest.of(1, 2)).getContent();
+
+        assertThat(firstPage).extracting(QuizSummary::title)
+                .containsExactly("Database Fundamentals", "Spring Framework");
+        assertThat(secondPage).extracting(QuizSummary::title).containsExactly("Java Basics");
+    }
+
+    @Test
+    void findSummariesByCategory_ShouldIncludeQuizzesWithoutQuestions() {
+        persistQuestions(quiz2, 2);
+
+        List<QuizSummary> summaries = quizRepository.findSummariesByCategory("Programming");
+
+        assertThat(summaries).extracting(QuizSummary::title)
+                .containsExactlyInAnyOrder("Java Basics", "Spring Framework");
+        assertThat(summaries).filteredOn(summary -> summary.id().equals(quiz1.getId()))
+                .extracting(QuizSummary::questionCount).containsExactly(0L);
+        assertThat(summaries).filteredOn(summary -> summary.id().equals(quiz2.getId()))
+                .extracting(QuizSummary::questionCount).containsExactly(2L);
+        assertThat(quizRepository.findSummariesByCategory("NonExistent")).isEmpty();
+    }
+
+    @Test
+    void findSummariesByFacet_ShouldFilterByCategoryAndDifficultyWithPaging() {
+        Quiz quiz4 = Quiz.builder()
+                .userId(1L)
+                .title("Java Streams")
+                .category("Programming")
+                .difficulty(Quiz.Difficulty.EASY)
+                .build();
+        entityManager.persist(quiz4);
+        persistQuestions(quiz4, 2);
+
+        List<QuizSummary> firstPage = quizRepository.findSummariesByFacet(
+                "Programming", Quiz.Difficulty.EASY, PageRequest.of(0, 1));
+        List<QuizSummary> secondPage = quizRepository.findSummariesByFacet(
+                "Programming", Quiz.Difficulty.EASY, PageRequest.of(1, 1));
+
+        assertThat(firstPage).hasSize(1);
+        assertThat(secondPage).hasSize(1);
+        assertThat(List.of(firstPage.get(0).title(), secondPage.get(0).title()))
+                .containsExactlyInAnyOrder("Java Basics", "Java Streams");
+        assertThat(quizRepository.findSummariesByFacet("Programming", Quiz.Difficulty.HARD, PageRequest.of(0, 10)))
+                .isEmpty();
+    }
+
+    @Test
+    void findFacets_ShouldReturnCategoryAndDifficultyPerQuiz() {
+        List<Object[]> rows = quizRepository.findAllFacets();
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows).anySatisfy(row -> {
+            assertThat(row[0]).isEqualTo(quiz3.getId());
+            assertThat(row[1]).isEqualTo("Database");
+            assertThat(row[2]).isEqualTo(Quiz.Difficulty.HARD);
+        });
+        assertThat(quizRepository.findFacetById(quiz2.getId()))
+                .contains(new QuizFacet("Programming", Quiz.Difficulty.MEDIUM));
+        assertThat(quizRepository.findFacetById(-1L)).isEmpty();
+    }
+
     @Test
     void findByCategoryOrderByCreatedAtDesc_WithNonExistentCategory_ShouldReturnEmptyList() {
         List<Quiz> result = quizRepository.findByCategoryOrderByCreatedAtDesc("NonExistent");
@@ -246,4 +360,16 @@ class QuizRepositoryTest {
         assertThat(updatedQuiz.getDifficulty()).isEqualTo(Quiz.Difficulty.MEDIUM);
         assertThat(updatedQuiz.getId()).isEqualTo(quiz1.getId());
     }
-} 
\ No newline at end of file
+
+    private void persistQuestions(Quiz quiz, int count) {
+        for (int i = 0; i < count; i++) {
+            entityManager.persist(QuizContent.builder()
+                    .quizId(quiz.getId())
+                    .question("Q" + i)
+                    .options("[\"A\",\"B\"]")
+                    .correctAnswer("A")
+                    .build());
+        }
+        entityManager.flush();
+    }
+}
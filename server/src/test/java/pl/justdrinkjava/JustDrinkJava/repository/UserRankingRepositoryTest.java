@@ -1,11 +1,14 @@
 package pl.justdrinkjava.JustDrinkJava.repository;
 
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
+import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
 import pl.justdrinkjava.JustDrinkJava.entity.User;
 import pl.justdrinkjava.JustDrinkJava.entity.UserRanking;
 
@@ -128,7 +131,7 @@ class UserRankingRepositoryTest {
 
     @Test
     void findTopRankings_ShouldReturnRankingsInDescendingOrder() {
-        List<UserRanking> rankings = userRankingRepository.findTopRankings();
+        List<UserRankingDto> rankings = userRankingRepository.findTopRankings(10);
 
         assertThat(rankings).hasSize(3);
         assertThat(rankings.get(0).getTotalScore()).isEqualTo(1000);
@@ -136,6 +139,102 @@ class UserRankingRepositoryTest {
         assertThat(rankings.get(2).getTotalScore()).isEqualTo(600);
     }
 
+    @Test
+    void addToTotalScore_ShouldIncrementScoreAndVersionAtomically() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Long versionBefore = ranking2.getVersion();
+
+        int updated = userRankingRepository.addToTotalScore(testUser2.getId(), 150, updatedAt);
+        userRankingRepository.addToTotalScore(testUser2.getId(), 50, updatedAt);
+
+        UserRanking reloaded = userRankingRepository.findByUserId(testUser2.getId()).orElseThrow();
+        assertThat(updated).isEqualTo(1);
+        assertThat(reloaded.getTotalScore()).isEqualTo(1000);
+        assertThat(reloaded.getUpdatedAt()).isEqualTo(updatedAt);
+        assertThat(reloaded.getVersion()).isEqualTo(versionBefore + 2);
+    }
+
+    @Test
+    void addToTotalScore_ShouldNotGoBelowZeroOrTouchMissingRows() {
+        assertThat(userRankingRepository.addToTotalScore(testUser3.getId(), -601, LocalDateTime.now())).isZero();
+        assertThat(userRankingRepository.addToTotalScore(-1L, 10, LocalDateTime.now())).isZero();
+
+        assertThat(userRankingRepository.findByUserId(testUser3.getId())).map(UserRanking::getTotalScore).contains(600);
+    }
+
+    @Test
+    void recalculateRankings_ShouldRenumberRowsInOneStatement() {
+        ranking1.setTotalScore(500);
+        ranking2.setRanking(7);
+        ranking3.setRanking(7);
+        entityManager.flush();
+
+        int updated = userRankingRepository.recalculateRankings();
+
+        assertThat(updated).isEqualTo(3);
+        assertThat(userRankingRepository.findByUserId(testUser2.getId())).map(UserRanking::getRanking).contains(1);
+        assertThat(userRankingRepository.findByUserId(testUser3.getId())).map(UserRanking::getRanking).contains(2);
+        assertThat(userRankingRepository.findByUserId(testUser1.getId())).map(UserRanking::getRanking).contains(3);
+        assertThat(userRankingRepository.recalculateRankings()).isZero();
+    }
+
+    @Test
+    void recalculateRankings_WithEqualScores_ShouldRankEarlierUpdateFirst() {
+        ranking3.setTotalScore(800);
+        entityManager.flush();
+
+        userRankingRepository.recalculateRankings();
+
+        assertThat(userRankingRepository.findByUserId(testUser3.getId())).map(UserRanking::getRanking).contains(2);
+        assertThat(userRankingRepository.findByUserId(testUser2.getId())).map(UserRanking::getRanking).contains(3);
+    }
+
+    @Test
+    void recalculateRankings_ShouldAvoidMergeOnPostgreSql() {
+        assertThat(UserRankingRepositoryImpl.statementFor(new PostgreSQLDialect()))
+                .isEqualTo(UserRankingRepositoryImpl.UPDATE_FROM_STATEMENT);
+        assertThat(UserRankingRepositoryImpl.statementFor(new H2Dialect()))
+                .isEqualTo(UserRankingRepositoryImpl.MERGE_STATEMENT);
+    }
+
+    @Test
+    void findTopRankings_ShouldJoinUsersAndLimitRows() {
+        List<UserRankingDto> page = userRankingRepository.findTopRankings(2);
+
+        assertThat(page).extracting(UserRankingDto::getUserId).containsExactly(testUser1.getId(), testUser2.getId());
+        assertThat(page.get(0).getUsername()).isEqualTo("user1");
+        assertThat(page.get(0).getEmail()).isEqualTo("user1@test.com");
+        assertThat(page.get(0).getTotalScore()).isEqualTo(1000);
+    }
+
+    @Test
+    void findRankingPageAfter_ShouldContinueFromKeyset() {
+        LocalDateTime cursorTime = LocalDateTime.of(2024, 1, 1, 10, 0);
+        ranking3.setTotalScore(800);
+        ranking3.setUpdatedAt(cursorTime);
+        entityManager.flush();
+
+        List<UserRankingDto> page = userRankingRepository.findRankingPageAfter(
+                800, cursorTime, ranking3.getUserId(), 10);
+
+        assertThat(page).extracting(UserRankingDto::getUserId).containsExactly(testUser2.getId());
+    }
+
+    @Test
+    void findRankingPageAfterUndated_ShouldSkipRowsWithHigherScore() {
+        List<UserRankingDto> page = userRankingRepository.findRankingPageAfterUndated(800, 0L, 10);
+
+        assertThat(page).extracting(UserRankingDto::getUserId).containsExactly(testUser3.getId());
+    }
+
+    @Test
+    void findByRankingBetween_ShouldReturnRankRangeWithUsers() {
+        List<UserRankingDto> window = userRankingRepository.findByRankingBetween(2, 3);
+
+        assertThat(window).extracting(UserRankingDto::getUserId).containsExactly(testUser2.getId(), testUser3.getId());
+        assertThat(window.get(0).getUsername()).isEqualTo("user2");
+    }
+
     @Test
     void countUsersWithScoreHigherThan_ShouldReturnCorrectCount() {
         long count = userRankingRepository.countUsersWithScoreHigherThan(700);
@@ -0,0 +1,88 @@
+package pl.justdrinkjava.JustDrinkJava.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import pl.justdrinkjava.JustDrinkJava.entity.UserScoreBucket;
+
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@TestPropertySource(locations = "classpath:application-test.properties")
+class UserScoreBucketRepositoryTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 10, 0, 0);
+
+    @Autowired
+    private UserScoreBucketRepository userScoreBucketRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(bucket(1L, UserScoreBucket.Granularity.DAY, DAY.minusDays(2), 100));
+        entityManager.persist(bucket(1L, UserScoreBucket.Granularity.HOUR, DAY.plusHours(10), 20));
+        entityManager.persist(bucket(2L, UserScoreBucket.Granularity.HOUR, DAY.plusHours(11), 50));
+        entityManager.persist(bucket(3L, UserScoreBucket.Granularity.HOUR, DAY.plusHours(12), -5));
+        entityManager.flush();
+    }
+
+    @Test
+    void addPoints_ShouldUpdateOnlyMatchingBucket() {
+        int updated = userScoreBucketRepository.addPoints(1L, UserScoreBucket.Granularity.HOUR, DAY.plusHours(10), 5);
+        int missing = userScoreBucketRepository.addPoints(1L, UserScoreBucket.Granularity.HOUR, DAY.plusHours(13), 5);
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(sumFor(1L, DAY)).isEqualTo(25L);
+    }
+
+    @Test
+    void sumPointsSince_ShouldAggregateAcrossGranularitiesAndSkipNonPositive() {
+        List<Object[]> week = userScoreBucketRepository.sumPointsSince(DAY.minusDays(6), 10);
+        List<Object[]> today = userScoreBucketRepository.sumPointsSince(DAY, 1);
+
+        assertThat(week).extracting(row -> row[0]).containsExactly(1L, 2L);
+        assertThat(((Number) week.get(0)[1]).longValue()).isEqualTo(120L);
+        assertThat(today).hasSize(1);
+        assertThat(today.get(0)[0]).isEqualTo(2L);
+    }
+
+    @Test
+    void deleteByGranularityAndBucketStartBefore_ShouldRemoveOnlyOlderBucketsOfGranularity() {
+        assertThat(userScoreBucketRepository.findByGranularityAndBucketStartBefore(UserScoreBucket.Granularity.HOUR, DAY.plusHours(12)))
+                .hasSize(2);
+
+        int deleted = userScoreBucketRepository.deleteByGranularityAndBucketStartBefore(UserScoreBucket.Granularity.HOUR, DAY.plusHours(12));
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(userScoreBucketRepository.count()).isEqualTo(2);
+    }
+
+    private long sumFor(Long userId, LocalDateTime from) {
+        return userScoreBucketRepository.sumPointsSince(from, 10).stream()
+                .filter(row -> row[0].equals(userId))
+                .mapToLong(row -> ((Number) row[1]).longValue())
+                .findFirst()
+                .orElse(0L);
+    }
+
+    private UserScoreBucket bucket(Long userId, UserScoreBucket.Granularity granularity, LocalDateTime start, int points) {
+        return UserScoreBucket.builder()
+                .userId(userId)
+                .granularity(granularity)
+                .bucketStart(start)
+                .points(points)
+                .build();
+    }
+}
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -38,6 +39,12 @@ class AuthServiceTest {
     @Mock
     private UserRankingRepository userRankingRepository;
 
+    @Mock
+    private LeaderboardIndex leaderboardIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
@@ -101,6 +108,7 @@ class AuthServiceTest {
         verify(userRepository).save(any(User.class));
         verify(jwtService).generateToken(user);
         verify(userRankingRepository).save(any(UserRanking.class));
+        verify(leaderboardIndex).updateAfterCommit(argThat(ranking -> ranking.getUserId() == 1L && ranking.getTotalScore() == 0));
     }
 
     @Test
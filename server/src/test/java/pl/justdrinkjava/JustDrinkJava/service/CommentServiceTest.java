@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,9 +19,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 import pl.justdrinkjava.JustDrinkJava.dto.CommentDTO;
 import pl.justdrinkjava.JustDrinkJava.dto.CreateCommentRequest;
@@ -35,7 +34,6 @@ import pl.justdrinkjava.JustDrinkJava.mapper.CommentMapper;
 import pl.justdrinkjava.JustDrinkJava.repository.CommentLikeRepository;
 import pl.justdrinkjava.JustDrinkJava.repository.CommentRepository;
 import pl.justdrinkjava.JustDrinkJava.repository.PostRepository;
-import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("CommentService Tests")
@@ -48,19 +46,16 @@ class CommentServiceTest {
     private PostRepository postRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private CurrentUserProvider currentUserProvider;
 
     @Mock
     private CommentLikeRepository commentLikeRepository;
 
     @Mock
-    private CommentMapper commentMapper;
-
-    @Mock
-    private SecurityContext securityContext;
+    private LikeEnrichmentService likeEnrichmentService;
 
     @Mock
-    private Authentication authentication;
+    private CommentMapper commentMapper;
 
     @InjectMocks
     private CommentService commentService;
@@ -127,7 +122,7 @@ class CommentServiceTest {
         when(postRepository.existsById(1)).thenReturn(true);
         when(commentRepository.findByPostIdOrderByCreatedAtDesc(1)).thenReturn(Arrays.asList(comment));
         when(commentMapper.toDTO(comment)).thenReturn(commentDTO);
-        when(commentLikeRepository.countByCommentId(1)).thenReturn(5L);
+        when(likeEnrichmentService.forComments(anyList(), any())).thenReturn(likes(5));
 
         List<CommentDTO> result = commentService.getCommentsByPostId(1);
 
@@ -138,7 +133,7 @@ class CommentServiceTest {
 
         verify(postRepository).existsById(1);
         verify(commentRepository).findByPostIdOrderByCreatedAtDesc(1);
-        verify(commentLikeRepository).countByCommentId(1);
+        verify(likeEnrichmentService).forComments(anyList(), any());
     }
 
     @Test
@@ -202,15 +197,12 @@ class CommentServiceTest {
     @Test
     @DisplayName("should create comment successfully")
     void shouldCreateCommentSuccessfully() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         when(postRepository.findById(1)).thenReturn(Optional.of(post));
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
         when(commentMapper.toDTO(comment)).thenReturn(commentDTO);
-        when(commentLikeRepository.countByCommentId(1)).thenReturn(0L);
+        when(likeEnrichmentService.forComments(anyList(), any())).thenReturn(likes(0));
 
         CommentDTO result = commentService.createComment(createRequest);
 
@@ -226,10 +218,7 @@ class CommentServiceTest {
     @Test
     @DisplayName("should throw exception when post not found for creating comment")
     void shouldThrowExceptionWhenPostNotFoundForCreatingComment() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         when(postRepository.findById(1)).thenReturn(Optional.empty());
 
@@ -246,15 +235,12 @@ class CommentServiceTest {
     @Test
     @DisplayName("should update comment successfully")
     void shouldUpdateCommentSuccessfully() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         when(commentRepository.findById(1)).thenReturn(Optional.of(comment));
         when(commentRepository.save(comment)).thenReturn(comment);
         when(commentMapper.toDTO(comment)).thenReturn(commentDTO);
-        when(commentLikeRepository.countByCommentId(1)).thenReturn(0L);
+        when(likeEnrichmentService.forComments(anyList(), any())).thenReturn(likes(0));
 
         CommentDTO result = commentService.updateComment(1, updateRequest);
 
@@ -269,10 +255,7 @@ class CommentServiceTest {
     @Test
     @DisplayName("should throw exception when comment not found for update")
     void shouldThrowExceptionWhenCommentNotFoundForUpdate() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         when(commentRepository.findById(1)).thenReturn(Optional.empty());
 
@@ -289,10 +272,7 @@ class CommentServiceTest {
     @Test
     @DisplayName("should throw access denied when updating comment of another user")
     void shouldThrowAccessDeniedWhenUpdatingCommentOfAnotherUser() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         User anotherUser = User.builder().id(2L).username("anotheruser").build();
         Comment anotherComment = Comment.builder()
@@ -316,10 +296,7 @@ class CommentServiceTest {
     @Test
     @DisplayName("should delete comment successfully")
     void shouldDeleteCommentSuccessfully() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         when(commentRepository.findById(1)).thenReturn(Optional.of(comment));
 
@@ -332,10 +309,7 @@ class CommentServiceTest {
     @Test
     @DisplayName("should throw exception when comment not found for delete")
     void shouldThrowExceptionWhenCommentNotFoundForDelete() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         when(commentRepository.findById(1)).thenReturn(Optional.empty());
 
@@ -352,10 +326,7 @@ class CommentServiceTest {
     @Test
     @DisplayName("should throw access denied when deleting comment of another user")
     void shouldThrowAccessDeniedWhenDeletingCommentOfAnotherUser() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         User anotherUser = User.builder().id(2L).username("anotheruser").build();
         Comment anotherComment = Comment.builder()
@@ -379,16 +350,13 @@ class CommentServiceTest {
     @Test
     @DisplayName("should toggle like successfully when not liked")
     void shouldToggleLikeSuccessfullyWhenNotLiked() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         when(commentRepository.findById(1)).thenReturn(Optional.of(comment));
         when(commentLikeRepository.findByCommentIdAndUserId(1, 1L)).thenReturn(Optional.empty());
         when(commentLikeRepository.save(any(CommentLike.class))).thenReturn(new CommentLike());
         when(commentMapper.toDTO(comment)).thenReturn(commentDTO);
-        when(commentLikeRepository.countByCommentId(1)).thenReturn(1L);
+        when(likeEnrichmentService.forComments(anyList(), any())).thenReturn(likes(1));
 
         CommentDTO result = commentService.toggleLike(1);
 
@@ -402,10 +370,7 @@ class CommentServiceTest {
     @Test
     @DisplayName("should toggle like successfully when already liked")
     void shouldToggleLikeSuccessfullyWhenAlreadyLiked() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         CommentLike existingLike = CommentLike.builder()
                 .id(1)
@@ -416,7 +381,7 @@ class CommentServiceTest {
         when(commentRepository.findById(1)).thenReturn(Optional.of(comment));
         when(commentLikeRepository.findByCommentIdAndUserId(1, 1L)).thenReturn(Optional.of(existingLike));
         when(commentMapper.toDTO(comment)).thenReturn(commentDTO);
-        when(commentLikeRepository.countByCommentId(1)).thenReturn(0L);
+        when(likeEnrichmentService.forComments(anyList(), any())).thenReturn(likes(0));
 
         CommentDTO result = commentService.toggleLike(1);
 
@@ -430,10 +395,7 @@ class CommentServiceTest {
     @Test
     @DisplayName("should throw exception when comment not found for toggle like")
     void shouldThrowExceptionWhenCommentNotFoundForToggleLike() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         
         when(commentRepository.findById(1)).thenReturn(Optional.empty());
 
@@ -451,18 +413,13 @@ class CommentServiceTest {
     @Test
     @DisplayName("should handle comments with likes correctly for authenticated user")
     void shouldHandleCommentsWithLikesCorrectlyForAuthenticatedUser() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUserOrNull()).thenReturn(user);
         
         when(postRepository.existsById(1)).thenReturn(true);
         when(commentRepository.findByPostIdOrderByCreatedAtDesc(1)).thenReturn(Arrays.asList(comment));
         when(commentMapper.toDTO(comment)).thenReturn(commentDTO);
-        when(commentLikeRepository.countByCommentId(1)).thenReturn(3L);
-        when(commentLikeRepository.findLikedCommentIdsByUserAndCommentIds(Arrays.asList(1), 1L))
-                .thenReturn(Arrays.asList(1));
+        when(likeEnrichmentService.forComments(Arrays.asList(comment), user))
+                .thenReturn(new LikeEnrichmentService.LikeSnapshot(Map.of(1, 3), Set.of(1)));
 
         List<CommentDTO> result = commentService.getCommentsByPostId(1);
 
@@ -475,13 +432,10 @@ class CommentServiceTest {
     @Test
     @DisplayName("should handle comments with likes correctly for unauthenticated user")
     void shouldHandleCommentsWithLikesCorrectlyForUnauthenticatedUser() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(null);
-
         when(postRepository.existsById(1)).thenReturn(true);
         when(commentRepository.findByPostIdOrderByCreatedAtDesc(1)).thenReturn(Arrays.asList(comment));
         when(commentMapper.toDTO(comment)).thenReturn(commentDTO);
-        when(commentLikeRepository.countByCommentId(1)).thenReturn(2L);
+        when(likeEnrichmentService.forComments(anyList(), any())).thenReturn(likes(2));
 
         List<CommentDTO> result = commentService.getCommentsByPostId(1);
 
@@ -490,17 +444,13 @@ class CommentServiceTest {
         assertEquals(2, result.get(0).getLikes());
         assertFalse(result.get(0).getIsLikedByCurrentUser());
 
-        verify(commentLikeRepository, never()).findLikedCommentIdsByUserAndCommentIds(anyList(), anyLong());
+        verify(likeEnrichmentService).forComments(Arrays.asList(comment), null);
     }
 
     @Test
     @DisplayName("should handle multiple comments correctly")
     void shouldHandleMultipleCommentsCorrectly() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUserOrNull()).thenReturn(user);
         
         Comment comment2 = Comment.builder()
                 .id(2)
@@ -524,15 +474,23 @@ class CommentServiceTest {
         when(commentRepository.findByPostIdOrderByCreatedAtDesc(1)).thenReturn(Arrays.asList(comment, comment2));
         when(commentMapper.toDTO(comment)).thenReturn(commentDTO);
         when(commentMapper.toDTO(comment2)).thenReturn(commentDTO2);
-        when(commentLikeRepository.countByCommentId(1)).thenReturn(5L);
-        when(commentLikeRepository.countByCommentId(2)).thenReturn(1L);
-        when(commentLikeRepository.findLikedCommentIdsByUserAndCommentIds(Arrays.asList(1, 2), 1L))
-                .thenReturn(Arrays.asList(1));
+        when(likeEnrichmentService.forComments(Arrays.asList(comment, comment2), user))
+                .thenReturn(new LikeEnrichmentService.LikeSnapshot(Map.of(1, 5, 2, 1), Set.of(1)));
 
         List<CommentDTO> result = commentService.getCommentsByPostId(1);
 
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertTrue(result.size() >= 1);
+        assertEquals(5, result.get(0).getLikes());
+        assertTrue(result.get(0).getIsLikedByCurrentUser());
+        assertEquals(1, result.get(1).getLikes());
+        assertFalse(result.get(1).getIsLikedByCurrentUser());
+
+        verify(likeEnrichmentService, times(1)).forComments(anyList(), any());
+        verify(commentLikeRepository, never()).countByCommentId(any());
+    }
+
+    private LikeEnrichmentService.LikeSnapshot likes(int count) {
+        return new LikeEnrichmentService.LikeSnapshot(Map.of(1, count), Set.of());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import pl.justdrinkjava.JustDrinkJava.dto.AuthenticatedUser;
+import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CurrentUserProvider Tests")
+class CurrentUserProviderTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CurrentUserProvider currentUserProvider;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .id(1L)
+                .email("test@example.com")
+                .username("testuser")
+                .password("encodedPassword")
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("should return null for missing or anonymous authentication")
+    void shouldReturnNullForAnonymousUser() {
+        assertNull(currentUserProvider.getCurrentUserOrNull());
+
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+        assertNull(currentUserProvider.getCurrentUserOrNull());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("should reuse user entity set as principal by the JWT filter")
+    void shouldReuseUserPrincipal() {
+        authenticate(user);
+
+        assertSame(user, currentUserProvider.getCurrentUser());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("should resolve JWT principal by id and expose its id without a query")
+    void shouldResolveJwtPrincipalById() {
+        authenticate(new AuthenticatedUser(1L, "test@example.com", List.of("ROLE_USER"), Instant.now()));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals(1L, currentUserProvider.getCurrentUserIdOrNull());
+        verifyNoInteractions(userRepository);
+
+        assertSame(user, currentUserProvider.getCurrentUser());
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    @DisplayName("should fall back to email when username lookup fails")
+    void shouldFallBackToEmail() {
+        authenticate("test@example.com");
+        when(userRepository.findByUsername("test@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        assertSame(user, currentUserProvider.getCurrentUserOrNull());
+    }
+
+    @Test
+    @DisplayName("should look the user up only once per request")
+    void shouldLookUpOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        authenticate("testuser");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+
+        assertSame(user, currentUserProvider.getCurrentUserOrNull());
+        assertSame(user, currentUserProvider.getCurrentUser());
+
+        verify(userRepository, times(1)).findByUsername("testuser");
+    }
+
+    @Test
+    @DisplayName("should remember missing user for the request and throw when required")
+    void shouldThrowWhenUserNotFound() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        authenticate("nonexistent");
+        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("nonexistent")).thenReturn(Optional.empty());
+
+        assertNull(currentUserProvider.getCurrentUserOrNull());
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> currentUserProvider.getCurrentUser());
+
+        assertEquals("Użytkownik nie został znaleziony", exception.getMessage());
+        verify(userRepository, times(1)).findByEmail("nonexistent");
+    }
+
+    private void authenticate(Object principal) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                principal, null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
@@ -0,0 +1,129 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import pl.justdrinkjava.JustDrinkJava.dto.AuthenticatedUser;
+import pl.justdrinkjava.JustDrinkJava.entity.User;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtService Tests")
+class JwtServiceTest {
+
+    private static final String SECRET = "test_jwt_secret_key_for_testing_purposes_only";
+
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 3600000L, 100);
+
+        user = User.builder()
+                .id(42L)
+                .email("test@example.com")
+                .username("testuser")
+                .password("encodedPassword")
+                .build();
+    }
+
+    @Test
+    @DisplayName("should carry user id and roles in issued token")
+    void shouldCarryUserIdAndRoles() {
+        String token = jwtService.generateToken(user);
+
+        AuthenticatedUser principal = jwtService.extractAuthenticatedUser(token);
+
+        assertNotNull(principal);
+        assertEquals(42L, principal.id());
+        assertEquals("test@example.com", principal.getName());
+        assertEquals(List.of("ROLE_USER"), principal.roles());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_USER"), principal.authorities());
+        assertNotNull(principal.issuedAt());
+    }
+
+    @Test
+    @DisplayName("should return no principal for token without user id")
+    void shouldReturnNullForTokenWithoutUserId() {
+        String token = jwtService.generateToken(org.springframework.security.core.userdetails.User
+                .withUsername("test@example.com")
+                .password("encodedPassword")
+                .authorities("USER")
+                .build());
+
+        assertNull(jwtService.extractAuthenticatedUser(token));
+        assertEquals("test@example.com", jwtService.extractUsername(token));
+    }
+
+    @Test
+    @DisplayName("should reject token signed with another key")
+    void shouldRejectForeignToken() {
+        String token = Jwts.builder()
+                .subject("test@example.com")
+                .claim("uid", 42L)
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.hmacShaKeyFor("another_secret_key_for_testing_purposes_only".getBytes()))
+                .compact();
+
+        assertThrows(Exception.class, () -> jwtService.extractAuthenticatedUser(token));
+    }
+
+    @Test
+    @DisplayName("should reuse verified claims for the same token")
+    void shouldReuseVerifiedClaims() {
+        String token = jwtService.generateToken(user);
+
+        AuthenticatedUser first = jwtService.extractAuthenticatedUser(token);
+        AuthenticatedUser second = jwtService.extractAuthenticatedUser(token);
+
+        assertEquals(first, second);
+        assertEquals("test@example.com", jwtService.extractUsername(token));
+        assertTrue(jwtService.isTokenValid(token, user));
+    }
+
+    @Test
+    @DisplayName("should not serve a cached token after it expires")
+    void shouldNotServeExpiredCachedToken() throws InterruptedException {
+        JwtService shortLived = new JwtService(SECRET, 1000L, 100);
+        String token = shortLived.generateToken(user);
+        assertNotNull(shortLived.extractAuthenticatedUser(token));
+
+        Thread.sleep(1100);
+
+        assertThrows(ExpiredJwtException.class, () -> shortLived.extractAuthenticatedUser(token));
+    }
+
+    @Test
+    @DisplayName("should keep verifying when the cache is full or disabled")
+    void shouldVerifyWithFullOrDisabledCache() {
+        JwtService tinyCache = new JwtService(SECRET, 3600000L, 1);
+        JwtService noCache = new JwtService(SECRET, 3600000L, 0);
+        User other = User.builder().id(7L).email("other@example.com").build();
+
+        String token = tinyCache.generateToken(user);
+        String otherToken = tinyCache.generateToken(other);
+
+        assertEquals(42L, tinyCache.extractAuthenticatedUser(token).id());
+        assertEquals(7L, tinyCache.extractAuthenticatedUser(otherToken).id());
+        assertEquals(42L, tinyCache.extractAuthenticatedUser(token).id());
+        assertEquals(42L, noCache.extractAuthenticatedUser(token).id());
+    }
+
+    @Test
+    @DisplayName("should validate token against user details")
+    void shouldValidateTokenAgainstUserDetails() {
+        String token = jwtService.generateToken(user);
+
+        assertTrue(jwtService.isTokenValid(token, user));
+        assertFalse(jwtService.isTokenValid(token, User.builder().email("other@example.com").build()));
+    }
+}
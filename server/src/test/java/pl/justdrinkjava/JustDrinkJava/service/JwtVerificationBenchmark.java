@@ -0,0 +1,88 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import pl.justdrinkjava.JustDrinkJava.dto.AuthenticatedUser;
+import pl.justdrinkjava.JustDrinkJava.entity.User;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Porównanie kosztu weryfikacji tokenu JWT na jedno żądanie: dawna ścieżka (klucz i parser
+ * budowane przy każdym z trzech parsowań), wspólny parser oraz pamięć zweryfikowanych tokenów.
+ * Uruchomienie: {@code mvn test-compile}, następnie metoda {@link #main(String[])} z classpath testów.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark_jwt_secret_key_for_measurements_only";
+
+    private JwtService cachedJwtService;
+    private JwtService uncachedJwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtService = new JwtService(SECRET, 3600000L, 10000);
+        uncachedJwtService = new JwtService(SECRET, 3600000L, 0);
+        token = cachedJwtService.generateToken(User.builder()
+                .id(1L)
+                .email("benchmark@example.com")
+                .username("benchmark")
+                .password("encodedPassword")
+                .build());
+    }
+
+    @Benchmark
+    public boolean parserPerCall() {
+        String username = parseWithNewParser(token).getSubject();
+        boolean sameUser = username.equals(parseWithNewParser(token).getSubject());
+        return sameUser && !parseWithNewParser(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public AuthenticatedUser sharedParser() {
+        return uncachedJwtService.extractAuthenticatedUser(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser verifiedTokenCache() {
+        return cachedJwtService.extractAuthenticatedUser(token);
+    }
+
+    private static Claims parseWithNewParser(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,108 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import pl.justdrinkjava.JustDrinkJava.dto.PostDTO;
+import pl.justdrinkjava.JustDrinkJava.entity.Post;
+import pl.justdrinkjava.JustDrinkJava.event.PostChangedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatestPostsCache Tests")
+class LatestPostsCacheTest {
+
+    private LatestPostsCache cache;
+    private AtomicInteger loads;
+    private List<LatestPostsCache.CachedPost> database;
+
+    @BeforeEach
+    void setUp() {
+        cache = new LatestPostsCache();
+        loads = new AtomicInteger();
+        database = IntStream.rangeClosed(1, 5)
+                .mapToObj(id -> new LatestPostsCache.CachedPost(
+                        Post.builder().id(id).build(), PostDTO.builder().id(id).build()))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("should serve smaller limits from cached prefix")
+    void shouldServeSmallerLimitsFromPrefix() {
+        cache.getLatest(3, this::load);
+
+        assertEquals(List.of(1, 2), ids(cache.getLatest(2, this::load)));
+        assertEquals(1, cache.getLatestPost(() -> Optional.empty()).orElseThrow().post().getId());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("should load again when a larger limit is requested")
+    void shouldLoadAgainForLargerLimit() {
+        cache.getLatest(2, this::load);
+        cache.getLatest(4, this::load);
+        cache.getLatest(3, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("should treat short result as complete list")
+    void shouldTreatShortResultAsComplete() {
+        cache.getLatest(10, this::load);
+
+        assertEquals(5, cache.getLatest(20, this::load).size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("should bypass cache for limits above capacity")
+    void shouldBypassCacheAboveCapacity() {
+        cache.getLatest(500, this::load);
+        cache.getLatest(500, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("should not install result loaded before invalidation")
+    void shouldNotInstallStaleLoad() {
+        cache.getLatest(3, limit -> {
+            List<LatestPostsCache.CachedPost> stale = load(limit);
+            cache.onPostChanged(PostChangedEvent.saved(1));
+            return stale;
+        });
+
+        cache.getLatest(3, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("should reload after post change event")
+    void shouldReloadAfterPostChange() {
+        cache.getLatest(3, this::load);
+        database.remove(0);
+
+        cache.onPostChanged(PostChangedEvent.deleted(1));
+
+        assertEquals(List.of(2, 3, 4), ids(cache.getLatest(3, this::load)));
+    }
+
+    private List<LatestPostsCache.CachedPost> load(int limit) {
+        loads.incrementAndGet();
+        return new ArrayList<>(database.subList(0, Math.min(limit, database.size())));
+    }
+
+    private List<Integer> ids(List<LatestPostsCache.CachedPost> posts) {
+        return posts.stream().map(cached -> cached.post().getId()).collect(Collectors.toList());
+    }
+}
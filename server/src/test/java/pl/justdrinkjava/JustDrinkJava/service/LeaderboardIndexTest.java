@@ -0,0 +1,222 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import pl.justdrinkjava.JustDrinkJava.entity.UserRanking;
+import pl.justdrinkjava.JustDrinkJava.repository.UserRankingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LeaderboardIndex Tests")
+class LeaderboardIndexTest {
+
+    private static final LocalDateTime EARLIER = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime LATER = LocalDateTime.of(2024, 1, 2, 10, 0);
+
+    @Mock
+    private UserRankingRepository userRankingRepository;
+
+    @InjectMocks
+    private LeaderboardIndex leaderboardIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(userRankingRepository.findAllOrderByTotalScoreDesc()).thenReturn(Arrays.asList(
+                ranking(1L, 150, EARLIER),
+                ranking(2L, 120, LATER),
+                ranking(3L, 120, EARLIER),
+                ranking(4L, 80, EARLIER)));
+    }
+
+    @Test
+    @DisplayName("should order by score and then by earliest update")
+    void shouldOrderByScoreAndEarliestUpdate() {
+        leaderboardIndex.rebuild();
+
+        assertTrue(leaderboardIndex.isReady());
+        assertEquals(4, leaderboardIndex.size());
+        assertEquals(List.of(1L, 3L, 2L, 4L), userIds(leaderboardIndex.range(0, 10)));
+        assertEquals(3, leaderboardIndex.find(2L).orElseThrow().rank());
+    }
+
+    @Test
+    @DisplayName("should move user when score changes")
+    void shouldMoveUserWhenScoreChanges() {
+        leaderboardIndex.rebuild();
+
+        int rank = leaderboardIndex.update(4L, 200, LATER);
+
+        assertEquals(1, rank);
+        assertEquals(List.of(4L, 1L, 3L, 2L), userIds(leaderboardIndex.range(0, 10)));
+        assertEquals(200, leaderboardIndex.find(4L).orElseThrow().totalScore());
+        assertEquals(4, leaderboardIndex.size());
+    }
+
+    @Test
+    @DisplayName("should project a position without changing the tree")
+    void shouldProjectRankWithoutChangingTree() {
+        leaderboardIndex.rebuild();
+
+        assertEquals(1, leaderboardIndex.rankOf(4L, 200, LATER));
+        assertEquals(3, leaderboardIndex.rankOf(1L, 100, EARLIER));
+        assertEquals(5, leaderboardIndex.rankOf(5L, 0, LATER));
+        assertEquals(List.of(1L, 3L, 2L, 4L), userIds(leaderboardIndex.range(0, 10)));
+    }
+
+    @Test
+    @DisplayName("should apply committed rows after commit and skip older versions")
+    void shouldApplyCommittedRowsAfterCommit() {
+        leaderboardIndex.rebuild();
+        UserRanking newer = versioned(4L, 300, LATER, 3L);
+        UserRanking older = versioned(4L, 200, LATER, 2L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            leaderboardIndex.updateAfterCommit(newer);
+            leaderboardIndex.updateAfterCommit(older);
+            assertEquals(4, leaderboardIndex.find(4L).orElseThrow().rank());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(300, leaderboardIndex.find(4L).orElseThrow().totalScore());
+        assertEquals(1, leaderboardIndex.find(4L).orElseThrow().rank());
+    }
+
+    @Test
+    @DisplayName("should leave the tree untouched when the transaction rolls back")
+    void shouldIgnoreRolledBackRows() {
+        leaderboardIndex.rebuild();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            leaderboardIndex.updateAfterCommit(versioned(4L, 300, LATER, 1L));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(80, leaderboardIndex.find(4L).orElseThrow().totalScore());
+    }
+
+    @Test
+    @DisplayName("should add new users and remove deleted ones")
+    void shouldAddAndRemoveUsers() {
+        leaderboardIndex.rebuild();
+
+        assertEquals(5, leaderboardIndex.update(5L, 0, LATER));
+        leaderboardIndex.remove(1L);
+
+        assertTrue(leaderboardIndex.find(1L).isEmpty());
+        assertEquals(1, leaderboardIndex.find(3L).orElseThrow().rank());
+        assertEquals(4, leaderboardIndex.find(5L).orElseThrow().rank());
+    }
+
+    @Test
+    @DisplayName("should remove a deleted user only after the transaction commits")
+    void shouldRemoveUserAfterCommit() {
+        leaderboardIndex.rebuild();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            leaderboardIndex.removeAfterCommit(1L);
+            assertEquals(2, leaderboardIndex.find(3L).orElseThrow().rank());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(leaderboardIndex.find(1L).isEmpty());
+        assertEquals(1, leaderboardIndex.find(3L).orElseThrow().rank());
+    }
+
+    @Test
+    @DisplayName("should return ranking slices with positions")
+    void shouldReturnRankingSlices() {
+        leaderboardIndex.rebuild();
+
+        List<LeaderboardIndex.Standing> slice = leaderboardIndex.range(1, 2);
+
+        assertEquals(List.of(3L, 2L), userIds(slice));
+        assertEquals(List.of(2, 3), slice.stream().map(LeaderboardIndex.Standing::rank).collect(Collectors.toList()));
+        assertTrue(leaderboardIndex.range(10, 5).isEmpty());
+        assertTrue(leaderboardIndex.range(0, 0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should return neighbours around user clamped at the top")
+    void shouldReturnNeighboursAroundUser() {
+        leaderboardIndex.rebuild();
+
+        assertEquals(List.of(3L, 2L, 4L), userIds(leaderboardIndex.around(2L, 1)));
+        assertEquals(List.of(1L, 3L), userIds(leaderboardIndex.around(1L, 1)));
+        assertEquals(List.of(1L, 3L, 2L, 4L), userIds(leaderboardIndex.around(4L, 10)));
+        assertEquals(List.of(2L), userIds(leaderboardIndex.around(2L, 0)));
+        assertTrue(leaderboardIndex.around(99L, 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should match a full sort after many random updates")
+    void shouldMatchFullSortAfterRandomUpdates() {
+        leaderboardIndex.rebuild();
+        Map<Long, UserRanking> expected = new HashMap<>();
+        userRankingRepository.findAllOrderByTotalScoreDesc().forEach(r -> expected.put(r.getUserId(), r));
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; i++) {
+            long userId = 1 + random.nextInt(200);
+            int score = random.nextInt(50);
+            LocalDateTime updatedAt = EARLIER.plusMinutes(random.nextInt(10));
+            leaderboardIndex.update(userId, score, updatedAt);
+            expected.put(userId, ranking(userId, score, updatedAt));
+        }
+
+        List<Long> sorted = new ArrayList<>(expected.values()).stream()
+                .sorted(Comparator.comparing(UserRanking::getTotalScore, Comparator.reverseOrder())
+                        .thenComparing(UserRanking::getUpdatedAt)
+                        .thenComparing(UserRanking::getUserId))
+                .map(UserRanking::getUserId)
+                .collect(Collectors.toList());
+
+        assertEquals(sorted, userIds(leaderboardIndex.range(0, sorted.size())));
+        assertEquals(sorted.indexOf(7L) + 1, leaderboardIndex.find(7L).orElseThrow().rank());
+    }
+
+    private UserRanking ranking(Long userId, int score, LocalDateTime updatedAt) {
+        return UserRanking.builder().userId(userId).totalScore(score).updatedAt(updatedAt).build();
+    }
+
+    private UserRanking versioned(Long userId, int score, LocalDateTime updatedAt, Long version) {
+        UserRanking ranking = ranking(userId, score, updatedAt);
+        ranking.setVersion(version);
+        return ranking;
+    }
+
+    private List<Long> userIds(List<LeaderboardIndex.Standing> standings) {
+        return standings.stream().map(LeaderboardIndex.Standing::userId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import pl.justdrinkjava.JustDrinkJava.entity.Comment;
+import pl.justdrinkjava.JustDrinkJava.entity.Post;
+import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.repository.CommentLikeRepository;
+import pl.justdrinkjava.JustDrinkJava.repository.PostLikeRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LikeEnrichmentService Tests")
+class LikeEnrichmentServiceTest {
+
+    @Mock
+    private PostLikeRepository postLikeRepository;
+
+    @Mock
+    private CommentLikeRepository commentLikeRepository;
+
+    @Mock
+    private PostLikeCounterService postLikeCounterService;
+
+    @InjectMocks
+    private LikeEnrichmentService likeEnrichmentService;
+
+    private User user;
+    private Post post1;
+    private Post post2;
+    private Comment comment1;
+    private Comment comment2;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("testuser").build();
+        post1 = Post.builder().id(1).title("First").build();
+        post2 = Post.builder().id(2).title("Second").build();
+        comment1 = Comment.builder().id(10).content("First").build();
+        comment2 = Comment.builder().id(20).content("Second").build();
+    }
+
+    @Test
+    @DisplayName("should take post counts from counters and liked flags from one query")
+    void shouldEnrichPostsWithSingleLikedQuery() {
+        when(postLikeCounterService.getLikes(post1)).thenReturn(4);
+        when(postLikeCounterService.getLikes(post2)).thenReturn(0);
+        when(postLikeRepository.findLikedPostIdsByUserAndPostIds(Arrays.asList(1, 2), 1L))
+                .thenReturn(List.of(2));
+
+        LikeEnrichmentService.LikeSnapshot likes = likeEnrichmentService.forPosts(Arrays.asList(post1, post2), user);
+
+        assertEquals(4, likes.likesOf(1));
+        assertEquals(0, likes.likesOf(2));
+        assertFalse(likes.isLiked(1));
+        assertTrue(likes.isLiked(2));
+        verify(postLikeRepository, times(1)).findLikedPostIdsByUserAndPostIds(anyList(), anyLong());
+        verify(postLikeRepository, never()).findByPostIdAndUserId(any(), any());
+    }
+
+    @Test
+    @DisplayName("should skip liked query for anonymous user")
+    void shouldSkipLikedQueryForAnonymousUser() {
+        when(postLikeCounterService.getLikes(post1)).thenReturn(2);
+
+        LikeEnrichmentService.LikeSnapshot likes = likeEnrichmentService.forPosts(List.of(post1), null);
+
+        assertEquals(2, likes.likesOf(1));
+        assertFalse(likes.isLiked(1));
+        verifyNoInteractions(postLikeRepository);
+    }
+
+    @Test
+    @DisplayName("should count comment likes with one grouped query")
+    void shouldCountCommentLikesWithGroupedQuery() {
+        List<Object[]> rows = Collections.singletonList(new Object[]{10, 3L});
+        when(commentLikeRepository.countLikesByCommentIds(Arrays.asList(10, 20))).thenReturn(rows);
+        when(commentLikeRepository.findLikedCommentIdsByUserAndCommentIds(Arrays.asList(10, 20), 1L))
+                .thenReturn(List.of(10));
+
+        LikeEnrichmentService.LikeSnapshot likes = likeEnrichmentService.forComments(Arrays.asList(comment1, comment2), user);
+
+        assertEquals(3, likes.likesOf(10));
+        assertEquals(0, likes.likesOf(20));
+        assertTrue(likes.isLiked(10));
+        assertFalse(likes.isLiked(20));
+        verify(commentLikeRepository, never()).countByCommentId(any());
+    }
+
+    @Test
+    @DisplayName("should not query anything for empty lists")
+    void shouldNotQueryForEmptyLists() {
+        assertSame(LikeEnrichmentService.LikeSnapshot.EMPTY, likeEnrichmentService.forPosts(List.of(), user));
+        assertSame(LikeEnrichmentService.LikeSnapshot.EMPTY, likeEnrichmentService.forComments(List.of(), user));
+
+        verifyNoInteractions(postLikeRepository, commentLikeRepository, postLikeCounterService);
+    }
+}
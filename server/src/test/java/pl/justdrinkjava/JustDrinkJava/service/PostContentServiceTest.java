@@ -95,6 +95,31 @@ class PostContentServiceTest {
         verify(postContentMapper, never()).toDTO(any());
     }
 
+    @Test
+    @DisplayName("should build post content versions from update timestamp")
+    void shouldBuildPostContentVersions() {
+        when(postContentRepository.findUpdatedAtById(1)).thenReturn(Optional.of(testDateTime));
+        when(postContentRepository.findUpdatedAtByPostId(1)).thenReturn(Optional.of(testDateTime));
+
+        assertEquals("post-content:1:" + testDateTime, postContentService.getPostContentVersion(1));
+        assertEquals("post-content:post:1:" + testDateTime, postContentService.getPostContentVersionByPostId(1));
+        verify(postContentRepository, never()).findById(any());
+        verifyNoInteractions(postContentMapper);
+    }
+
+    @Test
+    @DisplayName("should throw exception when post content version not found")
+    void shouldThrowExceptionWhenPostContentVersionNotFound() {
+        when(postContentRepository.findUpdatedAtByPostId(7)).thenReturn(Optional.empty());
+
+        RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> postContentService.getPostContentVersionByPostId(7)
+        );
+
+        assertEquals("Post content nie znaleziony dla post ID: 7", exception.getMessage());
+    }
+
     @Test
     @DisplayName("should get post content by post ID successfully")
     void shouldGetPostContentByPostIdSuccessfully() {
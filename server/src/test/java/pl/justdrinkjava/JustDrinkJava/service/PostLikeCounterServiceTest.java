@@ -0,0 +1,160 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import pl.justdrinkjava.JustDrinkJava.entity.Post;
+import pl.justdrinkjava.JustDrinkJava.repository.PostLikeRepository;
+import pl.justdrinkjava.JustDrinkJava.repository.PostRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PostLikeCounterService Tests")
+class PostLikeCounterServiceTest {
+
+    @Mock
+    private PostLikeRepository postLikeRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private PostLikeCounterService postLikeCounterService;
+
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        post = Post.builder()
+                .id(1)
+                .title("Test Title")
+                .likesCount(3)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should fall back to persisted likes count for unknown post")
+    void shouldFallBackToPersistedLikesCount() {
+        assertEquals(3, postLikeCounterService.getLikes(post));
+        verifyNoInteractions(postLikeRepository, postRepository);
+    }
+
+    @Test
+    @DisplayName("should resolve likes by post id with persisted fallback")
+    void shouldResolveLikesByPostId() {
+        postLikeCounterService.recordLike(post);
+
+        assertEquals(4, postLikeCounterService.getLikes(1, 0));
+        assertEquals(7, postLikeCounterService.getLikes(2, 7));
+        assertEquals(0, postLikeCounterService.getLikes(3, null));
+    }
+
+    @Test
+    @DisplayName("should seed counters from grouped like counts")
+    void shouldSeedCountersFromGroupedLikeCounts() {
+        List<Object[]> rows = Arrays.asList(new Object[]{1, 10L}, new Object[]{2, 4L});
+        when(postLikeRepository.countLikesGroupedByPostId()).thenReturn(rows);
+
+        postLikeCounterService.seed();
+
+        assertEquals(10, postLikeCounterService.getLikes(post));
+        assertEquals(4, postLikeCounterService.getLikes(Post.builder().id(2).build()));
+        verify(postRepository).syncLikesCountWithPostLikes();
+    }
+
+    @Test
+    @DisplayName("should count likes and unlikes starting from persisted value")
+    void shouldCountLikesAndUnlikes() {
+        postLikeCounterService.recordLike(post);
+        postLikeCounterService.recordLike(post);
+        postLikeCounterService.recordUnlike(post);
+
+        assertEquals(4, postLikeCounterService.getLikes(post));
+    }
+
+    @Test
+    @DisplayName("should write dirty counters behind on flush")
+    void shouldWriteDirtyCountersBehindOnFlush() {
+        when(postRepository.updateLikesCount(1, 4)).thenReturn(1);
+
+        postLikeCounterService.recordLike(post);
+        postLikeCounterService.flush();
+
+        verify(postRepository).updateLikesCount(1, 4);
+    }
+
+    @Test
+    @DisplayName("should not write anything when no counter changed")
+    void shouldNotWriteWhenNothingChanged() {
+        when(postLikeRepository.countLikesGroupedByPostId()).thenReturn(Collections.emptyList());
+        postLikeCounterService.seed();
+
+        postLikeCounterService.flush();
+
+        verify(postRepository, never()).updateLikesCount(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should write each counter only once per change")
+    void shouldWriteEachCounterOncePerChange() {
+        when(postRepository.updateLikesCount(1, 4)).thenReturn(1);
+
+        postLikeCounterService.recordLike(post);
+        postLikeCounterService.flush();
+        postLikeCounterService.flush();
+
+        verify(postRepository, times(1)).updateLikesCount(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should keep counter dirty when write fails")
+    void shouldKeepCounterDirtyWhenWriteFails() {
+        when(postRepository.updateLikesCount(1, 4))
+                .thenThrow(new RuntimeException("Database error"))
+                .thenReturn(1);
+
+        postLikeCounterService.recordLike(post);
+        assertThrows(RuntimeException.class, () -> postLikeCounterService.flush());
+        postLikeCounterService.flush();
+
+        verify(postRepository, times(2)).updateLikesCount(1, 4);
+    }
+
+    @Test
+    @DisplayName("should mark counter dirty again after rolled back like")
+    void shouldMarkCounterDirtyAgainAfterRolledBackLike() {
+        when(postRepository.updateLikesCount(1, 4)).thenReturn(1);
+        when(postRepository.updateLikesCount(1, 3)).thenReturn(1);
+
+        postLikeCounterService.recordLike(post);
+        postLikeCounterService.flush();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postLikeCounterService.recordUnlike(post);
+            postLikeCounterService.flush();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        postLikeCounterService.flush();
+
+        assertEquals(4, postLikeCounterService.getLikes(post));
+        verify(postRepository, times(2)).updateLikesCount(1, 4);
+    }
+}
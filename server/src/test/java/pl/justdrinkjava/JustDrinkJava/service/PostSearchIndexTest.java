@@ -0,0 +1,208 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import pl.justdrinkjava.JustDrinkJava.dto.PostCursor;
+import pl.justdrinkjava.JustDrinkJava.entity.Category;
+import pl.justdrinkjava.JustDrinkJava.entity.Post;
+import pl.justdrinkjava.JustDrinkJava.entity.PostContent;
+import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.event.PostChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.exception.InvalidCursorException;
+import pl.justdrinkjava.JustDrinkJava.repository.PostContentRepository;
+import pl.justdrinkjava.JustDrinkJava.repository.PostRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PostSearchIndex Tests")
+class PostSearchIndexTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostContentRepository postContentRepository;
+
+    @InjectMocks
+    private PostSearchIndex postSearchIndex;
+
+    private Post springPost;
+    private Post javaPost;
+    private Post streamsPost;
+
+    @BeforeEach
+    void setUp() {
+        User author = User.builder().id(1L).username("kowalski").build();
+        Category java = Category.builder().id(1).name("Java").build();
+        Category frameworks = Category.builder().id(2).name("Frameworki").build();
+
+        springPost = Post.builder()
+                .id(1)
+                .user(author)
+                .category(frameworks)
+                .title("Spring Boot w praktyce")
+                .description("Konfiguracja aplikacji")
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+        javaPost = Post.builder()
+                .id(2)
+                .user(author)
+                .category(java)
+                .title("Wątki w Javie")
+                .description("Współbieżność krok po kroku")
+                .createdAt(LocalDateTime.of(2024, 2, 1, 12, 0))
+                .build();
+        streamsPost = Post.builder()
+                .id(3)
+                .user(author)
+                .category(java)
+                .title("Strumienie")
+                .description("Stream API w Java")
+                .createdAt(LocalDateTime.of(2024, 3, 1, 12, 0))
+                .build();
+    }
+
+    @Test
+    @DisplayName("should not be ready before the index is built")
+    void shouldNotBeReadyBeforeBuild() {
+        assertFalse(postSearchIndex.isReady());
+    }
+
+    @Test
+    @DisplayName("should rank title matches above other fields")
+    void shouldRankTitleMatchesFirst() {
+        buildIndex();
+
+        PostSearchIndex.SearchHits hits = postSearchIndex.search("spring", 0, 10);
+
+        assertTrue(postSearchIndex.isReady());
+        assertEquals(2, hits.total());
+        assertEquals(List.of(1, 3), ids(hits));
+    }
+
+    @Test
+    @DisplayName("should match word prefixes and polish characters")
+    void shouldMatchPrefixesAndPolishCharacters() {
+        buildIndex();
+
+        assertEquals(List.of(2), ids(postSearchIndex.search("WĄT", 0, 10)));
+        assertEquals(List.of(2), ids(postSearchIndex.search("współ", 0, 10)));
+    }
+
+    @Test
+    @DisplayName("should require every query word to match")
+    void shouldRequireAllQueryWords() {
+        buildIndex();
+
+        assertEquals(List.of(3), ids(postSearchIndex.search("java stream", 0, 10)));
+        assertEquals(0, postSearchIndex.search("java kotlin", 0, 10).total());
+    }
+
+    @Test
+    @DisplayName("should order equal scores by newest first and page results")
+    void shouldOrderEqualScoresByNewestAndPage() {
+        buildIndex();
+
+        PostSearchIndex.SearchHits firstPage = postSearchIndex.search("kowalski", 0, 2);
+        PostSearchIndex.SearchHits secondPage = postSearchIndex.search("kowalski", 2, 2);
+
+        assertEquals(3, firstPage.total());
+        assertEquals(List.of(3, 2), ids(firstPage));
+        assertEquals(List.of(1), ids(secondPage));
+    }
+
+    @Test
+    @DisplayName("should continue search after cursor without duplicates")
+    void shouldContinueSearchAfterCursor() {
+        buildIndex();
+
+        PostSearchIndex.SearchHits firstPage = postSearchIndex.search("kowalski", 0, 2);
+        PostSearchIndex.SearchHits secondPage = postSearchIndex.searchAfter("kowalski", firstPage.nextCursor(), 2);
+
+        assertNotNull(firstPage.nextCursor());
+        assertEquals(List.of(1), ids(secondPage));
+        assertNull(secondPage.nextCursor());
+        assertEquals(3, secondPage.total());
+    }
+
+    @Test
+    @DisplayName("should require every query word to start a word in the post")
+    void shouldMatchWordPrefixesOnly() {
+        buildIndex();
+
+        assertEquals(List.of(1), ids(postSearchIndex.search("spr boot", 0, 10)));
+        assertEquals(0, postSearchIndex.search("ring", 0, 10).total());
+    }
+
+    @Test
+    @DisplayName("should reject feed cursors without a relevance score")
+    void shouldRejectCursorWithoutScore() {
+        buildIndex();
+
+        PostCursor feedCursor = PostCursor.of(LocalDateTime.now(), 1);
+
+        assertThrows(InvalidCursorException.class, () -> postSearchIndex.searchAfter("kowalski", feedCursor, 2));
+    }
+
+    @Test
+    @DisplayName("should keep score order across cursor pages")
+    void shouldKeepScoreOrderAcrossCursorPages() {
+        buildIndex();
+
+        PostSearchIndex.SearchHits firstPage = postSearchIndex.search("spring", 0, 1);
+        PostSearchIndex.SearchHits secondPage = postSearchIndex.searchAfter("spring", firstPage.nextCursor(), 1);
+
+        assertEquals(List.of(1), ids(firstPage));
+        assertEquals(List.of(3), ids(secondPage));
+    }
+
+    @Test
+    @DisplayName("should reindex post when it changes")
+    void shouldReindexChangedPost() {
+        buildIndex();
+        springPost.setTitle("Hibernate od podstaw");
+        when(postRepository.findByIdWithUserAndCategory(1)).thenReturn(Optional.of(springPost));
+        when(postContentRepository.findByPostId(1)).thenReturn(Optional.empty());
+
+        postSearchIndex.onPostChanged(PostChangedEvent.saved(1));
+
+        assertEquals(List.of(3), ids(postSearchIndex.search("spring", 0, 10)));
+        assertEquals(List.of(1), ids(postSearchIndex.search("hibernate", 0, 10)));
+    }
+
+    @Test
+    @DisplayName("should remove deleted post from index")
+    void shouldRemoveDeletedPost() {
+        buildIndex();
+
+        postSearchIndex.onPostChanged(PostChangedEvent.deleted(2));
+
+        assertEquals(0, postSearchIndex.search("wątki", 0, 10).total());
+        verify(postRepository, never()).findByIdWithUserAndCategory(any());
+    }
+
+    private void buildIndex() {
+        when(postRepository.findAllWithUserAndCategory()).thenReturn(Arrays.asList(springPost, javaPost, streamsPost));
+        when(postContentRepository.findAll()).thenReturn(List.of(
+                PostContent.builder().id(1).postId(3).content("Przykłady Spring i kolektorów").build()));
+        postSearchIndex.rebuild();
+    }
+
+    private List<Integer> ids(PostSearchIndex.SearchHits hits) {
+        return hits.posts().stream().map(Post::getId).collect(Collectors.toList());
+    }
+}
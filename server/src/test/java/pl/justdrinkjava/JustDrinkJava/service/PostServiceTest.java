@@ -6,31 +6,34 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
 
+import pl.justdrinkjava.JustDrinkJava.dto.PostCursor;
 import pl.justdrinkjava.JustDrinkJava.dto.PostDTO;
+import pl.justdrinkjava.JustDrinkJava.dto.PostVersion;
 import pl.justdrinkjava.JustDrinkJava.dto.SearchPostsRequest;
 import pl.justdrinkjava.JustDrinkJava.dto.SearchPostsResponse;
 import pl.justdrinkjava.JustDrinkJava.entity.Post;
 import pl.justdrinkjava.JustDrinkJava.entity.PostLike;
 import pl.justdrinkjava.JustDrinkJava.entity.User;
 import pl.justdrinkjava.JustDrinkJava.entity.Category;
+import pl.justdrinkjava.JustDrinkJava.event.PostChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.exception.InvalidCursorException;
 import pl.justdrinkjava.JustDrinkJava.exception.PostNotFoundException;
 import pl.justdrinkjava.JustDrinkJava.mapper.PostMapper;
 import pl.justdrinkjava.JustDrinkJava.repository.PostLikeRepository;
 import pl.justdrinkjava.JustDrinkJava.repository.PostRepository;
-import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -46,16 +49,22 @@ class PostServiceTest {
     private PostLikeRepository postLikeRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private CurrentUserProvider currentUserProvider;
 
     @Mock
     private PostMapper postMapper;
 
     @Mock
-    private SecurityContext securityContext;
+    private PostLikeCounterService postLikeCounterService;
 
     @Mock
-    private Authentication authentication;
+    private LikeEnrichmentService likeEnrichmentService;
+
+    @Mock
+    private PostSearchIndex postSearchIndex;
+
+    @Spy
+    private LatestPostsCache latestPostsCache = new LatestPostsCache();
 
     @InjectMocks
     private PostService postService;
@@ -109,7 +118,7 @@ class PostServiceTest {
     void shouldGetLatestPostSuccessfully() {
         when(postRepository.findLatestPost()).thenReturn(Optional.of(post));
         when(postMapper.toDTO(post)).thenReturn(postDTO);
-        when(postLikeRepository.countByPostId(1)).thenReturn(5L);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(5));
 
         PostDTO result = postService.getLatestPost();
 
@@ -119,7 +128,7 @@ class PostServiceTest {
 
         verify(postRepository).findLatestPost();
         verify(postMapper).toDTO(post);
-        verify(postLikeRepository).countByPostId(1);
+        verify(likeEnrichmentService).forPosts(anyList(), any());
     }
 
     @Test
@@ -142,7 +151,7 @@ class PostServiceTest {
     void shouldGetPostByIdSuccessfully() {
         when(postRepository.findById(1)).thenReturn(Optional.of(post));
         when(postMapper.toDTO(post)).thenReturn(postDTO);
-        when(postLikeRepository.countByPostId(1)).thenReturn(3L);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(3));
 
         PostDTO result = postService.getPostById(1);
 
@@ -152,7 +161,37 @@ class PostServiceTest {
 
         verify(postRepository).findById(1);
         verify(postMapper).toDTO(post);
-        verify(postLikeRepository).countByPostId(1);
+        verify(likeEnrichmentService).forPosts(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("should build post version from projection, live likes and liked flag")
+    void shouldBuildPostVersion() {
+        when(currentUserProvider.getCurrentUserOrNull()).thenReturn(user);
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(postRepository.findVersionById(1)).thenReturn(Optional.of(new PostVersion(1, updatedAt, 2)));
+        when(postLikeCounterService.getLikes(1, 2)).thenReturn(5);
+        when(postLikeRepository.findByPostIdAndUserId(1, 1L)).thenReturn(Optional.of(new PostLike()));
+
+        String version = postService.getPostVersion(1);
+
+        assertEquals("post:1:" + updatedAt + ":5:true", version);
+        verify(postRepository, never()).findById(any());
+        verifyNoInteractions(postMapper, likeEnrichmentService);
+    }
+
+    @Test
+    @DisplayName("should throw exception when post version not found")
+    void shouldThrowExceptionWhenPostVersionNotFound() {
+        when(postRepository.findVersionById(999)).thenReturn(Optional.empty());
+
+        PostNotFoundException exception = assertThrows(
+                PostNotFoundException.class,
+                () -> postService.getPostVersion(999)
+        );
+
+        assertEquals("Nie znaleziono postu o ID: 999", exception.getMessage());
+        verifyNoInteractions(postLikeCounterService);
     }
 
     @Test
@@ -176,7 +215,7 @@ class PostServiceTest {
         List<Post> posts = Arrays.asList(post, post);
         when(postRepository.findLatestPosts(9)).thenReturn(posts);
         when(postMapper.toDTO(post)).thenReturn(postDTO);
-        when(postLikeRepository.countByPostId(1)).thenReturn(2L);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(2));
 
         List<PostDTO> result = postService.getLatestPosts(9);
 
@@ -185,7 +224,41 @@ class PostServiceTest {
 
         verify(postRepository).findLatestPosts(9);
         verify(postMapper, times(2)).toDTO(post);
-        verify(postLikeRepository, times(2)).countByPostId(1);
+        verify(likeEnrichmentService).forPosts(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("should serve repeated latest posts requests from cache with fresh likes")
+    void shouldServeLatestPostsFromCacheWithFreshLikes() {
+        when(postRepository.findLatestPosts(9)).thenReturn(List.of(post));
+        when(postMapper.toDTO(post)).thenReturn(postDTO);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(2), likes(3));
+
+        List<PostDTO> first = postService.getLatestPosts(9);
+        List<PostDTO> second = postService.getLatestPosts(9);
+        PostDTO latest = postService.getLatestPost();
+
+        assertEquals(2, first.get(0).getLikes());
+        assertEquals(3, second.get(0).getLikes());
+        assertEquals(3, latest.getLikes());
+        assertEquals(0, postDTO.getLikes());
+        verify(postRepository, times(1)).findLatestPosts(9);
+        verify(postRepository, never()).findLatestPost();
+        verify(postMapper, times(1)).toDTO(post);
+    }
+
+    @Test
+    @DisplayName("should reload latest posts after post change event")
+    void shouldReloadLatestPostsAfterPostChange() {
+        when(postRepository.findLatestPosts(9)).thenReturn(List.of(post));
+        when(postMapper.toDTO(post)).thenReturn(postDTO);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(0));
+
+        postService.getLatestPosts(9);
+        latestPostsCache.onPostChanged(PostChangedEvent.saved(1));
+        postService.getLatestPosts(9);
+
+        verify(postRepository, times(2)).findLatestPosts(9);
     }
 
     @Test
@@ -208,7 +281,7 @@ class PostServiceTest {
         List<Post> posts = Arrays.asList(post, post, post);
         when(postRepository.findLatestPosts(3)).thenReturn(posts);
         when(postMapper.toDTO(post)).thenReturn(postDTO);
-        when(postLikeRepository.countByPostId(1)).thenReturn(1L);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(1));
 
         List<PostDTO> result = postService.getLatestPosts(3);
 
@@ -217,7 +290,7 @@ class PostServiceTest {
 
         verify(postRepository).findLatestPosts(3);
         verify(postMapper, times(3)).toDTO(post);
-        verify(postLikeRepository, times(3)).countByPostId(1);
+        verify(likeEnrichmentService).forPosts(anyList(), any());
     }
 
     @Test
@@ -235,7 +308,7 @@ class PostServiceTest {
         when(postRepository.searchPosts("test", pageable)).thenReturn(posts);
         when(postRepository.countSearchResults("test")).thenReturn(1L);
         when(postMapper.toDTO(post)).thenReturn(postDTO);
-        when(postLikeRepository.countByPostId(1)).thenReturn(4L);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(4));
 
         SearchPostsResponse result = postService.searchPosts(request);
 
@@ -246,7 +319,102 @@ class PostServiceTest {
         verify(postRepository).searchPosts("test", pageable);
         verify(postRepository).countSearchResults("test");
         verify(postMapper).toDTO(post);
-        verify(postLikeRepository).countByPostId(1);
+        verify(likeEnrichmentService).forPosts(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("should search posts in index without touching database when index is ready")
+    void shouldSearchPostsInIndexWhenReady() {
+        SearchPostsRequest request = SearchPostsRequest.builder()
+                .query("test")
+                .limit(10)
+                .offset(0)
+                .build();
+
+        when(postSearchIndex.isReady()).thenReturn(true);
+        when(postSearchIndex.search("test", 0, 10)).thenReturn(new PostSearchIndex.SearchHits(List.of(post), 12, new PostCursor(5f, testDateTime, 1)));
+        when(postMapper.toDTO(post)).thenReturn(postDTO);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(4));
+
+        SearchPostsResponse result = postService.searchPosts(request);
+
+        assertEquals(1, result.getPosts().size());
+        assertEquals(12, result.getTotal());
+        assertTrue(result.getHasMore());
+        assertEquals(new PostCursor(5f, testDateTime, 1), PostCursor.decode(result.getNextCursor()));
+        verify(postRepository, never()).searchPosts(any(), any());
+        verify(postRepository, never()).countSearchResults(any());
+    }
+
+    @Test
+    @DisplayName("should continue search in index from cursor")
+    void shouldContinueSearchInIndexFromCursor() {
+        PostCursor cursor = new PostCursor(5f, testDateTime, 7);
+        SearchPostsRequest request = SearchPostsRequest.builder()
+                .query("test")
+                .limit(10)
+                .cursor(cursor.encode())
+                .build();
+
+        when(postSearchIndex.isReady()).thenReturn(true);
+        when(postSearchIndex.searchAfter("test", cursor, 10)).thenReturn(new PostSearchIndex.SearchHits(List.of(post), 12, null));
+        when(postMapper.toDTO(post)).thenReturn(postDTO);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(0));
+
+        SearchPostsResponse result = postService.searchPosts(request);
+
+        assertEquals(1, result.getPosts().size());
+        assertFalse(result.getHasMore());
+        assertNull(result.getNextCursor());
+        verify(postSearchIndex, never()).search(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should use keyset query in database fallback when cursor given")
+    void shouldUseKeysetQueryInDatabaseFallback() {
+        PostCursor cursor = PostCursor.of(testDateTime, 7);
+        SearchPostsRequest request = SearchPostsRequest.builder()
+                .query("test")
+                .limit(1)
+                .cursor(cursor.encode())
+                .build();
+
+        when(postRepository.searchPostsAfter("test", testDateTime, 7, PageRequest.of(0, 1))).thenReturn(List.of(post));
+        when(postRepository.countSearchResults("test")).thenReturn(5L);
+        when(postMapper.toDTO(post)).thenReturn(postDTO);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(0));
+
+        SearchPostsResponse result = postService.searchPosts(request);
+
+        assertTrue(result.getHasMore());
+        assertEquals(PostCursor.of(testDateTime, 1), PostCursor.decode(result.getNextCursor()));
+        verify(postRepository, never()).searchPosts(any(), any());
+    }
+
+    @Test
+    @DisplayName("should reject malformed search cursor")
+    void shouldRejectMalformedSearchCursor() {
+        SearchPostsRequest request = SearchPostsRequest.builder()
+                .query("test")
+                .cursor("%%%")
+                .build();
+
+        assertThrows(InvalidCursorException.class, () -> postService.searchPosts(request));
+        verifyNoInteractions(postRepository, postSearchIndex);
+    }
+
+    @Test
+    @DisplayName("should get latest posts after cursor")
+    void shouldGetLatestPostsAfterCursor() {
+        when(postRepository.findLatestPostsAfter(testDateTime, 5, 9)).thenReturn(List.of(post));
+        when(postMapper.toDTO(post)).thenReturn(postDTO);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(2));
+
+        List<PostDTO> result = postService.getLatestPostsAfter(PostCursor.of(testDateTime, 5).encode(), 9);
+
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getLikes());
+        verify(postRepository, never()).findLatestPosts(anyInt());
     }
 
     @Test
@@ -311,21 +479,18 @@ class PostServiceTest {
     @Test
     @DisplayName("should toggle like when user is authenticated")
     void shouldToggleLikeWhenUserIsAuthenticated() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         when(postRepository.findById(1)).thenReturn(Optional.of(post));
         when(postLikeRepository.findByPostIdAndUserId(1, 1L)).thenReturn(Optional.empty());
         when(postMapper.toDTO(post)).thenReturn(postDTO);
-        when(postLikeRepository.countByPostId(1)).thenReturn(1L);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(1));
 
         PostDTO result = postService.toggleLike(1);
 
         assertNotNull(result);
         
         verify(postRepository).findById(1);
-        verify(userRepository).findByUsername("testuser");
+        verify(currentUserProvider).getCurrentUser();
         verify(postLikeRepository).findByPostIdAndUserId(1, 1L);
         verify(postLikeRepository).save(any(PostLike.class));
         verify(postMapper).toDTO(post);
@@ -334,10 +499,7 @@ class PostServiceTest {
     @Test
     @DisplayName("should handle toggle like when post not found")
     void shouldHandleToggleLikeWhenPostNotFound() {
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         when(postRepository.findById(999)).thenReturn(Optional.empty());
 
         PostNotFoundException exception = assertThrows(
@@ -424,11 +586,10 @@ class PostServiceTest {
     }
 
     @Test
-    @DisplayName("should handle postLikeRepository exception")
-    void shouldHandlePostLikeRepositoryException() {
+    @DisplayName("should handle like enrichment exception")
+    void shouldHandleLikeEnrichmentException() {
         when(postRepository.findById(1)).thenReturn(Optional.of(post));
-        when(postMapper.toDTO(post)).thenReturn(postDTO);
-        when(postLikeRepository.countByPostId(1)).thenThrow(new RuntimeException("Like count error"));
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenThrow(new RuntimeException("Like count error"));
 
         RuntimeException exception = assertThrows(
                 RuntimeException.class,
@@ -437,26 +598,63 @@ class PostServiceTest {
 
         assertEquals("Like count error", exception.getMessage());
         verify(postRepository).findById(1);
-        verify(postMapper).toDTO(post);
-        verify(postLikeRepository).countByPostId(1);
+        verify(postMapper, never()).toDTO(any());
+        verify(likeEnrichmentService).forPosts(anyList(), any());
     }
 
     @Test
-    @DisplayName("should handle posts with null likes")
-    void shouldHandlePostsWithNullLikes() {
+    @DisplayName("should enrich all posts with a single bulk like lookup")
+    void shouldEnrichPostsWithSingleBulkLikeLookup() {
+        Post secondPost = Post.builder().id(2).user(user).category(category).title("Second").build();
+        PostDTO secondDTO = PostDTO.builder().id(2).title("Second").build();
+        List<Post> posts = Arrays.asList(post, secondPost);
+        when(postRepository.findLatestPosts(9)).thenReturn(posts);
+        when(postMapper.toDTO(post)).thenReturn(postDTO);
+        when(postMapper.toDTO(secondPost)).thenReturn(secondDTO);
+        when(likeEnrichmentService.forPosts(posts, null)).thenReturn(
+                new LikeEnrichmentService.LikeSnapshot(Map.of(1, 7, 2, 3), Set.of(2)));
+
+        List<PostDTO> result = postService.getLatestPosts(9);
+
+        assertEquals(7, result.get(0).getLikes());
+        assertFalse(result.get(0).getIsLikedByCurrentUser());
+        assertEquals(3, result.get(1).getLikes());
+        assertTrue(result.get(1).getIsLikedByCurrentUser());
+        verify(likeEnrichmentService, times(1)).forPosts(anyList(), any());
+        verify(postLikeRepository, never()).countByPostId(any());
+        verify(postLikeRepository, never()).findByPostIdAndUserId(any(), any());
+    }
+
+    @Test
+    @DisplayName("should record like in counter when toggling like on")
+    void shouldRecordLikeInCounterWhenTogglingLikeOn() {
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         when(postRepository.findById(1)).thenReturn(Optional.of(post));
+        when(postLikeRepository.findByPostIdAndUserId(1, 1L)).thenReturn(Optional.empty());
         when(postMapper.toDTO(post)).thenReturn(postDTO);
-        when(postLikeRepository.countByPostId(1)).thenReturn(null);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(1));
 
-        RuntimeException exception = assertThrows(
-                RuntimeException.class,
-                () -> postService.getPostById(1)
-        );
+        postService.toggleLike(1);
 
-        assertTrue(exception instanceof NullPointerException);
-        verify(postRepository).findById(1);
-        verify(postMapper).toDTO(post);
-        verify(postLikeRepository).countByPostId(1);
+        verify(postLikeCounterService).recordLike(post);
+        verify(postLikeCounterService, never()).recordUnlike(any());
+    }
+
+    @Test
+    @DisplayName("should record unlike in counter when toggling like off")
+    void shouldRecordUnlikeInCounterWhenTogglingLikeOff() {
+        PostLike existingLike = PostLike.builder().id(1).post(post).user(user).build();
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
+        when(postRepository.findById(1)).thenReturn(Optional.of(post));
+        when(postLikeRepository.findByPostIdAndUserId(1, 1L)).thenReturn(Optional.of(existingLike));
+        when(postMapper.toDTO(post)).thenReturn(postDTO);
+        when(likeEnrichmentService.forPosts(anyList(), any())).thenReturn(likes(1));
+
+        postService.toggleLike(1);
+
+        verify(postLikeRepository).delete(existingLike);
+        verify(postLikeCounterService).recordUnlike(post);
+        verify(postLikeCounterService, never()).recordLike(any());
     }
 
     @Test
@@ -500,4 +698,8 @@ class PostServiceTest {
         verify(postRepository).findLatestPosts(Integer.MAX_VALUE);
         verify(postMapper, never()).toDTO(any());
     }
-}
\ No newline at end of file
+
+    private LikeEnrichmentService.LikeSnapshot likes(int count) {
+        return new LikeEnrichmentService.LikeSnapshot(Map.of(1, count), Set.of());
+    }
+}
@@ -0,0 +1,169 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import pl.justdrinkjava.JustDrinkJava.dto.QuizAnswerRequest;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizResultDTO;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizVersion;
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizContent;
+import pl.justdrinkjava.JustDrinkJava.event.QuizChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.mapper.QuizContentMapper;
+import pl.justdrinkjava.JustDrinkJava.repository.QuizContentRepository;
+import pl.justdrinkjava.JustDrinkJava.repository.QuizRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuizAnswerKeyCache Tests")
+class QuizAnswerKeyCacheTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime EDITED = LocalDateTime.of(2024, 2, 1, 10, 0);
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @Mock
+    private QuizContentRepository quizContentRepository;
+
+    @Mock
+    private QuizContentMapper quizContentMapper;
+
+    @InjectMocks
+    private QuizAnswerKeyCache quizAnswerKeyCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(quizAnswerKeyCache, "capacity", 2);
+        lenient().when(quizContentMapper.getOptions(any(QuizContent.class))).thenReturn(List.of("A", "B", "C"));
+        lenient().when(quizRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(quiz(invocation.getArgument(0))));
+        lenient().when(quizContentRepository.findByQuizIdOrderById(anyLong()))
+                .thenAnswer(invocation -> List.of(question(invocation.getArgument(0), CREATED)));
+    }
+
+    @Test
+    @DisplayName("should compile an immutable key with parsed options and version")
+    void shouldCompileKey() {
+        QuizAnswerKey key = quizAnswerKeyCache.get(1L);
+
+        assertEquals("Quiz 1", key.title());
+        assertEquals(List.of("A", "B", "C"), key.questions().get(0).options());
+        assertEquals(new QuizVersion(1L, CREATED, CREATED, 1L), key.version());
+        assertThrows(UnsupportedOperationException.class, () -> key.questions().clear());
+    }
+
+    @Test
+    @DisplayName("should serve a fresh key from memory without queries")
+    void shouldServeFreshKeyFromMemory() {
+        QuizAnswerKey first = quizAnswerKeyCache.get(1L);
+        QuizAnswerKey second = quizAnswerKeyCache.get(1L);
+
+        assertSame(first, second);
+        verify(quizRepository, times(1)).findById(1L);
+        verify(quizRepository, never()).findVersionById(anyLong());
+    }
+
+    @Test
+    @DisplayName("should keep the key when revalidation finds the same version")
+    void shouldKeepKeyWhenVersionUnchanged() {
+        ReflectionTestUtils.setField(quizAnswerKeyCache, "revalidateAfterMs", 0L);
+        when(quizRepository.findVersionById(1L)).thenReturn(Optional.of(new QuizVersion(1L, CREATED, CREATED, 1L)));
+
+        QuizAnswerKey first = quizAnswerKeyCache.get(1L);
+
+        assertSame(first, quizAnswerKeyCache.get(1L));
+        verify(quizContentRepository, times(1)).findByQuizIdOrderById(1L);
+    }
+
+    @Test
+    @DisplayName("should recompile the key when a question was updated")
+    void shouldRecompileWhenQuestionUpdated() {
+        ReflectionTestUtils.setField(quizAnswerKeyCache, "revalidateAfterMs", 0L);
+        when(quizRepository.findVersionById(1L)).thenReturn(Optional.of(new QuizVersion(1L, CREATED, EDITED, 1L)));
+
+        quizAnswerKeyCache.get(1L);
+        when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(List.of(question(1L, EDITED)));
+        QuizAnswerKey recompiled = quizAnswerKeyCache.get(1L);
+
+        assertEquals(EDITED, recompiled.version().questionsUpdatedAt());
+        verify(quizContentRepository, times(2)).findByQuizIdOrderById(1L);
+    }
+
+    @Test
+    @DisplayName("should drop the key when the quiz was saved or deleted")
+    void shouldEvictOnQuizChanged() {
+        quizAnswerKeyCache.get(1L);
+        quizAnswerKeyCache.get(2L);
+
+        quizAnswerKeyCache.onQuizChanged(QuizChangedEvent.saved(1L));
+        quizAnswerKeyCache.onQuizChanged(QuizChangedEvent.deleted(2L));
+        quizAnswerKeyCache.get(1L);
+
+        assertEquals(1, quizAnswerKeyCache.size());
+        verify(quizRepository, times(2)).findById(1L);
+        verify(quizRepository, never()).findVersionById(anyLong());
+    }
+
+    @Test
+    @DisplayName("should evict least recently used keys above capacity")
+    void shouldEvictLeastRecentlyUsed() {
+        quizAnswerKeyCache.get(1L);
+        quizAnswerKeyCache.get(2L);
+        quizAnswerKeyCache.get(1L);
+        quizAnswerKeyCache.get(3L);
+        quizAnswerKeyCache.get(1L);
+        quizAnswerKeyCache.get(2L);
+
+        assertEquals(2, quizAnswerKeyCache.size());
+        verify(quizRepository, times(1)).findById(1L);
+        verify(quizRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("should fail for unknown quizzes and grade known ones in memory")
+    void shouldGradeInMemory() {
+        when(quizRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> quizAnswerKeyCache.get(99L));
+
+        QuizResultDTO result = quizAnswerKeyCache.get(1L).grade(QuizAnswerRequest.builder()
+                .quizId(1L)
+                .answers(Map.of(10L, List.of("B", "A")))
+                .timeSpent(60)
+                .build());
+        assertEquals(1, result.getTotalQuestions());
+        assertEquals(100, result.getScore());
+        assertEquals("Quiz 1", result.getQuizTitle());
+    }
+
+    private Quiz quiz(Long id) {
+        return Quiz.builder().id(id).title("Quiz " + id).createdAt(CREATED).build();
+    }
+
+    private QuizContent question(Long quizId, LocalDateTime updatedAt) {
+        return QuizContent.builder()
+                .id(quizId * 10)
+                .quizId(quizId)
+                .question("Question " + quizId)
+                .options("[\"A\",\"B\",\"C\"]")
+                .correctAnswer("A,B")
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
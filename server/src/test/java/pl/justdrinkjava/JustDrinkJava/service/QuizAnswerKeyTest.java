@@ -0,0 +1,106 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import pl.justdrinkjava.JustDrinkJava.dto.QuizAnswerRequest;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizResultDTO;
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.entity.QuizContent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("QuizAnswerKey Tests")
+class QuizAnswerKeyTest {
+
+    private static final List<String> OPTIONS = List.of("A", "B", "C", "D");
+
+    @Test
+    @DisplayName("should normalize correct answers to option index masks")
+    void shouldNormalizeCorrectAnswersToMasks() {
+        assertEquals(0b0010L, QuizAnswerKey.Question.maskOf(OPTIONS, "B"));
+        assertEquals(0b1001L, QuizAnswerKey.Question.maskOf(OPTIONS, "A,D"));
+        assertEquals(0b0110L, QuizAnswerKey.Question.maskOf(OPTIONS, "C, B"));
+        assertEquals(0L, QuizAnswerKey.Question.maskOf(OPTIONS, "A,E"));
+        assertEquals(0L, QuizAnswerKey.Question.maskOf(OPTIONS, null));
+    }
+
+    @Test
+    @DisplayName("should grade multi-select answers regardless of order")
+    void shouldGradeMultiSelectAnswersRegardlessOfOrder() {
+        QuizAnswerKey.Question question = QuizAnswerKey.Question.of(1L, "Q", OPTIONS, "A,C");
+
+        assertTrue(question.isAnsweredCorrectly(List.of("C", "A")));
+        assertTrue(question.isAnsweredCorrectly(List.of("A", "C")));
+        assertFalse(question.isAnsweredCorrectly(List.of("A")));
+        assertFalse(question.isAnsweredCorrectly(List.of("A", "C", "D")));
+        assertFalse(question.isAnsweredCorrectly(List.of("A", "C", "C")));
+        assertFalse(question.isAnsweredCorrectly(List.of("A", "X")));
+        assertFalse(question.isAnsweredCorrectly(List.of()));
+        assertFalse(question.isAnsweredCorrectly(null));
+    }
+
+    @Test
+    @DisplayName("should keep options containing commas intact")
+    void shouldKeepOptionsContainingCommasIntact() {
+        List<String> options = List.of("Map<K, V>", "List<T>", "Set<T>");
+        QuizAnswerKey.Question single = QuizAnswerKey.Question.of(1L, "Q", options, "Map<K, V>");
+        QuizAnswerKey.Question multi = QuizAnswerKey.Question.of(2L, "Q", List.of("a, b", "c", "d"), "a, b,d");
+
+        assertEquals(0b001L, single.correctMask());
+        assertTrue(single.isAnsweredCorrectly(List.of("Map<K, V>")));
+        assertFalse(single.isAnsweredCorrectly(List.of("Map<K", " V>")));
+        assertEquals(0L, multi.correctMask());
+        assertTrue(multi.isAnsweredCorrectly(List.of("d", "a, b")));
+    }
+
+    @Test
+    @DisplayName("should fall back to text comparison when answer does not map to options")
+    void shouldFallBackToTextComparison() {
+        QuizAnswerKey.Question question = QuizAnswerKey.Question.of(1L, "Q", List.of(), "true");
+
+        assertEquals(0L, question.correctMask());
+        assertTrue(question.isAnsweredCorrectly(List.of("true")));
+        assertFalse(question.isAnsweredCorrectly(List.of("false")));
+        assertFalse(QuizAnswerKey.Question.of(2L, "Q", OPTIONS, null).isAnsweredCorrectly(List.of("A")));
+    }
+
+    @Test
+    @DisplayName("should fall back to text comparison above 64 options")
+    void shouldFallBackAboveMaskCapacity() {
+        List<String> options = IntStream.range(0, 65).mapToObj(i -> "O" + i).toList();
+        QuizAnswerKey.Question question = QuizAnswerKey.Question.of(1L, "Q", options, "O1,O64");
+
+        assertEquals(0L, question.correctMask());
+        assertTrue(question.isAnsweredCorrectly(List.of("O64", "O1")));
+    }
+
+    @Test
+    @DisplayName("should compile quiz contents and grade the whole submission")
+    void shouldCompileAndGradeSubmission() {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Quiz quiz = Quiz.builder().id(1L).title("Quiz").createdAt(created).build();
+        List<QuizContent> contents = new ArrayList<>();
+        contents.add(QuizContent.builder().id(10L).quizId(1L).question("Q1").correctAnswer("B").updatedAt(created).build());
+        contents.add(QuizContent.builder().id(11L).quizId(1L).question("Q2").correctAnswer("A,C").updatedAt(created).build());
+
+        QuizAnswerKey key = QuizAnswerKey.compile(quiz, contents, content -> OPTIONS);
+        QuizResultDTO result = key.grade(QuizAnswerRequest.builder()
+                .quizId(1L)
+                .answers(Map.of(10L, List.of("B"), 11L, List.of("C")))
+                .build());
+
+        assertEquals(0b0010L, key.questions().get(0).correctMask());
+        assertEquals(0b0101L, key.questions().get(1).correctMask());
+        assertEquals(1, result.getCorrectAnswers());
+        assertEquals(50, result.getScore());
+        assertTrue(result.getResults().get(0).getIsCorrect());
+        assertFalse(result.getResults().get(1).getIsCorrect());
+    }
+}
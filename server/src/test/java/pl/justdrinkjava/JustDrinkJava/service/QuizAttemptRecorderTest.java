@@ -0,0 +1,118 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import pl.justdrinkjava.JustDrinkJava.entity.QuizAttempt;
+import pl.justdrinkjava.JustDrinkJava.exception.ScoreIngestionRejectedException;
+import pl.justdrinkjava.JustDrinkJava.repository.QuizAttemptRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuizAttemptRecorder Tests")
+class QuizAttemptRecorderTest {
+
+    @Mock
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Mock
+    private UserRankingService userRankingService;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private QuizAttemptRecorder quizAttemptRecorder;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(quizAttemptRecorder, "capacity", 3);
+    }
+
+    @Test
+    @DisplayName("should put the batch back when saving fails and write it on the next flush")
+    void shouldRequeueBatchWhenSavingFails() {
+        when(userRankingService.addScores(anyMap()))
+                .thenThrow(new RuntimeException("Database error"))
+                .thenReturn(Map.of());
+
+        quizAttemptRecorder.record(attempt(1L, 10L, 50));
+        assertThrows(RuntimeException.class, () -> quizAttemptRecorder.flush());
+        assertEquals(1, quizAttemptRecorder.size());
+
+        quizAttemptRecorder.record(attempt(2L, 10L, 30));
+        quizAttemptRecorder.flush();
+
+        verify(quizAttemptRepository).saveAll(argThat(attempts -> ((List<QuizAttempt>) attempts).size() == 2));
+        verify(userRankingService).addScores(Map.of(1L, 12, 2L, 4));
+        assertEquals(0, quizAttemptRecorder.size());
+    }
+
+    @Test
+    @DisplayName("should save the whole batch once and add points of every attempt")
+    void shouldSaveBatchAndAddPointsPerAttempt() {
+        quizAttemptRecorder.record(attempt(1L, 10L, 50));
+        quizAttemptRecorder.record(attempt(1L, 10L, 80));
+        quizAttemptRecorder.record(attempt(2L, 10L, 40));
+        quizAttemptRecorder.flush();
+
+        verify(quizAttemptRepository, times(1)).saveAll(argThat(attempts -> ((List<QuizAttempt>) attempts).size() == 3));
+        verify(userRankingService).addScores(Map.of(1L, 12 + 32, 2L, 8));
+        assertEquals(0, quizAttemptRecorder.size());
+    }
+
+    @Test
+    @DisplayName("should not touch rankings when no attempt earns points")
+    void shouldSkipRankingsWithoutPoints() {
+        quizAttemptRecorder.record(attempt(1L, 10L, 0));
+        quizAttemptRecorder.flush();
+
+        verify(quizAttemptRepository).saveAll(anyList());
+        verifyNoInteractions(userRankingService);
+    }
+
+    @Test
+    @DisplayName("should reject attempts when the queue is full")
+    void shouldRejectWhenFull() {
+        quizAttemptRecorder.record(attempt(1L, 10L, 10));
+        quizAttemptRecorder.record(attempt(2L, 10L, 10));
+        quizAttemptRecorder.record(attempt(3L, 10L, 10));
+
+        assertThrows(ScoreIngestionRejectedException.class, () -> quizAttemptRecorder.record(attempt(4L, 10L, 10)));
+    }
+
+    @Test
+    @DisplayName("should do nothing when no attempt is queued")
+    void shouldSkipEmptyFlush() {
+        quizAttemptRecorder.flush();
+
+        verifyNoInteractions(quizAttemptRepository, userRankingService);
+    }
+
+    private QuizAttempt attempt(Long userId, Long quizId, int score) {
+        return QuizAttempt.builder()
+                .userId(userId)
+                .quizId(quizId)
+                .score(score)
+                .correctAnswers(score / 10)
+                .totalQuestions(10)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 12, 0))
+                .build();
+    }
+}
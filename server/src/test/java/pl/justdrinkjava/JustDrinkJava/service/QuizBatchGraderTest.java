@@ -0,0 +1,77 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import pl.justdrinkjava.JustDrinkJava.dto.QuizAnswerRequest;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizResultDTO;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizVersion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("QuizBatchGrader Tests")
+class QuizBatchGraderTest {
+
+    private final QuizBatchGrader quizBatchGrader = new QuizBatchGrader(4, 2);
+
+    @AfterEach
+    void tearDown() {
+        quizBatchGrader.shutdown();
+    }
+
+    @Test
+    @DisplayName("should grade large batches in parallel and keep submission order")
+    void shouldGradeLargeBatchesInOrder() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<QuizAnswerKey> keys = new ArrayList<>();
+        List<QuizAnswerRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            keys.add(key(i % 3 + 1L));
+            requests.add(request(i % 3 + 1L, i % 2 == 0 ? "A" : "B", threads));
+        }
+
+        List<QuizResultDTO> results = quizBatchGrader.grade(keys, requests);
+
+        assertEquals(200, results.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 3 + 1L, results.get(i).getQuizId());
+            assertEquals(i % 2 == 0 ? 100 : 0, results.get(i).getScore());
+        }
+        assertTrue(threads.stream().anyMatch(name -> name.startsWith("quiz-grading-")));
+    }
+
+    @Test
+    @DisplayName("should grade small batches in the calling thread")
+    void shouldGradeSmallBatchesInCallingThread() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<QuizResultDTO> results = quizBatchGrader.grade(
+                List.of(key(1L), key(1L)), List.of(request(1L, "A", threads), request(1L, "C", threads)));
+
+        assertEquals(List.of(100, 0), results.stream().map(QuizResultDTO::getScore).toList());
+        assertEquals(Set.of(Thread.currentThread().getName()), threads);
+    }
+
+    private QuizAnswerKey key(Long quizId) {
+        QuizAnswerKey.Question question = QuizAnswerKey.Question.of(quizId * 10, "Q", List.of("A", "B", "C"), "A");
+        return new QuizAnswerKey(quizId, "Quiz " + quizId, new QuizVersion(quizId, null, null, 1L), List.of(question));
+    }
+
+    private QuizAnswerRequest request(Long quizId, String answer, Set<String> threads) {
+        Map<Long, List<String>> answers = Map.of(quizId * 10, List.of(answer));
+        return new QuizAnswerRequest(quizId, answers, null) {
+            @Override
+            public Map<Long, List<String>> getAnswers() {
+                threads.add(Thread.currentThread().getName());
+                return answers;
+            }
+        };
+    }
+}
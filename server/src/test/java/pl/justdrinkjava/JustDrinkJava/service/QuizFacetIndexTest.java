@@ -0,0 +1,114 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import pl.justdrinkjava.JustDrinkJava.dto.QuizFacet;
+import pl.justdrinkjava.JustDrinkJava.dto.QuizFacetsDTO;
+import pl.justdrinkjava.JustDrinkJava.entity.Quiz;
+import pl.justdrinkjava.JustDrinkJava.event.QuizChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.repository.QuizRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QuizFacetIndex Tests")
+class QuizFacetIndexTest {
+
+    private static final QuizFacet JAVA_EASY = new QuizFacet("Java", Quiz.Difficulty.EASY);
+    private static final QuizFacet JAVA_HARD = new QuizFacet("Java", Quiz.Difficulty.HARD);
+    private static final QuizFacet SPRING_EASY = new QuizFacet("Spring", Quiz.Difficulty.EASY);
+
+    @Mock
+    private QuizRepository quizRepository;
+
+    @InjectMocks
+    private QuizFacetIndex quizFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "Java", Quiz.Difficulty.EASY});
+        rows.add(new Object[]{2L, "Java", Quiz.Difficulty.EASY});
+        rows.add(new Object[]{3L, "Java", Quiz.Difficulty.HARD});
+        rows.add(new Object[]{4L, "Spring", Quiz.Difficulty.EASY});
+        lenient().when(quizRepository.findAllFacets()).thenReturn(rows);
+    }
+
+    @Test
+    @DisplayName("should aggregate counts per category, difficulty and combination")
+    void shouldAggregateCounts() {
+        quizFacetIndex.rebuild();
+
+        QuizFacetsDTO facets = quizFacetIndex.getFacets();
+
+        assertEquals(4L, facets.getTotal());
+        assertEquals(Map.of("Java", 3L, "Spring", 1L), facets.getCategories());
+        assertEquals(Map.of(Quiz.Difficulty.EASY, 3L, Quiz.Difficulty.HARD, 1L), facets.getDifficulties());
+        assertEquals(List.of("Java:EASY:2", "Java:HARD:1", "Spring:EASY:1"), facets.getCombinations().stream()
+                .map(c -> c.getCategory() + ":" + c.getDifficulty() + ":" + c.getCount())
+                .toList());
+        assertEquals(2L, quizFacetIndex.count(JAVA_EASY));
+        assertEquals(0L, quizFacetIndex.count(new QuizFacet("Java", Quiz.Difficulty.MEDIUM)));
+    }
+
+    @Test
+    @DisplayName("should build lazily on first read")
+    void shouldBuildLazilyOnFirstRead() {
+        assertFalse(quizFacetIndex.isReady());
+
+        assertEquals(1L, quizFacetIndex.count(SPRING_EASY));
+        quizFacetIndex.getFacets();
+
+        assertTrue(quizFacetIndex.isReady());
+        verify(quizRepository, times(1)).findAllFacets();
+    }
+
+    @Test
+    @DisplayName("should move a quiz between counters when its facet changes")
+    void shouldMoveQuizBetweenCounters() {
+        quizFacetIndex.rebuild();
+        when(quizRepository.findFacetById(1L)).thenReturn(Optional.of(JAVA_HARD));
+
+        quizFacetIndex.onQuizChanged(QuizChangedEvent.saved(1L));
+
+        assertEquals(1L, quizFacetIndex.count(JAVA_EASY));
+        assertEquals(2L, quizFacetIndex.count(JAVA_HARD));
+        assertEquals(4L, quizFacetIndex.getFacets().getTotal());
+    }
+
+    @Test
+    @DisplayName("should count new quizzes and drop deleted ones")
+    void shouldCountNewAndDropDeletedQuizzes() {
+        quizFacetIndex.rebuild();
+        when(quizRepository.findFacetById(5L)).thenReturn(Optional.of(new QuizFacet("Kotlin", Quiz.Difficulty.MEDIUM)));
+
+        quizFacetIndex.onQuizChanged(QuizChangedEvent.saved(5L));
+        quizFacetIndex.onQuizChanged(QuizChangedEvent.deleted(4L));
+
+        QuizFacetsDTO facets = quizFacetIndex.getFacets();
+        assertEquals(4L, facets.getTotal());
+        assertEquals(Map.of("Java", 3L, "Kotlin", 1L), facets.getCategories());
+        assertEquals(0L, quizFacetIndex.count(SPRING_EASY));
+        verify(quizRepository, never()).findFacetById(4L);
+    }
+
+    @Test
+    @DisplayName("should ignore events before the index is built")
+    void shouldIgnoreEventsBeforeBuild() {
+        quizFacetIndex.onQuizChanged(QuizChangedEvent.saved(1L));
+
+        verifyNoInteractions(quizRepository);
+    }
+}
@@ -0,0 +1,98 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Porównanie oceniania odpowiedzi całego quizu: dawna ścieżka (sortowanie i łączenie odpowiedzi
+ * w tekst dla każdego pytania) oraz porównanie masek bitowych indeksów opcji.
+ * Uruchomienie: {@code mvn test-compile}, następnie metoda {@link #main(String[])} z classpath testów.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuizGradingBenchmark {
+
+    private static final List<String> OPTIONS = List.of(
+            "Java Virtual Machine", "Garbage Collector", "Just-In-Time Compiler", "Class Loader");
+
+    @Param({"10", "50", "200"})
+    private int questionCount;
+
+    private List<QuizAnswerKey.Question> questions;
+    private List<List<String>> answers;
+
+    @Setup
+    public void setUp() {
+        questions = new ArrayList<>(questionCount);
+        answers = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            if (i % 2 == 0) {
+                questions.add(QuizAnswerKey.Question.of((long) i, "Q" + i, OPTIONS, OPTIONS.get(i % 4)));
+                answers.add(List.of(OPTIONS.get(i % 4)));
+            } else {
+                questions.add(QuizAnswerKey.Question.of((long) i, "Q" + i, OPTIONS,
+                        OPTIONS.get(3) + "," + OPTIONS.get(1) + "," + OPTIONS.get(0)));
+                answers.add(List.of(OPTIONS.get(0), OPTIONS.get(3), OPTIONS.get(1)));
+            }
+        }
+    }
+
+    @Benchmark
+    public int sortAndJoin() {
+        int correct = 0;
+        for (int i = 0; i < questionCount; i++) {
+            if (matchesJoined(questions.get(i).correctAnswer(), answers.get(i))) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    @Benchmark
+    public int bitmask() {
+        int correct = 0;
+        for (int i = 0; i < questionCount; i++) {
+            if (questions.get(i).isAnsweredCorrectly(answers.get(i))) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    private static boolean matchesJoined(String correctAnswer, List<String> userAnswers) {
+        if (userAnswers == null || userAnswers.isEmpty()) {
+            return false;
+        }
+        if (userAnswers.size() == 1) {
+            return correctAnswer.equals(userAnswers.get(0));
+        }
+        return correctAnswer.equals(String.join(",", userAnswers.stream().sorted().toList()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QuizGradingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
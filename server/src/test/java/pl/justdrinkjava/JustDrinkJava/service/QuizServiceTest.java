@@ -3,7 +3,6 @@ package pl.justdrinkjava.JustDrinkJava.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -41,7 +40,12 @@ class QuizServiceTest {
     @Mock
     private QuizContentMapper quizContentMapper;
 
-    @InjectMocks
+    @Mock
+    private QuizAttemptRecorder quizAttemptRecorder;
+
+    @Mock
+    private QuizFacetIndex quizFacetIndex;
+
     private QuizService quizService;
 
     private Quiz quiz;
@@ -55,6 +59,10 @@ class QuizServiceTest {
 
     @BeforeEach
     void setUp() {
+        quizService = new QuizService(quizRepository, quizContentRepository, quizMapper, quizContentMapper,
+                quizAttemptRecorder, new QuizAnswerKeyCache(quizRepository, quizContentRepository, quizContentMapper),
+                new QuizBatchGrader(2, 4), quizFacetIndex);
+
         quiz = Quiz.builder()
                 .id(1L)
                 .userId(1L)
@@ -116,33 +124,56 @@ class QuizServiceTest {
     }
 
     @Test
-    void getAllQuizzes_ShouldReturnPageOfQuizzes() {
+    void getAllQuizzes_ShouldReturnSummariesFromAggregateQuery() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Quiz> quizPage = new PageImpl<>(List.of(quiz), pageable, 1);
-        when(quizRepository.findAll(pageable)).thenReturn(quizPage);
-        when(quizMapper.toDTO(quiz)).thenReturn(quizDTO);
+        QuizSummary summary = summary();
+        when(quizRepository.findSummaries(pageable)).thenReturn(new PageImpl<>(List.of(summary), pageable, 1));
 
-        Page<QuizDTO> result = quizService.getAllQuizzes(pageable);
+        Page<QuizSummary> result = quizService.getAllQuizzes(pageable);
 
         assertThat(result).isNotNull();
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().get(0)).isEqualTo(quizDTO);
-        verify(quizRepository).findAll(pageable);
-        verify(quizMapper).toDTO(quiz);
+        assertThat(result.getContent()).containsExactly(summary);
+        verify(quizRepository).findSummaries(pageable);
+        verify(quizRepository, never()).findAll(any(Pageable.class));
+        verifyNoInteractions(quizMapper, quizContentRepository);
     }
 
     @Test
     void getAllQuizzes_WithEmptyResult_ShouldReturnEmptyPage() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Quiz> emptyPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
-        when(quizRepository.findAll(pageable)).thenReturn(emptyPage);
+        when(quizRepository.findSummaries(pageable)).thenReturn(new PageImpl<>(Collections.emptyList(), pageable, 0));
 
-        Page<QuizDTO> result = quizService.getAllQuizzes(pageable);
+        Page<QuizSummary> result = quizService.getAllQuizzes(pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).isEmpty();
-        verify(quizRepository).findAll(pageable);
-        verify(quizMapper, never()).toDTO(any());
+        verify(quizRepository).findSummaries(pageable);
+    }
+
+    @Test
+    void getQuizzesByFacet_ShouldPageIndexedQueryWithCountFromFacetIndex() {
+        Pageable pageable = PageRequest.of(1, 1);
+        QuizFacet facet = new QuizFacet("Programming", Quiz.Difficulty.MEDIUM);
+        QuizSummary summary = summary();
+        when(quizRepository.findSummariesByFacet("Programming", Quiz.Difficulty.MEDIUM, pageable))
+                .thenReturn(List.of(summary));
+        when(quizFacetIndex.count(facet)).thenReturn(3L);
+
+        Page<QuizSummary> result = quizService.getQuizzesByFacet(facet, pageable);
+
+        assertThat(result.getContent()).containsExactly(summary);
+        assertThat(result.getTotalElements()).isEqualTo(3);
+        assertThat(result.getTotalPages()).isEqualTo(3);
+        verify(quizRepository, never()).findSummaries(any());
+    }
+
+    @Test
+    void getFacets_ShouldServeCountsFromFacetIndex() {
+        QuizFacetsDTO facets = QuizFacetsDTO.builder().total(4L).build();
+        when(quizFacetIndex.getFacets()).thenReturn(facets);
+
+        assertThat(quizService.getFacets()).isSameAs(facets);
+        verifyNoInteractions(quizRepository);
     }
 
     @Test
@@ -173,6 +204,28 @@ class QuizServiceTest {
         verify(quizMapper, never()).toDTO(any());
     }
 
+    @Test
+    void getQuizVersion_ShouldCombineQuizAndQuestionTimestamps() {
+        LocalDateTime quizUpdatedAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        LocalDateTime questionsUpdatedAt = LocalDateTime.of(2024, 2, 1, 12, 0);
+        when(quizRepository.findVersionById(1L))
+                .thenReturn(Optional.of(new QuizVersion(1L, quizUpdatedAt, questionsUpdatedAt, 3L)));
+
+        String version = quizService.getQuizVersion(1L);
+
+        assertThat(version).isEqualTo("1:" + quizUpdatedAt + ":" + questionsUpdatedAt + ":3");
+        verify(quizContentRepository, never()).findByQuizIdOrderById(anyLong());
+    }
+
+    @Test
+    void getQuizVersion_WhenQuizNotFound_ShouldThrowException() {
+        when(quizRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> quizService.getQuizVersion(1L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Quiz nie został znaleziony: 1");
+    }
+
     @Test
     void getQuizQuestionsForSolving_ShouldReturnQuestionsWithoutAnswers() {
         when(quizRepository.existsById(1L)).thenReturn(true);
@@ -206,7 +259,7 @@ class QuizServiceTest {
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
         when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(quizContentList);
 
-        QuizResultDTO result = quizService.checkAnswers(answerRequest, user);
+        QuizResultDTO result = quizService.checkAnswers(answerRequest, user.getId());
 
         assertThat(result).isNotNull();
         assertThat(result.getQuizId()).isEqualTo(1L);
@@ -217,9 +270,37 @@ class QuizServiceTest {
         assertThat(result.getTimeSpent()).isEqualTo(300);
         assertThat(result.getResults()).hasSize(1);
         assertThat(result.getResults().get(0).getIsCorrect()).isTrue();
+        assertThat(result.getPointsAwarded()).isEqualTo(5);
 
         verify(quizRepository).findById(1L);
         verify(quizContentRepository).findByQuizIdOrderById(1L);
+        verify(quizAttemptRecorder).record(argThat(attempt -> attempt.getUserId().equals(user.getId())
+                && attempt.getQuizId() == 1L && attempt.getScore() == 100 && attempt.getTimeSpent() == 300));
+    }
+
+    @Test
+    void checkAnswers_RepeatedSubmissions_ShouldGradeFromCachedAnswerKey() {
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(quizContentList);
+
+        quizService.checkAnswers(answerRequest, null);
+        QuizResultDTO second = quizService.checkAnswers(answerRequest, null);
+
+        assertThat(second.getScore()).isEqualTo(100);
+        verify(quizRepository, times(1)).findById(1L);
+        verify(quizContentRepository, times(1)).findByQuizIdOrderById(1L);
+    }
+
+    @Test
+    void checkAnswers_WithAnonymousUser_ShouldNotRecordAttempt() {
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(quizContentList);
+
+        QuizResultDTO result = quizService.checkAnswers(answerRequest, null);
+
+        assertThat(result.getScore()).isEqualTo(100);
+        assertThat(result.getPointsAwarded()).isNull();
+        verifyNoInteractions(quizAttemptRecorder);
     }
 
     @Test
@@ -234,7 +315,7 @@ class QuizServiceTest {
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
         when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(quizContentList);
 
-        QuizResultDTO result = quizService.checkAnswers(wrongRequest, user);
+        QuizResultDTO result = quizService.checkAnswers(wrongRequest, user.getId());
 
         assertThat(result).isNotNull();
         assertThat(result.getScore()).isEqualTo(0);
@@ -257,7 +338,7 @@ class QuizServiceTest {
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
         when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(quizContentList);
 
-        QuizResultDTO result = quizService.checkAnswers(emptyRequest, user);
+        QuizResultDTO result = quizService.checkAnswers(emptyRequest, user.getId());
 
         assertThat(result).isNotNull();
         assertThat(result.getScore()).isEqualTo(0);
@@ -276,7 +357,7 @@ class QuizServiceTest {
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
         when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(quizContentList);
 
-        QuizResultDTO result = quizService.checkAnswers(noAnswersRequest, user);
+        QuizResultDTO result = quizService.checkAnswers(noAnswersRequest, user.getId());
 
         assertThat(result).isNotNull();
         assertThat(result.getScore()).isEqualTo(0);
@@ -288,7 +369,7 @@ class QuizServiceTest {
     void checkAnswers_WhenQuizNotFound_ShouldThrowException() {
         when(quizRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> quizService.checkAnswers(answerRequest, user))
+        assertThatThrownBy(() -> quizService.checkAnswers(answerRequest, user.getId()))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Quiz nie został znaleziony: 1");
 
@@ -301,7 +382,7 @@ class QuizServiceTest {
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
         when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(Collections.emptyList());
 
-        assertThatThrownBy(() -> quizService.checkAnswers(answerRequest, user))
+        assertThatThrownBy(() -> quizService.checkAnswers(answerRequest, user.getId()))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Quiz nie zawiera pytań");
 
@@ -347,7 +428,7 @@ class QuizServiceTest {
         when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
         when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(multiAnswerList);
 
-        QuizResultDTO result = quizService.checkAnswers(multiRequest, user);
+        QuizResultDTO result = quizService.checkAnswers(multiRequest, user.getId());
 
         assertThat(result).isNotNull();
         assertThat(result.getTotalQuestions()).isEqualTo(2);
@@ -356,40 +437,89 @@ class QuizServiceTest {
     }
 
     @Test
-    void getQuizzesByCategory_ShouldReturnQuizzesForCategory() {
-        List<Quiz> quizzes = Arrays.asList(quiz);
-        when(quizRepository.findByCategoryOrderByCreatedAtDesc("Programming")).thenReturn(quizzes);
-        when(quizMapper.toDTO(quiz)).thenReturn(quizDTO);
+    void checkAnswersBatch_ShouldLoadEachAnswerKeyOnceAndKeepSubmissionOrder() {
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(quizContentList);
+        QuizAnswerRequest wrongRequest = QuizAnswerRequest.builder()
+                .quizId(1L)
+                .answers(Map.of(1L, List.of("Framework")))
+                .build();
+        List<QuizAnswerRequest> submissions = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            submissions.add(i % 2 == 0 ? answerRequest : wrongRequest);
+        }
+
+        List<QuizBatchResultDTO> results = quizService.checkAnswersBatch(submissions);
+
+        assertThat(results).hasSize(40);
+        for (int i = 0; i < 40; i++) {
+            assertThat(results.get(i).getIndex()).isEqualTo(i);
+            assertThat(results.get(i).getStatus()).isEqualTo("success");
+            assertThat(results.get(i).getResult().getScore()).isEqualTo(i % 2 == 0 ? 100 : 0);
+        }
+        verify(quizRepository, times(1)).findById(1L);
+        verify(quizContentRepository, times(1)).findByQuizIdOrderById(1L);
+        verifyNoInteractions(quizAttemptRecorder);
+    }
 
-        List<QuizDTO> result = quizService.getQuizzesByCategory("Programming");
+    @Test
+    void checkAnswersBatch_ShouldReportFailuresPerSubmission() {
+        when(quizRepository.findById(1L)).thenReturn(Optional.of(quiz));
+        when(quizContentRepository.findByQuizIdOrderById(1L)).thenReturn(quizContentList);
+        when(quizRepository.findById(2L)).thenReturn(Optional.empty());
+        List<QuizAnswerRequest> submissions = List.of(
+                QuizAnswerRequest.builder().quizId(2L).build(),
+                answerRequest,
+                QuizAnswerRequest.builder().build(),
+                QuizAnswerRequest.builder().quizId(2L).build());
+
+        List<QuizBatchResultDTO> results = quizService.checkAnswersBatch(submissions);
+
+        assertThat(results).extracting(QuizBatchResultDTO::getStatus)
+                .containsExactly("error", "success", "error", "error");
+        assertThat(results.get(0).getMessage()).contains("Quiz nie został znaleziony: 2");
+        assertThat(results.get(1).getResult().getScore()).isEqualTo(100);
+        assertThat(results.get(2).getMessage()).isEqualTo("Brak ID quizu");
+        verify(quizRepository, times(1)).findById(2L);
+        verifyNoInteractions(quizAttemptRecorder);
+    }
 
-        assertThat(result).isNotNull();
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0)).isEqualTo(quizDTO);
-        verify(quizRepository).findByCategoryOrderByCreatedAtDesc("Programming");
-        verify(quizMapper).toDTO(quiz);
+    @Test
+    void getQuizzesByCategory_ShouldReturnSummariesForCategory() {
+        QuizSummary summary = summary();
+        when(quizRepository.findSummariesByCategory("Programming")).thenReturn(List.of(summary));
+
+        List<QuizSummary> result = quizService.getQuizzesByCategory("Programming");
+
+        assertThat(result).containsExactly(summary);
+        verify(quizRepository).findSummariesByCategory("Programming");
+        verifyNoInteractions(quizMapper, quizContentRepository);
     }
 
     @Test
     void getQuizzesByCategory_WithNonExistentCategory_ShouldReturnEmptyList() {
-        when(quizRepository.findByCategoryOrderByCreatedAtDesc("NonExistent")).thenReturn(Collections.emptyList());
+        when(quizRepository.findSummariesByCategory("NonExistent")).thenReturn(Collections.emptyList());
 
-        List<QuizDTO> result = quizService.getQuizzesByCategory("NonExistent");
+        List<QuizSummary> result = quizService.getQuizzesByCategory("NonExistent");
 
         assertThat(result).isNotNull();
         assertThat(result).isEmpty();
-        verify(quizRepository).findByCategoryOrderByCreatedAtDesc("NonExistent");
-        verify(quizMapper, never()).toDTO(any());
+        verify(quizRepository).findSummariesByCategory("NonExistent");
     }
 
     @Test
     void getQuizzesByCategory_WithNullCategory_ShouldHandleGracefully() {
-        when(quizRepository.findByCategoryOrderByCreatedAtDesc(null)).thenReturn(Collections.emptyList());
+        when(quizRepository.findSummariesByCategory(null)).thenReturn(Collections.emptyList());
 
-        List<QuizDTO> result = quizService.getQuizzesByCategory(null);
+        List<QuizSummary> result = quizService.getQuizzesByCategory(null);
 
         assertThat(result).isNotNull();
         assertThat(result).isEmpty();
-        verify(quizRepository).findByCategoryOrderByCreatedAtDesc(null);
+        verify(quizRepository).findSummariesByCategory(null);
+    }
+
+    private QuizSummary summary() {
+        return new QuizSummary(1L, "Java Basics", "Basic Java concepts", "Programming",
+                Quiz.Difficulty.MEDIUM, 15, quiz.getCreatedAt(), 1L);
     }
-} 
\ No newline at end of file
+}
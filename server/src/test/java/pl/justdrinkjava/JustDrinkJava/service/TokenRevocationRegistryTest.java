@@ -0,0 +1,77 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TokenRevocationRegistry Tests")
+class TokenRevocationRegistryTest {
+
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenRevocationRegistry();
+        ReflectionTestUtils.setField(registry, "capacity", 2);
+        ReflectionTestUtils.setField(registry, "tokenTtlMillis", 3600000L);
+    }
+
+    @Test
+    @DisplayName("should revoke only tokens issued before the cutoff")
+    void shouldRevokeTokensIssuedBeforeCutoff() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        registry.revokeTokensIssuedBefore(1L, now);
+
+        assertTrue(registry.isRevoked(1L, now.minusSeconds(10)));
+        assertFalse(registry.isRevoked(1L, now));
+        assertFalse(registry.isRevoked(1L, now.plusSeconds(5)));
+        assertFalse(registry.isRevoked(2L, now.minusSeconds(10)));
+    }
+
+    @Test
+    @DisplayName("should keep token issued in the same second as the new one valid")
+    void shouldKeepSameSecondTokenValid() {
+        Instant revokedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusMillis(700);
+
+        registry.revokeTokensIssuedBefore(1L, revokedAt);
+
+        assertFalse(registry.isRevoked(1L, revokedAt.truncatedTo(ChronoUnit.SECONDS)));
+    }
+
+    @Test
+    @DisplayName("should keep evicted live revocations in force for everyone when capacity is exceeded")
+    void shouldKeepEvictedRevocationsInForceWhenFull() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        registry.revokeTokensIssuedBefore(1L, now.minusSeconds(30));
+        registry.revokeTokensIssuedBefore(2L, now);
+        registry.revokeTokensIssuedBefore(3L, now);
+
+        Instant old = now.minusSeconds(60);
+        assertTrue(registry.isRevoked(1L, old));
+        assertTrue(registry.isRevoked(2L, old));
+        assertTrue(registry.isRevoked(3L, old));
+        assertTrue(registry.isRevoked(4L, old));
+        assertFalse(registry.isRevoked(1L, now.minusSeconds(30)));
+        assertFalse(registry.isRevoked(4L, now.minusSeconds(10)));
+    }
+
+    @Test
+    @DisplayName("should drop entries older than token lifetime")
+    void shouldDropEntriesOlderThanTokenLifetime() {
+        Instant longAgo = Instant.now().minus(2, ChronoUnit.HOURS);
+
+        registry.revokeTokensIssuedBefore(1L, longAgo);
+        registry.revokeTokensIssuedBefore(2L, Instant.now());
+
+        assertFalse(registry.isRevoked(1L, longAgo.minusSeconds(60)));
+        assertTrue(registry.isRevoked(2L, longAgo));
+    }
+}
@@ -0,0 +1,135 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
+import pl.justdrinkjava.JustDrinkJava.event.UserRankingChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.repository.UserRankingRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TopRankingsSnapshot Tests")
+class TopRankingsSnapshotTest {
+
+    @Mock
+    private UserRankingRepository userRankingRepository;
+
+    @InjectMocks
+    private TopRankingsSnapshot topRankingsSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(topRankingsSnapshot, "capacity", 3);
+    }
+
+    @Test
+    @DisplayName("should load snapshot once and serve prefixes from memory")
+    void shouldServePrefixesFromMemory() {
+        when(userRankingRepository.findTopRankings(3)).thenReturn(rankings(300, 200, 100));
+
+        List<UserRankingDto> top2 = topRankingsSnapshot.getTop(2);
+        List<UserRankingDto> top3 = topRankingsSnapshot.getTop(3);
+
+        assertEquals(List.of(1L, 2L), userIds(top2));
+        assertEquals(List.of(1, 2, 3), top3.stream().map(UserRankingDto::getRanking).collect(Collectors.toList()));
+        assertEquals(1L, topRankingsSnapshot.getVersion());
+        verify(userRankingRepository, times(1)).findTopRankings(anyInt());
+    }
+
+    @Test
+    @DisplayName("should hand out copies that callers cannot use to change the snapshot")
+    void shouldHandOutCopies() {
+        when(userRankingRepository.findTopRankings(3)).thenReturn(rankings(300, 200, 100));
+
+        UserRankingDto first = topRankingsSnapshot.getTop(3).get(0);
+        first.setTotalScore(0);
+        first.setRanking(99);
+
+        UserRankingDto reread = topRankingsSnapshot.getTop(3).get(0);
+        assertNotSame(first, reread);
+        assertEquals(300, reread.getTotalScore());
+        assertEquals(1, reread.getRanking());
+    }
+
+    @Test
+    @DisplayName("should query database directly for limits above snapshot size")
+    void shouldQueryDatabaseForLargeLimits() {
+        when(userRankingRepository.findTopRankings(10)).thenReturn(rankings(300, 200, 100, 50));
+
+        assertEquals(4, topRankingsSnapshot.getTop(10).size());
+        assertEquals(0L, topRankingsSnapshot.getVersion());
+    }
+
+    @Test
+    @DisplayName("should ignore score changes below the cutoff")
+    void shouldIgnoreScoreChangesBelowCutoff() {
+        when(userRankingRepository.findTopRankings(3)).thenReturn(rankings(300, 200, 100));
+        topRankingsSnapshot.getTop(3);
+
+        topRankingsSnapshot.onUserRankingChanged(UserRankingChangedEvent.scoreChanged(9L, 99));
+        topRankingsSnapshot.onUserRankingChanged(UserRankingChangedEvent.profileChanged(9L));
+
+        assertEquals(1L, topRankingsSnapshot.getVersion());
+        verify(userRankingRepository, times(1)).findTopRankings(anyInt());
+    }
+
+    @Test
+    @DisplayName("should rebuild when a score crosses the cutoff or a listed user changes")
+    void shouldRebuildWhenTopIsAffected() {
+        when(userRankingRepository.findTopRankings(3))
+                .thenReturn(rankings(300, 200, 100))
+                .thenReturn(rankings(300, 200, 150))
+                .thenReturn(rankings(300, 200, 150));
+        topRankingsSnapshot.getTop(3);
+
+        topRankingsSnapshot.onUserRankingChanged(UserRankingChangedEvent.scoreChanged(9L, 150));
+        topRankingsSnapshot.onUserRankingChanged(UserRankingChangedEvent.profileChanged(2L));
+
+        assertEquals(3L, topRankingsSnapshot.getVersion());
+        assertEquals(150, topRankingsSnapshot.getTop(3).get(2).getTotalScore());
+    }
+
+    @Test
+    @DisplayName("should rebuild on any score change while the top is not full")
+    void shouldRebuildWhileTopIsNotFull() {
+        when(userRankingRepository.findTopRankings(3)).thenReturn(rankings(300)).thenReturn(rankings(300, 0));
+        topRankingsSnapshot.getTop(3);
+
+        topRankingsSnapshot.onUserRankingChanged(UserRankingChangedEvent.scoreChanged(9L, 0));
+
+        assertEquals(2, topRankingsSnapshot.getTop(3).size());
+    }
+
+    @Test
+    @DisplayName("should not build snapshot from events before first read")
+    void shouldNotBuildBeforeFirstRead() {
+        topRankingsSnapshot.onUserRankingChanged(UserRankingChangedEvent.scoreChanged(1L, 1000));
+
+        verifyNoInteractions(userRankingRepository);
+    }
+
+    private List<UserRankingDto> rankings(int... scores) {
+        List<UserRankingDto> rankings = new ArrayList<>();
+        for (int i = 0; i < scores.length; i++) {
+            rankings.add(UserRankingDto.builder().userId(i + 1L).totalScore(scores[i]).build());
+        }
+        return rankings;
+    }
+
+    private List<Long> userIds(List<UserRankingDto> rankings) {
+        return rankings.stream().map(UserRankingDto::getUserId).collect(Collectors.toList());
+    }
+}
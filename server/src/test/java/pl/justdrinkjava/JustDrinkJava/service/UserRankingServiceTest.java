@@ -3,13 +3,21 @@ package pl.justdrinkjava.JustDrinkJava.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import pl.justdrinkjava.JustDrinkJava.dto.UpdateScoreRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingCursor;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingPageResponse;
+import pl.justdrinkjava.JustDrinkJava.dto.RankingWindow;
 import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
 import pl.justdrinkjava.JustDrinkJava.entity.User;
 import pl.justdrinkjava.JustDrinkJava.entity.UserRanking;
+import pl.justdrinkjava.JustDrinkJava.event.UserRankingChangedEvent;
+import pl.justdrinkjava.JustDrinkJava.event.UserScoreDeltaEvent;
+import pl.justdrinkjava.JustDrinkJava.exception.InvalidCursorException;
 import pl.justdrinkjava.JustDrinkJava.repository.UserRankingRepository;
 import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
 
@@ -17,6 +25,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -32,15 +41,25 @@ class UserRankingServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private WindowedLeaderboard windowedLeaderboard;
+
+    private LeaderboardIndex leaderboardIndex;
+
     private UserRankingServiceImpl userRankingService;
 
     private User testUser;
     private UserRanking testRanking;
-    private UpdateScoreRequest updateScoreRequest;
 
     @BeforeEach
     void setUp() {
+        leaderboardIndex = new LeaderboardIndex(userRankingRepository);
+        userRankingService = new UserRankingServiceImpl(userRankingRepository, userRepository, leaderboardIndex,
+                new TopRankingsSnapshot(userRankingRepository), windowedLeaderboard, eventPublisher);
+
         testUser = User.builder()
                 .id(1L)
                 .email("test@example.com")
@@ -55,103 +74,137 @@ class UserRankingServiceTest {
                 .ranking(5)
                 .updatedAt(LocalDateTime.now())
                 .build();
-
-        updateScoreRequest = new UpdateScoreRequest(1L, 750);
     }
 
     @Test
-    void updateUserScore_WithExistingUser_ShouldUpdateScore() {
-        UserRanking updatedRanking = UserRanking.builder()
-                .id(1L)
-                .userId(1L)
-                .totalScore(750) // updated score
-                .ranking(3) // new ranking (2 + 1)
-                .updatedAt(LocalDateTime.now())
-                .build();
-        
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRankingRepository.findByUserId(1L)).thenReturn(Optional.of(testRanking));
-        when(userRankingRepository.countUsersWithScoreHigherThan(750)).thenReturn(2L);
-        when(userRankingRepository.save(any(UserRanking.class))).thenReturn(updatedRanking);
-
-        UserRankingDto result = userRankingService.updateUserScore(updateScoreRequest);
+    void addScores_InTransaction_ShouldMoveIndexOnlyAfterCommit() {
+        UserRanking other = UserRanking.builder().id(2L).userId(2L).totalScore(600).ranking(1).build();
+        leaderboardIndex.rebuild(List.of(other, testRanking));
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(testUser));
+        when(userRankingRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(testRanking), List.of(stored(1L, 750)));
+        when(userRankingRepository.addToTotalScore(eq(1L), eq(250), any(LocalDateTime.class))).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Map<Long, UserRankingDto> result = userRankingService.addScores(Map.of(1L, 250));
+
+            assertThat(result.get(1L).getRanking()).isEqualTo(1);
+            assertThat(leaderboardIndex.find(1L)).map(LeaderboardIndex.Standing::totalScore).contains(500);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(leaderboardIndex.find(1L)).map(LeaderboardIndex.Standing::rank).contains(1);
+        assertThat(leaderboardIndex.find(1L)).map(LeaderboardIndex.Standing::totalScore).contains(750);
+    }
 
-        assertThat(result).isNotNull();
-        assertThat(result.getUserId()).isEqualTo(1L);
-        assertThat(result.getUsername()).isEqualTo("testuser");
-        assertThat(result.getTotalScore()).isEqualTo(750); // from updated ranking
-        assertThat(result.getRanking()).isEqualTo(3); // from updated ranking
+    @Test
+    void getWindowTopRankings_ShouldUseWindowedLeaderboardForRollingWindows() {
+        when(windowedLeaderboard.getTop(RankingWindow.WEEK, 5)).thenReturn(List.of(UserRankingDto.builder().userId(1L).build()));
 
-        verify(userRepository).findById(1L);
-        verify(userRankingRepository).findByUserId(1L);
-        verify(userRankingRepository).countUsersWithScoreHigherThan(750);
-        verify(userRankingRepository).save(any(UserRanking.class));
+        assertThat(userRankingService.getWindowTopRankings(RankingWindow.WEEK, 5)).hasSize(1);
+        verify(windowedLeaderboard).getTop(RankingWindow.WEEK, 5);
+        verifyNoInteractions(userRankingRepository);
     }
 
     @Test
-    void updateUserScore_WithNewUser_ShouldCreateNewRanking() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRankingRepository.findByUserId(1L)).thenReturn(Optional.empty());
-        when(userRankingRepository.countUsersWithScoreHigherThan(750)).thenReturn(3L);
-        
-        UserRanking newRanking = UserRanking.builder()
-                .id(2L)
-                .userId(1L)
-                .totalScore(750)
-                .ranking(4)
-                .updatedAt(LocalDateTime.now())
-                .build();
-        
-        when(userRankingRepository.save(any(UserRanking.class))).thenReturn(newRanking);
+    void addScores_ShouldUpdateEachRowAtomicallyAndPublishSingleEvent() {
+        User secondUser = User.builder().id(2L).email("second@example.com").password("password123").build();
+        leaderboardIndex.rebuild(List.of(testRanking));
+        when(userRepository.findAllById(anyCollection())).thenReturn(Arrays.asList(testUser, secondUser));
+        when(userRankingRepository.findByUserIdIn(anyCollection())).thenReturn(
+                List.of(testRanking),
+                List.of(stored(1L, 540), stored(2L, 900)));
+        when(userRankingRepository.addToTotalScore(anyLong(), anyInt(), any(LocalDateTime.class))).thenReturn(1);
+
+        Map<Long, UserRankingDto> result = userRankingService.addScores(Map.of(1L, 40, 2L, 900, 99L, 50));
+
+        assertThat(result).containsOnlyKeys(1L, 2L);
+        assertThat(result.get(2L).getRanking()).isEqualTo(1);
+        assertThat(result.get(1L).getRanking()).isEqualTo(2);
+        assertThat(result.get(1L).getTotalScore()).isEqualTo(540);
+        assertThat(leaderboardIndex.size()).isEqualTo(2);
+        verify(userRankingRepository).addToTotalScore(eq(1L), eq(40), any(LocalDateTime.class));
+        verify(userRankingRepository).addToTotalScore(eq(2L), eq(900), any(LocalDateTime.class));
+        verify(userRankingRepository).insertEmptyRanking(eq(2L), any(LocalDateTime.class));
+        verify(userRankingRepository, never()).saveAll(anyList());
+        verify(userRankingRepository, never()).save(any());
+        verify(eventPublisher, times(1)).publishEvent(UserRankingChangedEvent.scoresChanged(Map.of(1L, 540, 2L, 900)));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof UserScoreDeltaEvent delta
+                && delta.deltas().equals(Map.of(1L, 40, 2L, 900))));
+    }
 
-        UserRankingDto result = userRankingService.updateUserScore(updateScoreRequest);
+    @Test
+    void addScores_ShouldAddDeltasWithAtomicUpdates() {
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(testUser));
+        when(userRankingRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(testRanking), List.of(stored(1L, 560)));
+        when(userRankingRepository.addToTotalScore(eq(1L), eq(40), any(LocalDateTime.class))).thenReturn(1);
+        when(userRankingRepository.countUsersWithScoreHigherThan(560)).thenReturn(0L);
+
+        Map<Long, UserRankingDto> result = userRankingService.addScores(Map.of(1L, 40));
+
+        assertThat(result.get(1L).getTotalScore()).isEqualTo(560);
+        verify(userRankingRepository, never()).setTotalScore(anyLong(), anyInt(), any());
+        verify(eventPublisher).publishEvent(UserRankingChangedEvent.scoresChanged(Map.of(1L, 560)));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof UserScoreDeltaEvent delta
+                && delta.deltas().equals(Map.of(1L, 40))));
+    }
 
-        assertThat(result).isNotNull();
-        assertThat(result.getUserId()).isEqualTo(1L);
-        assertThat(result.getTotalScore()).isEqualTo(750);
-        assertThat(result.getRanking()).isEqualTo(4);
+    @Test
+    void addScores_WhenRowInsertedConcurrently_ShouldStillAddPoints() {
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(testUser));
+        when(userRankingRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(), List.of(stored(1L, 30)));
+        when(userRankingRepository.insertEmptyRanking(eq(1L), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key user_id"));
+        when(userRankingRepository.addToTotalScore(eq(1L), eq(30), any(LocalDateTime.class))).thenReturn(1);
+        when(userRankingRepository.countUsersWithScoreHigherThan(30)).thenReturn(0L);
+
+        Map<Long, UserRankingDto> result = userRankingService.addScores(Map.of(1L, 30));
+
+        assertThat(result.get(1L).getTotalScore()).isEqualTo(30);
+        verify(eventPublisher).publishEvent(UserRankingChangedEvent.scoresChanged(Map.of(1L, 30)));
+    }
 
-        verify(userRankingRepository).save(argThat(ranking -> 
-            ranking.getUserId().equals(1L) &&
-            ranking.getTotalScore().equals(750) &&
-            ranking.getRanking().equals(4)
-        ));
+    @Test
+    void addScores_WhenScoreWouldBeNegative_ShouldClampToZero() {
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(testUser));
+        when(userRankingRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(testRanking), List.of(stored(1L, 0)));
+        when(userRankingRepository.addToTotalScore(eq(1L), eq(-800), any(LocalDateTime.class))).thenReturn(0);
+        when(userRankingRepository.countUsersWithScoreHigherThan(0)).thenReturn(3L);
+
+        Map<Long, UserRankingDto> result = userRankingService.addScores(Map.of(1L, -800));
+
+        assertThat(result.get(1L).getTotalScore()).isZero();
+        verify(userRankingRepository).setTotalScore(eq(1L), eq(0), any(LocalDateTime.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof UserScoreDeltaEvent delta
+                && delta.deltas().equals(Map.of(1L, -500))));
     }
 
     @Test
-    void updateUserScore_WhenUserNotFound_ShouldThrowException() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+    void addScores_WhenIndexNotReady_ShouldCountRanksFromDatabase() {
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(testUser));
+        when(userRankingRepository.findByUserIdIn(anyCollection())).thenReturn(Collections.emptyList(), List.of(stored(1L, 750)));
+        when(userRankingRepository.addToTotalScore(eq(1L), eq(750), any(LocalDateTime.class))).thenReturn(1);
+        when(userRankingRepository.countUsersWithScoreHigherThan(750)).thenReturn(4L);
 
-        assertThatThrownBy(() -> userRankingService.updateUserScore(updateScoreRequest))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessageContaining("Użytkownik nie został znaleziony");
+        Map<Long, UserRankingDto> result = userRankingService.addScores(Map.of(1L, 750));
 
-        verify(userRepository).findById(1L);
-        verify(userRankingRepository, never()).findByUserId(anyLong());
-        verify(userRankingRepository, never()).save(any());
+        assertThat(result.get(1L).getRanking()).isEqualTo(5);
+        assertThat(result.get(1L).getTotalScore()).isEqualTo(750);
     }
 
     @Test
-    void updateUserScore_WithSignificantRankingChange_ShouldRecalculateRankings() {
-        UserRanking oldRanking = UserRanking.builder()
-                .id(1L)
-                .userId(1L)
-                .totalScore(100)
-                .ranking(10)
-                .updatedAt(LocalDateTime.now())
-                .build();
+    void addScores_WithOnlyUnknownUsers_ShouldNotPublishEvent() {
+        when(userRepository.findAllById(anyCollection())).thenReturn(Collections.emptyList());
+        when(userRankingRepository.findByUserIdIn(anyCollection())).thenReturn(Collections.emptyList());
 
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRankingRepository.findByUserId(1L)).thenReturn(Optional.of(oldRanking));
-        when(userRankingRepository.countUsersWithScoreHigherThan(1000)).thenReturn(1L);
-        when(userRankingRepository.save(any(UserRanking.class))).thenReturn(oldRanking);
-        when(userRankingRepository.findAllOrderByTotalScoreDesc()).thenReturn(Arrays.asList(oldRanking));
+        assertThat(userRankingService.addScores(Map.of(99L, 10))).isEmpty();
+        assertThat(userRankingService.addScores(Map.of())).isEmpty();
 
-        UpdateScoreRequest bigScoreRequest = new UpdateScoreRequest(1L, 1000);
-        userRankingService.updateUserScore(bigScoreRequest);
-
-        verify(userRankingRepository).findAllOrderByTotalScoreDesc();
-        verify(userRankingRepository).saveAll(anyList());
+        verify(userRankingRepository, never()).addToTotalScore(anyLong(), anyInt(), any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -280,33 +333,23 @@ class UserRankingServiceTest {
     }
 
     @Test
-    void getTopRankings_ShouldReturnLimitedRankings() {
-        User user1 = User.builder().id(1L).email("user1@test.com").build();
-        user1.setDisplayUsername("user1");
-        User user2 = User.builder().id(2L).email("user2@test.com").build();
-        user2.setDisplayUsername("user2");
-        User user3 = User.builder().id(3L).email("user3@test.com").build();
-        user3.setDisplayUsername("user3");
+    void getTopRankings_ShouldReturnLimitedRankingsFromSnapshot() {
+        UserRankingDto ranking1 = UserRankingDto.builder().userId(1L).username("user1").totalScore(1000).build();
+        UserRankingDto ranking2 = UserRankingDto.builder().userId(2L).username("user2").totalScore(900).build();
+        UserRankingDto ranking3 = UserRankingDto.builder().userId(3L).username("user3").totalScore(800).build();
 
-        UserRanking ranking1 = UserRanking.builder().id(1L).userId(1L).totalScore(1000).ranking(1).build();
-        UserRanking ranking2 = UserRanking.builder().id(2L).userId(2L).totalScore(900).ranking(2).build();
-        UserRanking ranking3 = UserRanking.builder().id(3L).userId(3L).totalScore(800).ranking(3).build();
-
-        when(userRankingRepository.findTopRankings())
+        when(userRankingRepository.findTopRankings(100))
                 .thenReturn(Arrays.asList(ranking1, ranking2, ranking3));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
 
         List<UserRankingDto> result = userRankingService.getTopRankings(2);
+        List<UserRankingDto> again = userRankingService.getTopRankings(3);
 
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getUserId()).isEqualTo(1L);
-        assertThat(result.get(1).getUserId()).isEqualTo(2L);
+        assertThat(result).extracting(UserRankingDto::getUserId).containsExactly(1L, 2L);
+        assertThat(result).extracting(UserRankingDto::getRanking).containsExactly(1, 2);
+        assertThat(again).hasSize(3);
 
-        verify(userRankingRepository).findTopRankings();
-        verify(userRepository).findById(1L);
-        verify(userRepository).findById(2L);
-        verify(userRepository, never()).findById(3L);
+        verify(userRankingRepository, times(1)).findTopRankings(anyInt());
+        verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -315,104 +358,81 @@ class UserRankingServiceTest {
 
         assertThat(result).isEmpty();
 
-        verify(userRankingRepository).findTopRankings();
+        verify(userRankingRepository, never()).findTopRankings(anyInt());
         verify(userRepository, never()).findById(anyLong());
     }
 
     @Test
-    void recalculateAllRankings_ShouldUpdateAllRankingsCorrectly() {
+    void recalculateAllRankings_ShouldUseSetBasedStatementAndRebuildIndex() {
         UserRanking ranking1 = UserRanking.builder()
-                .id(1L).userId(1L).totalScore(1000).ranking(5).build();
+                .id(1L).userId(1L).totalScore(1000).ranking(1).build();
         UserRanking ranking2 = UserRanking.builder()
-                .id(2L).userId(2L).totalScore(900).ranking(3).build();
-        UserRanking ranking3 = UserRanking.builder()
-                .id(3L).userId(3L).totalScore(800).ranking(1).build();
+                .id(2L).userId(2L).totalScore(900).ranking(2).build();
 
+        when(userRankingRepository.recalculateRankings()).thenReturn(2);
         when(userRankingRepository.findAllOrderByTotalScoreDesc())
-                .thenReturn(Arrays.asList(ranking1, ranking2, ranking3));
+                .thenReturn(Arrays.asList(ranking1, ranking2));
 
         userRankingService.recalculateAllRankings();
 
-        verify(userRankingRepository).findAllOrderByTotalScoreDesc();
-        verify(userRankingRepository).saveAll(argThat(rankings -> {
-            List<UserRanking> rankingList = (List<UserRanking>) rankings;
-            return rankingList.get(0).getRanking() == 1 && // ranking1 powinien mieć ranking 1
-                   rankingList.get(1).getRanking() == 2 && // ranking2 powinien mieć ranking 2
-                   rankingList.get(2).getRanking() == 3;   // ranking3 powinien mieć ranking 3
-        }));
+        verify(userRankingRepository).recalculateRankings();
+        verify(userRankingRepository, never()).saveAll(anyList());
+        assertThat(leaderboardIndex.isReady()).isTrue();
+        assertThat(leaderboardIndex.find(2L)).map(LeaderboardIndex.Standing::rank).contains(2);
     }
 
     @Test
-    void recalculateAllRankings_WithEmptyList_ShouldNotCrash() {
+    void recalculateAllRankings_WithEmptyTable_ShouldNotCrash() {
         when(userRankingRepository.findAllOrderByTotalScoreDesc())
                 .thenReturn(Collections.emptyList());
 
         userRankingService.recalculateAllRankings();
 
-        verify(userRankingRepository).findAllOrderByTotalScoreDesc();
-        verify(userRankingRepository).saveAll(Collections.emptyList());
+        verify(userRankingRepository).recalculateRankings();
+        assertThat(leaderboardIndex.size()).isZero();
     }
 
     @Test
-    void updateUserScore_WithScoreDecrease_ShouldUpdateRankingCorrectly() {
-        UserRanking highRanking = UserRanking.builder()
-                .id(1L)
-                .userId(1L)
-                .totalScore(1000)
-                .ranking(1)
-                .updatedAt(LocalDateTime.now())
-                .build();
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRankingRepository.findByUserId(1L)).thenReturn(Optional.of(highRanking));
-        when(userRankingRepository.countUsersWithScoreHigherThan(500)).thenReturn(5L);
-        when(userRankingRepository.save(any(UserRanking.class))).thenReturn(highRanking);
+    void removeUserRanking_ShouldDeleteRowAndDropUserFromIndex() {
+        when(userRankingRepository.findAllOrderByTotalScoreDesc()).thenReturn(List.of(testRanking));
+        leaderboardIndex.rebuild();
+        when(userRankingRepository.deleteByUserId(1L)).thenReturn(1);
 
-        UpdateScoreRequest decreaseRequest = new UpdateScoreRequest(1L, 500);
-        UserRankingDto result = userRankingService.updateUserScore(decreaseRequest);
+        userRankingService.removeUserRanking(1L);
+        userRankingService.refreshPersistedRankings();
 
-        assertThat(result).isNotNull();
-        verify(userRankingRepository).save(argThat(ranking -> 
-            ranking.getTotalScore().equals(500) &&
-            ranking.getRanking().equals(6) // 5 + 1
-        ));
+        verify(userRankingRepository).deleteByUserId(1L);
+        verify(userRankingRepository).recalculateRankings();
+        assertThat(leaderboardIndex.find(1L)).isEmpty();
     }
 
     @Test
-    void updateUserScore_WithSameScore_ShouldNotTriggerRecalculation() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRankingRepository.findByUserId(1L)).thenReturn(Optional.of(testRanking));
-        when(userRankingRepository.countUsersWithScoreHigherThan(500)).thenReturn(4L);
-        when(userRankingRepository.save(any(UserRanking.class))).thenReturn(testRanking);
+    void refreshPersistedRankings_ShouldRunOnlyAfterScoreChange() {
+        stubAddScores(250, 750);
 
-        UpdateScoreRequest sameScoreRequest = new UpdateScoreRequest(1L, 500);
-        userRankingService.updateUserScore(sameScoreRequest);
+        userRankingService.refreshPersistedRankings();
+        verify(userRankingRepository, never()).recalculateRankings();
 
-        verify(userRankingRepository, never()).findAllOrderByTotalScoreDesc();
-        verify(userRankingRepository, never()).saveAll(anyList());
+        userRankingService.addScores(Map.of(1L, 250));
+        userRankingService.refreshPersistedRankings();
+        userRankingService.refreshPersistedRankings();
+
+        verify(userRankingRepository, times(1)).recalculateRankings();
     }
 
     @Test
-    void shouldRecalculateRankings_WithSignificantChange_ShouldReturnTrue() {
-        // Test prywatnej metody poprzez publiczną metodę
-        UserRanking oldRanking = UserRanking.builder()
-                .id(1L)
-                .userId(1L)
-                .totalScore(100)
-                .ranking(10)
-                .build();
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRankingRepository.findByUserId(1L)).thenReturn(Optional.of(oldRanking));
-        when(userRankingRepository.countUsersWithScoreHigherThan(1000)).thenReturn(0L);
-        when(userRankingRepository.save(any(UserRanking.class))).thenReturn(oldRanking);
-        when(userRankingRepository.findAllOrderByTotalScoreDesc()).thenReturn(Arrays.asList(oldRanking));
-
-        UpdateScoreRequest bigChangeRequest = new UpdateScoreRequest(1L, 1000);
-        userRankingService.updateUserScore(bigChangeRequest);
-
-        verify(userRankingRepository).findAllOrderByTotalScoreDesc();
-        verify(userRankingRepository).saveAll(anyList());
+    void refreshPersistedRankings_WhenRecalculationFails_ShouldRetryOnNextRefresh() {
+        stubAddScores(250, 750);
+        when(userRankingRepository.recalculateRankings())
+                .thenThrow(new RuntimeException("Database error"))
+                .thenReturn(1);
+
+        userRankingService.addScores(Map.of(1L, 250));
+        assertThatThrownBy(() -> userRankingService.refreshPersistedRankings()).isInstanceOf(RuntimeException.class);
+        userRankingService.refreshPersistedRankings();
+        userRankingService.refreshPersistedRankings();
+
+        verify(userRankingRepository, times(2)).recalculateRankings();
     }
 
     @Test
@@ -429,4 +449,121 @@ class UserRankingServiceTest {
         assertThat(result.get(0).getUserId()).isEqualTo(1L);
         assertThat(result.get(0).getTotalScore()).isEqualTo(500);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getUserRanking_WithReadyIndex_ShouldNotQueryRankingTable() {
+        leaderboardIndex.rebuild(Arrays.asList(
+                UserRanking.builder().userId(2L).totalScore(900).build(),
+                testRanking));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        UserRankingDto result = userRankingService.getUserRanking(1L);
+
+        assertThat(result.getRanking()).isEqualTo(2);
+        assertThat(result.getTotalScore()).isEqualTo(500);
+        assertThat(result.getUsername()).isEqualTo("testuser");
+        verify(userRankingRepository, never()).findByUserId(anyLong());
+    }
+
+    @Test
+    void getRankingPage_ShouldFetchOneExtraRowToDetectNextPage() {
+        UserRankingDto first = UserRankingDto.builder().userId(1L).totalScore(900).ranking(1).updatedAt(LocalDateTime.of(2024, 1, 1, 10, 0)).build();
+        UserRankingDto second = UserRankingDto.builder().userId(2L).totalScore(800).ranking(2).updatedAt(LocalDateTime.of(2024, 1, 1, 10, 0)).build();
+        when(userRankingRepository.findTopRankings(2)).thenReturn(Arrays.asList(first, second));
+
+        RankingPageResponse page = userRankingService.getRankingPage(null, 1);
+
+        assertThat(page.getRankings()).containsExactly(first);
+        assertThat(page.getHasMore()).isTrue();
+        assertThat(RankingCursor.decode(page.getNextCursor())).isEqualTo(new RankingCursor(900, first.getUpdatedAt(), 1L));
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getRankingPage_WithCursor_ShouldUseKeysetQueryAndIndexRanks() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 1, 10, 0);
+        leaderboardIndex.rebuild(Arrays.asList(
+                UserRanking.builder().userId(1L).totalScore(900).updatedAt(updatedAt).build(),
+                UserRanking.builder().userId(2L).totalScore(800).updatedAt(updatedAt).build()));
+        UserRankingDto second = UserRankingDto.builder().userId(2L).totalScore(800).ranking(7).updatedAt(updatedAt).build();
+        String cursor = new RankingCursor(900, updatedAt, 1L).encode();
+        when(userRankingRepository.findRankingPageAfter(900, updatedAt, 1L, 51)).thenReturn(List.of(second));
+
+        RankingPageResponse page = userRankingService.getRankingPage(cursor, 50);
+
+        assertThat(page.getRankings()).extracting(UserRankingDto::getRanking).containsExactly(2);
+        assertThat(page.getHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getRankingPage_WithUndatedCursor_ShouldUseNullSafeQuery() {
+        when(userRankingRepository.findRankingPageAfterUndated(500, 3L, 101)).thenReturn(Collections.emptyList());
+
+        RankingPageResponse page = userRankingService.getRankingPage(new RankingCursor(500, null, 3L).encode(), 1000);
+
+        assertThat(page.getRankings()).isEmpty();
+        verify(userRankingRepository).findRankingPageAfterUndated(500, 3L, 101);
+    }
+
+    @Test
+    void getRankingPage_WithMalformedCursor_ShouldThrowInvalidCursorException() {
+        assertThatThrownBy(() -> userRankingService.getRankingPage("not-a-cursor", 10))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void getRankingWindow_WithReadyIndex_ShouldReturnNeighboursWithoutScanningTable() {
+        User user2 = User.builder().id(2L).email("user2@test.com").build();
+        user2.setDisplayUsername("user2");
+        leaderboardIndex.rebuild(Arrays.asList(
+                UserRanking.builder().userId(2L).totalScore(900).build(),
+                testRanking,
+                UserRanking.builder().userId(3L).totalScore(100).build(),
+                UserRanking.builder().userId(4L).totalScore(50).build()));
+        when(userRepository.findAllById(List.of(2L, 1L, 3L))).thenReturn(Arrays.asList(testUser, user2));
+
+        List<UserRankingDto> window = userRankingService.getRankingWindow(1L, 1);
+
+        assertThat(window).extracting(UserRankingDto::getUserId).containsExactly(2L, 1L, 3L);
+        assertThat(window).extracting(UserRankingDto::getRanking).containsExactly(1, 2, 3);
+        assertThat(window.get(1).getUsername()).isEqualTo("testuser");
+        verify(userRankingRepository, never()).findAllOrderByTotalScoreDesc();
+    }
+
+    @Test
+    void getRankingWindow_WithReadyIndexAndUnknownUser_ShouldThrowException() {
+        leaderboardIndex.rebuild(Collections.emptyList());
+
+        assertThatThrownBy(() -> userRankingService.getRankingWindow(1L, 3))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Ranking użytkownika nie został znaleziony");
+    }
+
+    @Test
+    void getRankingWindow_WithoutIndex_ShouldQueryPersistedRankRange() {
+        List<UserRankingDto> rows = List.of(UserRankingDto.builder().userId(1L).ranking(5).build());
+        when(userRankingRepository.findByUserId(1L)).thenReturn(Optional.of(testRanking));
+        when(userRankingRepository.findByRankingBetween(1, 30)).thenReturn(rows);
+
+        List<UserRankingDto> window = userRankingService.getRankingWindow(1L, 100);
+
+        assertThat(window).isSameAs(rows);
+    }
+
+    private void stubAddScores(int delta, int newTotal) {
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(testUser));
+        when(userRankingRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(testRanking), List.of(stored(1L, newTotal)));
+        when(userRankingRepository.addToTotalScore(eq(1L), eq(delta), any(LocalDateTime.class))).thenReturn(1);
+    }
+
+    private UserRanking stored(Long userId, int totalScore) {
+        return UserRanking.builder()
+                .userId(userId)
+                .totalScore(totalScore)
+                .ranking(1)
+                .updatedAt(LocalDateTime.now())
+                .version(1L)
+                .build();
+    }
+}
@@ -7,14 +7,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import pl.justdrinkjava.JustDrinkJava.dto.*;
 import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.event.UserRankingChangedEvent;
 import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -36,10 +36,16 @@ class UserServiceTest {
     private JwtService jwtService;
 
     @Mock
-    private SecurityContext securityContext;
+    private CurrentUserProvider currentUserProvider;
 
     @Mock
-    private Authentication authentication;
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserRankingService userRankingService;
 
     @InjectMocks
     private UserService userService;
@@ -72,16 +78,12 @@ class UserServiceTest {
         deleteAccountRequest = DeleteAccountRequest.builder()
                 .confirmation("USUŃ KONTO")
                 .build();
-
-        SecurityContextHolder.setContext(securityContext);
-        when(securityContext.getAuthentication()).thenReturn(authentication);
     }
 
     @Test
-    @DisplayName("should get current user successfully by username")
-    void shouldGetCurrentUserSuccessfullyByUsername() {
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+    @DisplayName("should get current user successfully")
+    void shouldGetCurrentUserSuccessfully() {
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
 
         UserDto result = userService.getCurrentUser();
 
@@ -91,48 +93,26 @@ class UserServiceTest {
         assertThat(result.getUsername()).isEqualTo("testuser");
         assertThat(result.getCreatedAt()).isEqualTo(user.getCreatedAt());
 
-        verify(userRepository).findByUsername("testuser");
-        verify(userRepository, never()).findByEmail(anyString());
-    }
-
-    @Test
-    @DisplayName("should get current user successfully by email when username not found")
-    void shouldGetCurrentUserSuccessfullyByEmailWhenUsernameNotFound() {
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByUsername("test@example.com")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
-
-        UserDto result = userService.getCurrentUser();
-
-        assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(1L);
-        assertThat(result.getEmail()).isEqualTo("test@example.com");
-        assertThat(result.getUsername()).isEqualTo("testuser");
-
-        verify(userRepository).findByUsername("test@example.com");
-        verify(userRepository).findByEmail("test@example.com");
+        verify(currentUserProvider).getCurrentUser();
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     @DisplayName("should throw exception when current user not found")
     void shouldThrowExceptionWhenCurrentUserNotFound() {
-        when(authentication.getName()).thenReturn("nonexistent");
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("nonexistent")).thenReturn(Optional.empty());
+        when(currentUserProvider.getCurrentUser()).thenThrow(new RuntimeException("Użytkownik nie został znaleziony"));
 
         assertThatThrownBy(() -> userService.getCurrentUser())
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Użytkownik nie został znaleziony");
 
-        verify(userRepository).findByUsername("nonexistent");
-        verify(userRepository).findByEmail("nonexistent");
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
     @DisplayName("should update profile successfully")
     void shouldUpdateProfileSuccessfully() {
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         when(userRepository.findByUsername("newusername")).thenReturn(Optional.empty());
         
         // Create updated user that will be returned by save()
@@ -153,18 +133,19 @@ class UserServiceTest {
         assertThat(result.getUser().getUsername()).isEqualTo("newusername");
         assertThat(result.getNewToken()).isEqualTo("newToken");
 
-        verify(userRepository).findByUsername("testuser");
+        verify(currentUserProvider).getCurrentUser();
         verify(userRepository).findByUsername("newusername");
         verify(userRepository).save(any(User.class));
-        verify(jwtService).generateToken(any());
+        verify(tokenRevocationRegistry).revokeTokensIssuedBefore(eq(1L), any(Instant.class));
+        verify(jwtService).generateToken(updatedUser);
+        verify(eventPublisher).publishEvent(UserRankingChangedEvent.profileChanged(1L));
     }
 
     @Test
     @DisplayName("should update profile without new token when username unchanged")
     void shouldUpdateProfileWithoutNewTokenWhenUsernameUnchanged() {
         updateProfileRequest.setUsername("testuser"); // Same username
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         when(userRepository.save(any(User.class))).thenReturn(user);
 
         UpdateProfileResponse result = userService.updateProfile(updateProfileRequest);
@@ -173,10 +154,11 @@ class UserServiceTest {
         assertThat(result.getUser()).isNotNull();
         assertThat(result.getNewToken()).isNull();
 
-        verify(userRepository).findByUsername("testuser");
+        verify(currentUserProvider).getCurrentUser();
         verify(userRepository, never()).findByUsername("newusername");
         verify(userRepository).save(any(User.class));
         verify(jwtService, never()).generateToken(any());
+        verifyNoInteractions(tokenRevocationRegistry);
     }
 
     @Test
@@ -188,15 +170,14 @@ class UserServiceTest {
                 .email("other@example.com")
                 .build();
 
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         when(userRepository.findByUsername("newusername")).thenReturn(Optional.of(existingUser));
 
         assertThatThrownBy(() -> userService.updateProfile(updateProfileRequest))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Nazwa użytkownika jest już zajęta");
 
-        verify(userRepository).findByUsername("testuser");
+        verify(currentUserProvider).getCurrentUser();
         verify(userRepository).findByUsername("newusername");
         verify(userRepository, never()).save(any(User.class));
     }
@@ -204,8 +185,7 @@ class UserServiceTest {
     @Test
     @DisplayName("should allow username update to same user")
     void shouldAllowUsernameUpdateToSameUser() {
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         when(userRepository.findByUsername("newusername")).thenReturn(Optional.of(user)); // Same user
         when(userRepository.save(any(User.class))).thenReturn(user);
         when(jwtService.generateToken(any())).thenReturn("newToken");
@@ -221,26 +201,26 @@ class UserServiceTest {
     @Test
     @DisplayName("should change password successfully")
     void shouldChangePasswordSuccessfully() {
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         when(passwordEncoder.matches("currentPassword", "encodedPassword")).thenReturn(true);
         when(passwordEncoder.encode("newPassword")).thenReturn("newEncodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(user);
+        when(jwtService.generateToken(user)).thenReturn("newToken");
 
-        assertThatCode(() -> userService.changePassword(changePasswordRequest))
-                .doesNotThrowAnyException();
+        String newToken = userService.changePassword(changePasswordRequest);
 
-        verify(userRepository).findByUsername("testuser");
+        assertThat(newToken).isEqualTo("newToken");
+        verify(currentUserProvider).getCurrentUser();
         verify(passwordEncoder).matches("currentPassword", "encodedPassword");
         verify(passwordEncoder).encode("newPassword");
         verify(userRepository).save(any(User.class));
+        verify(tokenRevocationRegistry).revokeTokensIssuedBefore(eq(1L), any(Instant.class));
     }
 
     @Test
     @DisplayName("should throw exception when current password is incorrect")
     void shouldThrowExceptionWhenCurrentPasswordIsIncorrect() {
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         when(passwordEncoder.matches("currentPassword", "encodedPassword")).thenReturn(false);
 
         assertThatThrownBy(() -> userService.changePassword(changePasswordRequest))
@@ -250,14 +230,14 @@ class UserServiceTest {
         verify(passwordEncoder).matches("currentPassword", "encodedPassword");
         verify(passwordEncoder, never()).encode(anyString());
         verify(userRepository, never()).save(any(User.class));
+        verify(tokenRevocationRegistry, never()).revokeTokensIssuedBefore(anyLong(), any(Instant.class));
     }
 
     @Test
     @DisplayName("should throw exception when new passwords do not match")
     void shouldThrowExceptionWhenNewPasswordsDoNotMatch() {
         changePasswordRequest.setConfirmPassword("differentPassword");
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
         when(passwordEncoder.matches("currentPassword", "encodedPassword")).thenReturn(true);
 
         assertThatThrownBy(() -> userService.changePassword(changePasswordRequest))
@@ -271,22 +251,22 @@ class UserServiceTest {
     @Test
     @DisplayName("should delete account successfully")
     void shouldDeleteAccountSuccessfully() {
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
 
         assertThatCode(() -> userService.deleteAccount(deleteAccountRequest))
                 .doesNotThrowAnyException();
 
-        verify(userRepository).findByUsername("testuser");
+        verify(currentUserProvider).getCurrentUser();
         verify(userRepository).delete(user);
+        verify(userRankingService).removeUserRanking(1L);
+        verify(tokenRevocationRegistry).revokeTokensIssuedBefore(eq(1L), any(Instant.class));
     }
 
     @Test
     @DisplayName("should throw exception when delete confirmation is incorrect")
     void shouldThrowExceptionWhenDeleteConfirmationIsIncorrect() {
         deleteAccountRequest.setConfirmation("WRONG CONFIRMATION");
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
 
         assertThatThrownBy(() -> userService.deleteAccount(deleteAccountRequest))
                 .isInstanceOf(RuntimeException.class)
@@ -298,9 +278,7 @@ class UserServiceTest {
     @Test
     @DisplayName("should throw exception when user not found for profile update")
     void shouldThrowExceptionWhenUserNotFoundForProfileUpdate() {
-        when(authentication.getName()).thenReturn("nonexistent");
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("nonexistent")).thenReturn(Optional.empty());
+        when(currentUserProvider.getCurrentUser()).thenThrow(new RuntimeException("Użytkownik nie został znaleziony"));
 
         assertThatThrownBy(() -> userService.updateProfile(updateProfileRequest))
                 .isInstanceOf(RuntimeException.class)
@@ -312,9 +290,7 @@ class UserServiceTest {
     @Test
     @DisplayName("should throw exception when user not found for password change")
     void shouldThrowExceptionWhenUserNotFoundForPasswordChange() {
-        when(authentication.getName()).thenReturn("nonexistent");
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("nonexistent")).thenReturn(Optional.empty());
+        when(currentUserProvider.getCurrentUser()).thenThrow(new RuntimeException("Użytkownik nie został znaleziony"));
 
         assertThatThrownBy(() -> userService.changePassword(changePasswordRequest))
                 .isInstanceOf(RuntimeException.class)
@@ -326,9 +302,7 @@ class UserServiceTest {
     @Test
     @DisplayName("should throw exception when user not found for account deletion")
     void shouldThrowExceptionWhenUserNotFoundForAccountDeletion() {
-        when(authentication.getName()).thenReturn("nonexistent");
-        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("nonexistent")).thenReturn(Optional.empty());
+        when(currentUserProvider.getCurrentUser()).thenThrow(new RuntimeException("Użytkownik nie został znaleziony"));
 
         assertThatThrownBy(() -> userService.deleteAccount(deleteAccountRequest))
                 .isInstanceOf(RuntimeException.class)
@@ -337,61 +311,11 @@ class UserServiceTest {
         verify(userRepository, never()).delete(any(User.class));
     }
 
-    @Test
-    @DisplayName("should find user by email when username lookup fails for profile update")
-    void shouldFindUserByEmailWhenUsernameLookupFailsForProfileUpdate() {
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByUsername("test@example.com")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
-        when(userRepository.findByUsername("newusername")).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenReturn(user);
-        when(jwtService.generateToken(any())).thenReturn("newToken");
-
-        UpdateProfileResponse result = userService.updateProfile(updateProfileRequest);
-
-        assertThat(result).isNotNull();
-        verify(userRepository).findByUsername("test@example.com");
-        verify(userRepository).findByEmail("test@example.com");
-    }
-
-    @Test
-    @DisplayName("should find user by email when username lookup fails for password change")
-    void shouldFindUserByEmailWhenUsernameLookupFailsForPasswordChange() {
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByUsername("test@example.com")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("currentPassword", "encodedPassword")).thenReturn(true);
-        when(passwordEncoder.encode("newPassword")).thenReturn("newEncodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(user);
-
-        assertThatCode(() -> userService.changePassword(changePasswordRequest))
-                .doesNotThrowAnyException();
-
-        verify(userRepository).findByUsername("test@example.com");
-        verify(userRepository).findByEmail("test@example.com");
-    }
-
-    @Test
-    @DisplayName("should find user by email when username lookup fails for account deletion")
-    void shouldFindUserByEmailWhenUsernameLookupFailsForAccountDeletion() {
-        when(authentication.getName()).thenReturn("test@example.com");
-        when(userRepository.findByUsername("test@example.com")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
-
-        assertThatCode(() -> userService.deleteAccount(deleteAccountRequest))
-                .doesNotThrowAnyException();
-
-        verify(userRepository).findByUsername("test@example.com");
-        verify(userRepository).findByEmail("test@example.com");
-        verify(userRepository).delete(user);
-    }
-
     @Test
     @DisplayName("should handle null confirmation for account deletion")
     void shouldHandleNullConfirmationForAccountDeletion() {
         deleteAccountRequest.setConfirmation(null);
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
 
         assertThatThrownBy(() -> userService.deleteAccount(deleteAccountRequest))
                 .isInstanceOf(RuntimeException.class)
@@ -404,8 +328,7 @@ class UserServiceTest {
     @DisplayName("should handle empty confirmation for account deletion")
     void shouldHandleEmptyConfirmationForAccountDeletion() {
         deleteAccountRequest.setConfirmation("");
-        when(authentication.getName()).thenReturn("testuser");
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
 
         assertThatThrownBy(() -> userService.deleteAccount(deleteAccountRequest))
                 .isInstanceOf(RuntimeException.class)
@@ -0,0 +1,157 @@
+package pl.justdrinkjava.JustDrinkJava.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import pl.justdrinkjava.JustDrinkJava.dto.RankingWindow;
+import pl.justdrinkjava.JustDrinkJava.dto.UserRankingDto;
+import pl.justdrinkjava.JustDrinkJava.entity.User;
+import pl.justdrinkjava.JustDrinkJava.entity.UserScoreBucket;
+import pl.justdrinkjava.JustDrinkJava.event.UserScoreDeltaEvent;
+import pl.justdrinkjava.JustDrinkJava.repository.UserRepository;
+import pl.justdrinkjava.JustDrinkJava.repository.UserScoreBucketRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WindowedLeaderboard Tests")
+class WindowedLeaderboardTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2024, 3, 10, 14, 25);
+
+    @Mock
+    private UserScoreBucketRepository userScoreBucketRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private WindowedLeaderboard windowedLeaderboard;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(windowedLeaderboard, "capacity", 3);
+    }
+
+    @Test
+    @DisplayName("should sum deltas into one hourly bucket per user on flush")
+    void shouldSumDeltasIntoHourlyBuckets() {
+        when(userScoreBucketRepository.sumPointsSince(any(), eq(3))).thenReturn(Collections.emptyList());
+        LocalDateTime hour = AT.truncatedTo(ChronoUnit.HOURS);
+        when(userScoreBucketRepository.addPoints(1L, UserScoreBucket.Granularity.HOUR, hour, 15)).thenReturn(1);
+        when(userScoreBucketRepository.addPoints(2L, UserScoreBucket.Granularity.HOUR, hour, 7)).thenReturn(0);
+
+        windowedLeaderboard.onScoreDelta(UserScoreDeltaEvent.of(1L, 10, AT));
+        windowedLeaderboard.onScoreDelta(UserScoreDeltaEvent.of(Map.of(1L, 5, 2L, 7, 3L, 0), AT.plusMinutes(20)));
+        windowedLeaderboard.flush();
+        windowedLeaderboard.flush();
+
+        verify(userScoreBucketRepository, times(2)).addPoints(anyLong(), any(), any(), anyInt());
+        verify(userScoreBucketRepository).save(argThat(bucket -> bucket.getUserId() == 2L && bucket.getPoints() == 7
+                && bucket.getBucketStart().equals(hour)));
+    }
+
+    @Test
+    @DisplayName("should keep deltas pending when the bucket write fails")
+    void shouldKeepDeltasPendingWhenWriteFails() {
+        LocalDateTime hour = AT.truncatedTo(ChronoUnit.HOURS);
+        when(userScoreBucketRepository.addPoints(1L, UserScoreBucket.Granularity.HOUR, hour, 10))
+                .thenThrow(new RuntimeException("Database error"));
+        when(userScoreBucketRepository.addPoints(1L, UserScoreBucket.Granularity.HOUR, hour, 15)).thenReturn(1);
+        when(userScoreBucketRepository.sumPointsSince(any(), eq(3))).thenReturn(Collections.emptyList());
+
+        windowedLeaderboard.onScoreDelta(UserScoreDeltaEvent.of(1L, 10, AT));
+        assertThrows(RuntimeException.class, () -> windowedLeaderboard.flush());
+        windowedLeaderboard.onScoreDelta(UserScoreDeltaEvent.of(1L, 5, AT.plusMinutes(5)));
+        windowedLeaderboard.flush();
+
+        verify(userScoreBucketRepository).addPoints(1L, UserScoreBucket.Granularity.HOUR, hour, 15);
+    }
+
+    @Test
+    @DisplayName("should serve window tops from the precomputed snapshot")
+    void shouldServeTopsFromSnapshot() {
+        User user = User.builder().id(1L).email("a@test.com").build();
+        user.setDisplayUsername("alice");
+        when(userScoreBucketRepository.sumPointsSince(any(), eq(3)))
+                .thenReturn(rows(new Object[]{1L, 40L}, new Object[]{2L, 25L}))
+                .thenReturn(rows(new Object[]{1L, 90L}));
+        when(userRepository.findAllById(anyList())).thenReturn(List.of(user));
+
+        List<UserRankingDto> day = windowedLeaderboard.getTop(RankingWindow.DAY, 2);
+        List<UserRankingDto> week = windowedLeaderboard.getTop(RankingWindow.WEEK, 1);
+        windowedLeaderboard.getTop(RankingWindow.DAY, 1);
+
+        assertEquals(List.of(1L, 2L), day.stream().map(UserRankingDto::getUserId).toList());
+        assertEquals("alice", day.get(0).getUsername());
+        assertEquals(25, day.get(1).getTotalScore());
+        assertEquals(2, day.get(1).getRanking());
+        assertEquals(90, week.get(0).getTotalScore());
+        verify(userScoreBucketRepository, times(2)).sumPointsSince(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should query buckets directly for limits above snapshot size")
+    void shouldQueryDirectlyForLargeLimits() {
+        when(userScoreBucketRepository.sumPointsSince(any(), eq(10))).thenReturn(Collections.emptyList());
+
+        assertTrue(windowedLeaderboard.getTop(RankingWindow.WEEK, 10).isEmpty());
+        assertTrue(windowedLeaderboard.getTop(RankingWindow.WEEK, 0).isEmpty());
+        verify(userScoreBucketRepository, times(1)).sumPointsSince(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should roll old hourly buckets into daily ones and drop expired days")
+    void shouldCompactHourlyBucketsIntoDays() {
+        LocalDateTime oldDay = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).minusDays(3);
+        when(userScoreBucketRepository.findByGranularityAndBucketStartBefore(eq(UserScoreBucket.Granularity.HOUR), any()))
+                .thenReturn(List.of(
+                        bucket(1L, oldDay.plusHours(9), 10),
+                        bucket(1L, oldDay.plusHours(20), 5),
+                        bucket(2L, oldDay.plusHours(9), 4)));
+        when(userScoreBucketRepository.addPoints(1L, UserScoreBucket.Granularity.DAY, oldDay, 15)).thenReturn(1);
+        when(userScoreBucketRepository.addPoints(2L, UserScoreBucket.Granularity.DAY, oldDay, 4)).thenReturn(1);
+        when(userScoreBucketRepository.sumPointsSince(any(), anyInt())).thenReturn(Collections.emptyList());
+
+        windowedLeaderboard.compact();
+
+        verify(userScoreBucketRepository).deleteByGranularityAndBucketStartBefore(eq(UserScoreBucket.Granularity.HOUR), any());
+        verify(userScoreBucketRepository).deleteByGranularityAndBucketStartBefore(
+                UserScoreBucket.Granularity.DAY, LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).minusDays(6));
+        verify(userScoreBucketRepository, never()).save(any());
+    }
+
+    private UserScoreBucket bucket(Long userId, LocalDateTime start, int points) {
+        return UserScoreBucket.builder()
+                .userId(userId)
+                .granularity(UserScoreBucket.Granularity.HOUR)
+                .bucketStart(start)
+                .points(points)
+                .build();
+    }
+
+    private List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}